@@ -3,6 +3,7 @@ package com.irondiscipline;
 import com.irondiscipline.command.*;
 import com.irondiscipline.listener.*;
 import com.irondiscipline.manager.*;
+import com.irondiscipline.model.Rank;
 import com.irondiscipline.util.RankUtil;
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.LuckPermsProvider;
@@ -31,6 +32,7 @@ public class IronDiscipline extends JavaPlugin {
     private DivisionManager divisionManager;
     private WarningManager warningManager;
     private PlaytimeManager playtimeManager;
+    private ActivityManager activityManager;
     private ExamQuestionManager examQuestionManager;
     private LinkManager linkManager;
     private DiscordManager discordManager;
@@ -81,6 +83,18 @@ public class IronDiscipline extends JavaPlugin {
         if (autoPromotionManager != null) {
             autoPromotionManager.shutdown();
         }
+        if (activityManager != null) {
+            activityManager.shutdown();
+        }
+        if (jailManager != null) {
+            // 服役時間の保存があるためストレージより先に停止
+            jailManager.shutdown();
+        }
+
+        // 日別の勤務時間をDBへ反映するためストレージより先に保存
+        if (playtimeManager != null) {
+            playtimeManager.saveAll();
+        }
 
         // データ保存
         if (storageManager != null) {
@@ -89,9 +103,6 @@ public class IronDiscipline extends JavaPlugin {
         if (jailManager != null) {
             jailManager.saveAll();
         }
-        if (playtimeManager != null) {
-            playtimeManager.saveAll();
-        }
         if (discordManager != null) {
             discordManager.shutdown();
         }
@@ -123,6 +134,7 @@ public class IronDiscipline extends JavaPlugin {
 
     private void initializeManagers() {
         this.storageManager = new StorageManager(this);
+        Rank.setLadder(configManager.getRankLadder());
         this.rankManager = new RankManager(this, luckPerms);
         this.ptsManager = new PTSManager(this);
         this.jailManager = new JailManager(this);
@@ -131,6 +143,7 @@ public class IronDiscipline extends JavaPlugin {
         this.divisionManager = new DivisionManager(this);
         this.warningManager = new WarningManager(this);
         this.playtimeManager = new PlaytimeManager(this);
+        this.activityManager = new ActivityManager(this);
         this.examQuestionManager = new ExamQuestionManager(this);
         this.linkManager = new LinkManager(this);
         this.discordManager = new DiscordManager(this);
@@ -164,6 +177,9 @@ public class IronDiscipline extends JavaPlugin {
         getCommand("jail").setExecutor(new JailCommand(this));
         getCommand("unjail").setExecutor(new UnjailCommand(this));
         getCommand("setjail").setExecutor(new SetJailCommand(this));
+        JailCellCommand jailCellCmd = new JailCellCommand(this);
+        getCommand("jailcell").setExecutor(jailCellCmd);
+        getCommand("jailcell").setTabCompleter(jailCellCmd);
         getCommand("killlog").setExecutor(new KillLogCommand(this));
         getCommand("irondiscipline").setExecutor(new IronDisciplineCommand(this));
 
@@ -214,6 +230,10 @@ public class IronDiscipline extends JavaPlugin {
     public void reload() {
         reloadConfig();
         configManager.reload();
+        Rank.setLadder(configManager.getRankLadder());
+        rankManager.reloadLadder();
+        ptsManager.rebuildOfficers();
+        jailManager.reloadZone();
         getLogger().info("設定リロード完了");
     }
 
@@ -267,6 +287,10 @@ public class IronDiscipline extends JavaPlugin {
         return playtimeManager;
     }
 
+    public ActivityManager getActivityManager() {
+        return activityManager;
+    }
+
     public ExamQuestionManager getExamQuestionManager() {
         return examQuestionManager;
     }
@@ -33,7 +33,7 @@ public class ExamCommand implements CommandExecutor, TabCompleter {
         ExamManager examManager = plugin.getExamManager();
 
         // 権限チェック (簡易的に少尉以上とする、本来はRankManagerでチェックすべき)
-        if (!plugin.getRankManager().getRank(player).isHigherThan(com.irondiscipline.model.Rank.SERGEANT)) {
+        if (plugin.getRankManager().getRank(player).getWeight() < plugin.getConfigManager().getOfficerWeight()) {
             player.sendMessage(ChatColor.RED + "権限がありません。少尉以上の階級が必要です。");
             return true;
         }
@@ -1,6 +1,10 @@
 package com.irondiscipline.command;
 
 import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.storage.ConnectionPool;
+import com.irondiscipline.storage.KillLogPartitions;
+import com.irondiscipline.storage.KillLogWriter;
+import com.irondiscipline.storage.StorageExecutor;
 import org.bukkit.Bukkit;
 import org.bukkit.BanList;
 import org.bukkit.command.Command;
@@ -67,6 +71,7 @@ public class IronDisciplineCommand implements CommandExecutor, TabCompleter {
                 plugin.getStorageManager().cleanupOldLogs();
                 sender.sendMessage("§a古いログの削除を開始した。");
             }
+            case "dbstats" -> handleDbStats(sender);
             // Adonis風コマンド
             case "kick" -> handleKick(sender, args);
             case "ban" -> handleBan(sender, args);
@@ -81,6 +86,46 @@ public class IronDisciplineCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    private void handleDbStats(CommandSender sender) {
+        ConnectionPool pool = plugin.getStorageManager().getConnectionPool();
+        if (pool == null) {
+            sender.sendMessage("§cデータベースに接続されていません");
+            return;
+        }
+
+        sender.sendMessage("§6===== DBコネクションプール =====");
+        sender.sendMessage("§7使用中: §f" + pool.getActiveConnections() + " §7/ 最大: §f" + pool.getMaximumPoolSize());
+        sender.sendMessage("§7アイドル: §f" + pool.getIdleConnections());
+        sender.sendMessage("§7待機スレッド: §f" + pool.getThreadsAwaitingConnection());
+        sender.sendMessage("§7累計生成: §f" + pool.getTotalCreated() + " §7/ タイムアウト: §f" + pool.getTotalTimeouts());
+
+        StorageExecutor executor = plugin.getStorageManager().getStorageExecutor();
+        sender.sendMessage("§6===== DB処理スレッド =====");
+        for (StorageExecutor.Lane lane : StorageExecutor.Lane.values()) {
+            sender.sendMessage("§7" + lane.getDisplayName() + ": §f" + executor.getActiveCount(lane)
+                    + " §7/ " + executor.getThreadCount(lane) + "スレッド, キュー §f" + executor.getQueueDepth(lane)
+                    + " §7/ " + executor.getQueueCapacity(lane) + ", 拒否 §f" + executor.getRejectedCount(lane));
+        }
+        List<StorageExecutor.OperationStats> operations = executor.getOperationStats();
+        for (StorageExecutor.OperationStats op : operations.subList(0, Math.min(5, operations.size()))) {
+            sender.sendMessage(String.format("§7%s: §f%d回 §7(待機 §f%.1fms§7, 実行 §f%.1fms§7, 最大 §f%.1fms§7)",
+                    op.getName(), op.getCount(), op.getAverageWaitMillis(), op.getAverageExecMillis(),
+                    op.getMaxExecMillis()));
+        }
+
+        KillLogWriter writer = plugin.getStorageManager().getKillLogWriter();
+        if (writer != null) {
+            sender.sendMessage("§6===== 戦闘ログ書き込みキュー =====");
+            KillLogPartitions partitions = plugin.getStorageManager().getKillLogPartitions();
+            sender.sendMessage("§7月別テーブル: §f" + (partitions.isEnabled() ? partitions.getPartitionCount() + "個" : "無効"));
+            sender.sendMessage("§7キュー: §f" + writer.getQueueDepth() + " §7/ " + writer.getQueueCapacity());
+            sender.sendMessage("§7保存済み: §f" + writer.getWrittenCount() + " §7/ 破棄: §f" + writer.getDroppedCount()
+                    + " §7/ 失敗: §f" + writer.getFailedCount());
+            sender.sendMessage(String.format("§7バッチ: §f%d §7(平均 §f%.1fms§7, 最大 §f%.1fms§7)",
+                    writer.getBatchCount(), writer.getAverageFlushMillis(), writer.getMaxFlushMillis()));
+        }
+    }
+
     private void handleKick(CommandSender sender, String[] args) {
         if (args.length < 2) {
             sender.sendMessage("§c使用法: /iron kick <プレイヤー> [理由]");
@@ -223,6 +268,7 @@ public class IronDisciplineCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage("§e/iron reload §7- 設定をリロード");
         sender.sendMessage("§e/iron version §7- バージョン表示");
         sender.sendMessage("§e/iron cleanup §7- 古いログを削除");
+        sender.sendMessage("§e/iron dbstats §7- DB接続状況を表示");
         sender.sendMessage("§6----- 管理コマンド -----");
         sender.sendMessage("§e/iron kick <player> [理由] §7- キック");
         sender.sendMessage("§e/iron ban <player> [理由] §7- BAN");
@@ -238,7 +284,7 @@ public class IronDisciplineCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
         if (args.length == 1) {
             String prefix = args[0].toLowerCase();
-            for (String sub : new String[]{"reload", "version", "cleanup", "kick", "ban", "tp", "bring", "freeze", "unfreeze", "announce"}) {
+            for (String sub : new String[]{"reload", "version", "cleanup", "dbstats", "kick", "ban", "tp", "bring", "freeze", "unfreeze", "announce"}) {
                 if (sub.startsWith(prefix)) {
                     completions.add(sub);
                 }
@@ -0,0 +1,222 @@
+package com.irondiscipline.command;
+
+import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.model.JailCell;
+import org.bukkit.Location;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * /jailcell コマンド
+ * 監房の範囲選択・作成・削除・収容人数の変更
+ */
+public class JailCellCommand implements CommandExecutor, TabCompleter {
+
+    private final IronDiscipline plugin;
+
+    // 管理者ごとの範囲選択 (pos1, pos2)
+    private final Map<UUID, Location[]> selections = new ConcurrentHashMap<>();
+
+    public JailCellCommand(IronDiscipline plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission("iron.jail.admin")) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("no_permission"));
+            return true;
+        }
+
+        if (args.length == 0) {
+            sendUsage(sender);
+            return true;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "pos1", "pos2" -> handlePosition(sender, args[0].equalsIgnoreCase("pos1") ? 0 : 1);
+            case "create" -> handleCreate(sender, args);
+            case "remove" -> handleRemove(sender, args);
+            case "capacity" -> handleCapacity(sender, args);
+            case "list" -> handleList(sender);
+            default -> sendUsage(sender);
+        }
+        return true;
+    }
+
+    private void handlePosition(CommandSender sender, int index) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("§cこのコマンドはプレイヤーのみ使用可能。");
+            return;
+        }
+        Location location = player.getLocation();
+        selections.computeIfAbsent(player.getUniqueId(), k -> new Location[2])[index] = location.clone();
+        player.sendMessage("§a位置" + (index + 1) + "を設定した: §f"
+                + location.getBlockX() + ", " + location.getBlockY() + ", " + location.getBlockZ());
+    }
+
+    private void handleCreate(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("§cこのコマンドはプレイヤーのみ使用可能。");
+            return;
+        }
+        if (args.length < 2) {
+            sender.sendMessage("§c使用法: /jailcell create <名前> [収容人数]");
+            return;
+        }
+        String name = args[1];
+        if (name.length() > 32) {
+            sender.sendMessage("§c監房名は32文字以内で指定せよ。");
+            return;
+        }
+        if (name.equalsIgnoreCase(JailCell.DEFAULT_NAME)) {
+            sender.sendMessage("§c監房名 " + JailCell.DEFAULT_NAME + " は隔離場所 (/setjail) 用に予約されている。");
+            return;
+        }
+        if (plugin.getJailManager().isConfigCell(name)) {
+            sender.sendMessage("§c監房 " + name + " は設定ファイル (jail.cells) で定義されている。別の名前を指定せよ。");
+            return;
+        }
+        int capacity = 0;
+        if (args.length >= 3) {
+            capacity = parseCapacity(sender, args[2]);
+            if (capacity < 0) {
+                return;
+            }
+        }
+
+        Location[] selection = selections.get(player.getUniqueId());
+        if (selection == null || selection[0] == null || selection[1] == null) {
+            sender.sendMessage("§c先に /jailcell pos1 と /jailcell pos2 で範囲を選択せよ。");
+            return;
+        }
+        if (selection[0].getWorld() != selection[1].getWorld()
+                || selection[0].getWorld() != player.getWorld()) {
+            sender.sendMessage("§c範囲と現在地は同じワールドである必要がある。");
+            return;
+        }
+
+        // 現在地を戻し先にする
+        JailCell cell = JailCell.box(name, player.getWorld(),
+                selection[0].getBlockX(), selection[0].getBlockY(), selection[0].getBlockZ(),
+                selection[1].getBlockX(), selection[1].getBlockY(), selection[1].getBlockZ(),
+                player.getLocation(), capacity);
+        if (!cell.contains(player.getLocation())) {
+            sender.sendMessage("§c監房の範囲内に立って実行せよ (現在地が戻し先になる)。");
+            return;
+        }
+
+        plugin.getJailManager().saveCell(cell);
+        selections.remove(player.getUniqueId());
+        sender.sendMessage("§a監房 §f" + name + " §aを作成した。収容人数: §f" + formatCapacity(capacity));
+    }
+
+    private void handleRemove(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage("§c使用法: /jailcell remove <名前>");
+            return;
+        }
+        if (plugin.getJailManager().isConfigCell(args[1])) {
+            sender.sendMessage("§c監房 " + args[1] + " は設定ファイル (jail.cells) で定義されている。設定ファイルから削除せよ。");
+        } else if (plugin.getJailManager().removeCell(args[1])) {
+            sender.sendMessage("§a監房 §f" + args[1] + " §aを削除した。");
+        } else {
+            sender.sendMessage("§c監房が見つからない: " + args[1]);
+        }
+    }
+
+    private void handleCapacity(CommandSender sender, String[] args) {
+        if (args.length < 3) {
+            sender.sendMessage("§c使用法: /jailcell capacity <名前> <収容人数>");
+            return;
+        }
+        JailCell cell = plugin.getJailManager().getCell(args[1]);
+        if (cell == null) {
+            sender.sendMessage("§c監房が見つからない: " + args[1]);
+            return;
+        }
+        if (plugin.getJailManager().isConfigCell(cell.getName())) {
+            // DBに複製すると以降の設定ファイルの変更が反映されなくなるため変更しない
+            sender.sendMessage("§c監房 " + cell.getName() + " は設定ファイル (jail.cells) で定義されている。"
+                    + "収容人数は設定ファイルの capacity で変更せよ。");
+            return;
+        }
+        int capacity = parseCapacity(sender, args[2]);
+        if (capacity < 0) {
+            return;
+        }
+        plugin.getJailManager().saveCell(cell.withCapacity(capacity));
+        sender.sendMessage("§a監房 §f" + cell.getName() + " §aの収容人数を §f" + formatCapacity(capacity)
+                + " §aに変更した。");
+    }
+
+    private void handleList(CommandSender sender) {
+        List<JailCell> cells = plugin.getJailManager().getCells();
+        if (cells.isEmpty()) {
+            sender.sendMessage("§7監房は登録されていない。");
+            return;
+        }
+        sender.sendMessage("§6=== 監房一覧 ===");
+        for (JailCell cell : cells) {
+            sender.sendMessage("§e" + cell.getName() + " §7(" + cell.getWorld().getName() + ") §f"
+                    + plugin.getJailManager().getCellOccupancy(cell.getName()) + " / "
+                    + formatCapacity(cell.getCapacity()));
+        }
+    }
+
+    private int parseCapacity(CommandSender sender, String value) {
+        try {
+            int capacity = Integer.parseInt(value);
+            if (capacity >= 0) {
+                return capacity;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        sender.sendMessage("§c収容人数は0以上の数値で指定せよ (0 = 無制限)。");
+        return -1;
+    }
+
+    private String formatCapacity(int capacity) {
+        return capacity == 0 ? "無制限" : String.valueOf(capacity);
+    }
+
+    private void sendUsage(CommandSender sender) {
+        sender.sendMessage("§6=== /jailcell ===");
+        sender.sendMessage("§e/jailcell pos1 §7- 範囲の1点目を現在地に設定");
+        sender.sendMessage("§e/jailcell pos2 §7- 範囲の2点目を現在地に設定");
+        sender.sendMessage("§e/jailcell create <名前> [収容人数] §7- 選択範囲を監房にする (現在地が戻し先)");
+        sender.sendMessage("§e/jailcell capacity <名前> <収容人数> §7- 収容人数を変更 (0 = 無制限)");
+        sender.sendMessage("§e/jailcell remove <名前> §7- 監房を削除");
+        sender.sendMessage("§e/jailcell list §7- 監房と収容状況の一覧");
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1) {
+            String prefix = args[0].toLowerCase();
+            for (String sub : new String[] { "pos1", "pos2", "create", "capacity", "remove", "list" }) {
+                if (sub.startsWith(prefix)) {
+                    completions.add(sub);
+                }
+            }
+        } else if (args.length == 2 && (args[0].equalsIgnoreCase("remove") || args[0].equalsIgnoreCase("capacity"))) {
+            String prefix = args[1].toLowerCase();
+            for (JailCell cell : plugin.getJailManager().getCells()) {
+                if (cell.getName().toLowerCase().startsWith(prefix)) {
+                    completions.add(cell.getName());
+                }
+            }
+        }
+        return completions;
+    }
+}
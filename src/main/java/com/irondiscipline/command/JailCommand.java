@@ -1,6 +1,8 @@
 package com.irondiscipline.command;
 
 import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.util.DurationUtil;
+import com.irondiscipline.util.PlayerSelector;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -32,7 +34,7 @@ public class JailCommand implements CommandExecutor, TabCompleter {
         }
 
         if (args.length < 1) {
-            sender.sendMessage("§c使用法: /jail <プレイヤー名> [理由]");
+            sender.sendMessage("§c使用法: /jail <プレイヤー名|@division:<部隊>|@radius:<ブロック>|名前1,名前2> [期間 (例: 30m, 1h30m)] [理由]");
             return true;
         }
 
@@ -40,17 +42,28 @@ public class JailCommand implements CommandExecutor, TabCompleter {
         Player target = Bukkit.getPlayer(targetName);
 
         // 隔離場所チェック
-        if (plugin.getConfigManager().getJailLocation() == null) {
+        if (!plugin.getJailManager().hasJailDestination()) {
             sender.sendMessage(plugin.getConfigManager().getMessage("jail_not_set"));
             return true;
         }
 
+        // 刑期（オプション、省略時は無期限）
+        int reasonStart = 1;
+        long sentenceMillis = 0;
+        if (args.length >= 2) {
+            long parsed = DurationUtil.parse(args[1]);
+            if (parsed > 0) {
+                sentenceMillis = parsed;
+                reasonStart = 2;
+            }
+        }
+
         // 理由（オプション）
         String reason = "理由なし";
-        if (args.length >= 2) {
+        if (args.length > reasonStart) {
             StringBuilder sb = new StringBuilder();
-            for (int i = 1; i < args.length; i++) {
-                if (i > 1)
+            for (int i = reasonStart; i < args.length; i++) {
+                if (i > reasonStart)
                     sb.append(" ");
                 sb.append(args[i]);
             }
@@ -59,10 +72,29 @@ public class JailCommand implements CommandExecutor, TabCompleter {
 
         // 隔離実行
         Player jailer = (sender instanceof Player) ? (Player) sender : null;
+
+        // 一括隔離 (部隊・範囲・複数名指定)
+        if (PlayerSelector.isSelector(targetName)) {
+            List<Player> targets = PlayerSelector.select(plugin, sender, targetName);
+            if (targets == null) {
+                return true;
+            }
+            if (targets.isEmpty()) {
+                sender.sendMessage("§c該当するオンラインのプレイヤーがいない。");
+                return true;
+            }
+            plugin.getJailManager().jailBatch(targets, jailer, reason, sentenceMillis,
+                    result -> sender.sendMessage(plugin.getConfigManager().getMessage("jail_batch_done",
+                            "%succeeded%", String.valueOf(result.getSucceeded()),
+                            "%skipped%", String.valueOf(result.getSkipped()),
+                            "%failed%", String.valueOf(result.getFailed()))));
+            return true;
+        }
+
         boolean success;
 
         if (target != null) {
-            success = plugin.getJailManager().jail(target, jailer, reason);
+            success = plugin.getJailManager().jail(target, jailer, reason, sentenceMillis);
         } else {
             // オフラインプレイヤー
             org.bukkit.OfflinePlayer offlineTarget = Bukkit.getOfflinePlayer(targetName);
@@ -72,10 +104,15 @@ public class JailCommand implements CommandExecutor, TabCompleter {
                 return true;
             }
             success = plugin.getJailManager().jailOffline(offlineTarget.getUniqueId(), offlineTarget.getName(),
-                    jailer != null ? jailer.getUniqueId() : null, reason);
+                    jailer != null ? jailer.getUniqueId() : null, reason, sentenceMillis);
         }
 
-        if (success) {
+        if (success && sentenceMillis > 0) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("jail_sent_timed",
+                    "%player%", target != null ? target.getName() : targetName,
+                    "%reason%", reason,
+                    "%duration%", DurationUtil.format(sentenceMillis)));
+        } else if (success) {
             sender.sendMessage(plugin.getConfigManager().getMessage("jail_sent",
                     "%player%", target != null ? target.getName() : targetName,
                     "%reason%", reason));
@@ -96,11 +133,30 @@ public class JailCommand implements CommandExecutor, TabCompleter {
                     completions.add(player.getName());
                 }
             }
+            addSelectorCompletions(completions, prefix);
         } else if (args.length == 2) {
+            completions.add("30m");
+            completions.add("1h");
+            completions.add("1d");
             completions.add("規律違反");
             completions.add("命令無視");
             completions.add("不正行為");
         }
         return completions;
     }
+
+    private void addSelectorCompletions(List<String> completions, String prefix) {
+        if (!prefix.startsWith("@")) {
+            return;
+        }
+        for (String division : plugin.getDivisionManager().getAllDivisions()) {
+            String selector = PlayerSelector.DIVISION_PREFIX + division;
+            if (selector.startsWith(prefix)) {
+                completions.add(selector);
+            }
+        }
+        if ((PlayerSelector.RADIUS_PREFIX + "10").startsWith(prefix)) {
+            completions.add(PlayerSelector.RADIUS_PREFIX + "10");
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.irondiscipline.command;
 
 import com.irondiscipline.IronDiscipline;
 import com.irondiscipline.model.KillLog;
+import com.irondiscipline.model.KillLogPage;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -13,17 +14,31 @@ import org.bukkit.entity.Player;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * /killlog コマンド
- * 戦闘ログを閲覧
+ * 戦闘ログを閲覧 (/killlog [プレイヤー] [ページ])
  */
 public class KillLogCommand implements CommandExecutor, TabCompleter {
 
     private final IronDiscipline plugin;
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("MM/dd HH:mm:ss");
+    private static final int MAX_CURSOR_SESSIONS = 64;
+    // 既知の最終ページから一度に先へ進めるページ数 (深いページへの直接ジャンプで全ページを辿らせない)
+    private static final int MAX_PAGE_SKIP = 5;
+
+    // 閲覧者+対象ごとのページトークン (index = ページ番号-1)
+    private final Map<String, List<String>> cursors = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > MAX_CURSOR_SESSIONS;
+        }
+    };
 
     public KillLogCommand(IronDiscipline plugin) {
         this.plugin = plugin;
@@ -37,77 +52,153 @@ public class KillLogCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        int limit = 10;
+        int page = 1;
         String targetName = null;
 
-        // 引数解析
-        for (int i = 0; i < args.length; i++) {
-            String arg = args[i];
+        // 引数解析 (数値はページ番号)
+        for (String arg : args) {
             try {
-                limit = Integer.parseInt(arg);
+                page = Math.max(1, Integer.parseInt(arg));
             } catch (NumberFormatException e) {
                 targetName = arg;
             }
         }
 
-        final int displayLimit = Math.min(limit, 50);
+        final int requestedPage = page;
         final String finalTargetName = targetName;
 
-        if (targetName != null) {
-            // 特定プレイヤーのログ
-            Player target = Bukkit.getPlayer(targetName);
-            UUID targetId = target != null ? target.getUniqueId() : null;
-            
-            if (targetId == null) {
-                // オフラインプレイヤーを検索（簡易実装）
-                sender.sendMessage("§e" + targetName + " の戦闘ログを検索中...");
-                // 全ログから名前でフィルタ
-                plugin.getStorageManager().getAllKillLogsAsync(100).thenAccept(logs -> {
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        sender.sendMessage(ChatColor.GOLD + "===== 戦闘ログ (" + finalTargetName + ") =====");
-                        int count = 0;
-                        for (KillLog log : logs) {
-                            if (count >= displayLimit) break;
-                            if (log.getKillerName() != null && log.getKillerName().equalsIgnoreCase(finalTargetName) ||
-                                log.getVictimName().equalsIgnoreCase(finalTargetName)) {
-                                sendLogEntry(sender, log);
-                                count++;
-                            }
-                        }
-                        if (count == 0) {
-                            sender.sendMessage(ChatColor.GRAY + "ログが見つからない。");
-                        }
-                    });
-                });
-            } else {
-                plugin.getStorageManager().getKillLogsAsync(targetId, displayLimit).thenAccept(logs -> {
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        sender.sendMessage(ChatColor.GOLD + "===== 戦闘ログ (" + finalTargetName + ") =====");
-                        for (KillLog log : logs) {
-                            sendLogEntry(sender, log);
-                        }
-                        if (logs.isEmpty()) {
-                            sender.sendMessage(ChatColor.GRAY + "ログが見つからない。");
-                        }
-                    });
-                });
-            }
-        } else {
+        if (targetName == null) {
             // 全ログ
-            plugin.getStorageManager().getAllKillLogsAsync(displayLimit).thenAccept(logs -> {
+            showPage(sender, null, null, requestedPage);
+            return true;
+        }
+
+        // 特定プレイヤーのログ
+        Player target = Bukkit.getPlayer(targetName);
+        if (target != null) {
+            showPage(sender, target.getUniqueId(), target.getName(), requestedPage);
+            return true;
+        }
+
+        // オフラインプレイヤーはUUID解決にWebリクエストが発生し得るため非同期
+        sender.sendMessage("§e" + targetName + " の戦闘ログを検索中...");
+        CompletableFuture.supplyAsync(() -> Bukkit.getOfflinePlayer(finalTargetName))
+                .thenAccept(offlineTarget -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (!offlineTarget.hasPlayedBefore() && !offlineTarget.isOnline()) {
+                        sender.sendMessage("§cプレイヤーが見つかりません (未参加の可能性)");
+                        return;
+                    }
+                    String name = offlineTarget.getName() != null ? offlineTarget.getName() : finalTargetName;
+                    showPage(sender, offlineTarget.getUniqueId(), name, requestedPage);
+                }));
+
+        return true;
+    }
+
+    /**
+     * 指定ページを取得して表示
+     */
+    private void showPage(CommandSender sender, UUID targetId, String targetName, int page) {
+        String sessionKey = sender.getName() + ":" + (targetId != null ? targetId : "*");
+        int pageSize = plugin.getConfigManager().getKillLogPageSize();
+
+        int reachable = reachablePage(sessionKey, page);
+        if (page > reachable) {
+            sender.sendMessage(ChatColor.GRAY + "ページ " + page + " へは直接移動できない。"
+                    + reachable + "ページまでを順に表示してください。");
+            return;
+        }
+
+        fetchPage(sessionKey, targetId, page, pageSize).whenComplete((result, error) ->
                 Bukkit.getScheduler().runTask(plugin, () -> {
-                    sender.sendMessage(ChatColor.GOLD + "===== 最新戦闘ログ =====");
-                    for (KillLog log : logs) {
+                    if (error != null) {
+                        sender.sendMessage("§c戦闘ログの取得に失敗しました");
+                        return;
+                    }
+
+                    String title = targetName != null ? "戦闘ログ (" + targetName + ")" : "最新戦闘ログ";
+                    if (result == null) {
+                        sender.sendMessage(ChatColor.GRAY + "ページ " + page + " は存在しない。");
+                        return;
+                    }
+
+                    sender.sendMessage(ChatColor.GOLD + "===== " + title + " - " + page + "ページ =====");
+                    for (KillLog log : result.getLogs()) {
                         sendLogEntry(sender, log);
                     }
-                    if (logs.isEmpty()) {
+                    if (result.getLogs().isEmpty()) {
                         sender.sendMessage(ChatColor.GRAY + "ログが見つからない。");
                     }
-                });
-            });
+                    if (result.hasNext()) {
+                        String command = "/killlog " + (targetName != null ? targetName + " " : "") + (page + 1);
+                        sender.sendMessage(ChatColor.GRAY + "次のページ: " + ChatColor.YELLOW + command);
+                    }
+                }));
+    }
+
+    /**
+     * 現在のセッションで移動できる最も深いページ
+     * 既知のページ (トークン記録済み) から {@link #MAX_PAGE_SKIP} ページ先まで
+     */
+    private int reachablePage(String sessionKey, int page) {
+        synchronized (cursors) {
+            List<String> tokens = cursors.get(sessionKey);
+            int known = page == 1 || tokens == null ? 1 : tokens.size();
+            return known + MAX_PAGE_SKIP;
         }
+    }
 
-        return true;
+    /**
+     * ページを取得
+     * 記録済みのトークンがあればそこから直接シークし、なければ最寄りの既知ページから順に辿る
+     * (辿るページ数は呼び出し側で {@link #MAX_PAGE_SKIP} までに制限する)
+     *
+     * @return ページ (指定ページが存在しない場合null)
+     */
+    private CompletableFuture<KillLogPage> fetchPage(String sessionKey, UUID targetId, int page, int pageSize) {
+        int startPage;
+        String startToken;
+        synchronized (cursors) {
+            List<String> tokens = cursors.get(sessionKey);
+            if (page == 1 || tokens == null) {
+                // 1ページ目は最新状態から取り直す
+                tokens = new ArrayList<>();
+                tokens.add(null);
+                cursors.put(sessionKey, tokens);
+            }
+            startPage = Math.min(page, tokens.size());
+            startToken = tokens.get(startPage - 1);
+        }
+        if (page - startPage > MAX_PAGE_SKIP) {
+            // 確認後にセッションが破棄された場合も深く辿らない
+            return CompletableFuture.completedFuture(null);
+        }
+        return walk(sessionKey, targetId, startPage, startToken, page, pageSize);
+    }
+
+    private CompletableFuture<KillLogPage> walk(String sessionKey, UUID targetId, int currentPage, String token,
+            int targetPage, int pageSize) {
+        return plugin.getStorageManager().getKillLogPageAsync(targetId, token, pageSize).thenCompose(result -> {
+            if (result.hasNext()) {
+                rememberToken(sessionKey, currentPage + 1, result.getNextToken());
+            }
+            if (currentPage == targetPage) {
+                return CompletableFuture.completedFuture(result);
+            }
+            if (!result.hasNext()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return walk(sessionKey, targetId, currentPage + 1, result.getNextToken(), targetPage, pageSize);
+        });
+    }
+
+    private void rememberToken(String sessionKey, int page, String token) {
+        synchronized (cursors) {
+            List<String> tokens = cursors.get(sessionKey);
+            if (tokens != null && tokens.size() == page - 1) {
+                tokens.add(token);
+            }
+        }
     }
 
     /**
@@ -139,10 +230,11 @@ public class KillLogCommand implements CommandExecutor, TabCompleter {
                     completions.add(player.getName());
                 }
             }
-            // 件数サジェスト
-            completions.add("5");
-            completions.add("10");
-            completions.add("20");
+            completions.add("1");
+        } else if (args.length == 2) {
+            // ページ番号サジェスト
+            completions.add("1");
+            completions.add("2");
         }
         return completions;
     }
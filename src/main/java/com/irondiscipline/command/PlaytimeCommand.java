@@ -8,6 +8,9 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -28,7 +31,11 @@ public class PlaytimeCommand implements CommandExecutor, TabCompleter {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (args.length > 0 && args[0].equalsIgnoreCase("top")) {
-            showTopPlaytime(sender);
+            if (args.length > 1 && (args[1].equalsIgnoreCase("week") || args[1].equalsIgnoreCase("month"))) {
+                showPeriodTopPlaytime(sender, args[1].equalsIgnoreCase("week"));
+            } else {
+                showTopPlaytime(sender);
+            }
             return true;
         }
         
@@ -52,21 +59,51 @@ public class PlaytimeCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage("§6=== " + target.getName() + " の勤務時間 ===");
         sender.sendMessage("§7累計: §f" + totalTime);
         sender.sendMessage("§7本日: §f" + todayTime);
+        int rank = plugin.getPlaytimeManager().getPlaytimeRank(target.getUniqueId());
+        if (rank > 0) {
+            sender.sendMessage("§7順位: §f" + rank + "位 §7/ " + plugin.getPlaytimeManager().getRankedPlayerCount() + "人");
+        }
+
+        // 今週・今月は日別の集計から取得
+        UUID targetId = target.getUniqueId();
+        plugin.getPlaytimeManager().getWeekPlaytime(targetId)
+                .thenCombine(plugin.getPlaytimeManager().getMonthPlaytime(targetId), (week, month) -> {
+                    Bukkit.getScheduler().runTask(plugin, () -> {
+                        sender.sendMessage("§7直近7日: §f" + plugin.getPlaytimeManager().formatTime(week));
+                        sender.sendMessage("§7今月: §f" + plugin.getPlaytimeManager().formatTime(month));
+                    });
+                    return null;
+                });
         
         return true;
     }
 
     private void showTopPlaytime(CommandSender sender) {
         List<Map.Entry<UUID, Long>> top = plugin.getPlaytimeManager().getTopPlaytime(10);
-        
-        sender.sendMessage("§6=== 勤務時間ランキング ===");
+        sendRanking(sender, "§6=== 勤務時間ランキング ===", top, true);
+    }
+
+    private void showPeriodTopPlaytime(CommandSender sender, boolean week) {
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        LocalDate from = week ? today.minusDays(6) : today.with(TemporalAdjusters.firstDayOfMonth());
+        String title = week ? "§6=== 勤務時間ランキング (直近7日) ===" : "§6=== 勤務時間ランキング (今月) ===";
+        plugin.getPlaytimeManager().getTopPlaytimeBetween(from, today, 10).thenAccept(top ->
+                Bukkit.getScheduler().runTask(plugin, () -> sendRanking(sender, title, top, false)));
+    }
+
+    /**
+     * @param live trueの場合はオンライン中のセッションを含む現在の累計を表示
+     */
+    private void sendRanking(CommandSender sender, String title, List<Map.Entry<UUID, Long>> top, boolean live) {
+        sender.sendMessage(title);
         
         int rank = 1;
         for (Map.Entry<UUID, Long> entry : top) {
             String name = Bukkit.getOfflinePlayer(entry.getKey()).getName();
             if (name == null) name = entry.getKey().toString().substring(0, 8);
             
-            String time = plugin.getPlaytimeManager().getFormattedPlaytime(entry.getKey());
+            String time = live ? plugin.getPlaytimeManager().getFormattedPlaytime(entry.getKey())
+                    : plugin.getPlaytimeManager().formatTime(entry.getValue());
             
             String prefix = switch (rank) {
                 case 1 -> "§6§l1位";
@@ -91,6 +128,9 @@ public class PlaytimeCommand implements CommandExecutor, TabCompleter {
                     completions.add(p.getName());
                 }
             }
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("top")) {
+            completions.add("week");
+            completions.add("month");
         }
         
         return completions;
@@ -2,6 +2,7 @@ package com.irondiscipline.command;
 
 import com.irondiscipline.IronDiscipline;
 import com.irondiscipline.model.Rank;
+import com.irondiscipline.util.PlayerSelector;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -33,7 +34,13 @@ public class PromoteCommand implements CommandExecutor, TabCompleter {
         }
 
         if (args.length < 1) {
-            sender.sendMessage("§c使用法: /promote <プレイヤー名>");
+            sender.sendMessage("§c使用法: /promote <プレイヤー名|--division <部隊>|--list <名前...>>");
+            return true;
+        }
+
+        // 一括指定 (オフラインを含む)
+        if (PlayerSelector.isRoster(args[0])) {
+            RosterRankChange.run(plugin, sender, args, Rank::getNextRank, "promote_batch_done");
             return true;
         }
 
@@ -70,6 +77,25 @@ public class PromoteCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
         if (args.length == 1) {
             String prefix = args[0].toLowerCase();
+            for (String flag : new String[]{PlayerSelector.DIVISION_FLAG, PlayerSelector.LIST_FLAG}) {
+                if (flag.startsWith(prefix)) {
+                    completions.add(flag);
+                }
+            }
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (player.getName().toLowerCase().startsWith(prefix)) {
+                    completions.add(player.getName());
+                }
+            }
+        } else if (args.length == 2 && args[0].equalsIgnoreCase(PlayerSelector.DIVISION_FLAG)) {
+            String prefix = args[1].toLowerCase();
+            for (String division : plugin.getDivisionManager().getAllDivisions()) {
+                if (division.toLowerCase().startsWith(prefix)) {
+                    completions.add(division);
+                }
+            }
+        } else if (args.length >= 2 && args[0].equalsIgnoreCase(PlayerSelector.LIST_FLAG)) {
+            String prefix = args[args.length - 1].toLowerCase();
             for (Player player : Bukkit.getOnlinePlayers()) {
                 if (player.getName().toLowerCase().startsWith(prefix)) {
                     completions.add(player.getName());
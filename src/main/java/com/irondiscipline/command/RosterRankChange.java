@@ -0,0 +1,71 @@
+package com.irondiscipline.command;
+
+import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.manager.RankManager;
+import com.irondiscipline.model.Rank;
+import com.irondiscipline.util.PlayerSelector;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+/**
+ * 名簿指定 (--division / --list) による階級の一括変更
+ * /promote と /demote で共通
+ */
+final class RosterRankChange {
+
+    // 失敗したプレイヤー名を表示する上限
+    private static final int MAX_FAILED_NAMES = 10;
+
+    private RosterRankChange() {
+    }
+
+    /**
+     * 名簿を解決してから一括変更を開始し、終わったら結果を通知する
+     *
+     * @param doneKey 結果通知のメッセージキー
+     */
+    static void run(IronDiscipline plugin, CommandSender sender, String[] args, UnaryOperator<Rank> change,
+            String doneKey) {
+        PlayerSelector.selectRoster(plugin, sender, args).thenAccept(targets -> {
+            if (targets == null) {
+                return;
+            }
+            if (targets.isEmpty()) {
+                sender.sendMessage("§c該当するプレイヤーがいない。");
+                return;
+            }
+            sender.sendMessage(plugin.getConfigManager().getMessage("rank_batch_started",
+                "%count%", String.valueOf(targets.size())));
+            plugin.getRankManager().changeRanks(targets, change)
+                .thenAccept(result -> report(plugin, sender, result, doneKey));
+        });
+    }
+
+    /**
+     * 一括変更の結果を通知 (メインスレッド)
+     */
+    private static void report(IronDiscipline plugin, CommandSender sender, RankManager.BatchResult result,
+            String doneKey) {
+        sender.sendMessage(plugin.getConfigManager().getMessage(doneKey,
+            "%succeeded%", String.valueOf(result.getSucceeded()),
+            "%skipped%", String.valueOf(result.getSkipped()),
+            "%failed%", String.valueOf(result.getFailed())));
+        if (result.getFailed() > 0) {
+            List<String> names = new ArrayList<>();
+            for (UUID playerId : result.getFailedPlayers()) {
+                if (names.size() >= MAX_FAILED_NAMES) {
+                    names.add("...");
+                    break;
+                }
+                String name = Bukkit.getOfflinePlayer(playerId).getName();
+                names.add(name != null ? name : playerId.toString());
+            }
+            sender.sendMessage("§c失敗: " + String.join(", ", names));
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class SetJailCommand implements CommandExecutor {
 
         // 現在位置を隔離場所として設定
         plugin.getConfigManager().setJailLocation(player.getLocation());
+        plugin.getJailManager().reloadZone();
         
         player.sendMessage(plugin.getConfigManager().getMessage("jail_location_set"));
         
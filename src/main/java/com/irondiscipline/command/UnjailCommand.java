@@ -1,6 +1,7 @@
 package com.irondiscipline.command;
 
 import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.util.PlayerSelector;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -32,11 +33,30 @@ public class UnjailCommand implements CommandExecutor, TabCompleter {
         }
 
         if (args.length < 1) {
-            sender.sendMessage("§c使用法: /unjail <プレイヤー名>");
+            sender.sendMessage("§c使用法: /unjail <プレイヤー名|@division:<部隊>|@radius:<ブロック>|名前1,名前2>");
             return true;
         }
 
         String targetName = args[0];
+
+        // 一括釈放 (部隊・範囲・複数名指定)
+        if (PlayerSelector.isSelector(targetName)) {
+            List<Player> targets = PlayerSelector.select(plugin, sender, targetName);
+            if (targets == null) {
+                return true;
+            }
+            if (targets.isEmpty()) {
+                sender.sendMessage("§c該当するオンラインのプレイヤーがいない。");
+                return true;
+            }
+            plugin.getJailManager().unjailBatch(targets,
+                    result -> sender.sendMessage(plugin.getConfigManager().getMessage("unjail_batch_done",
+                            "%succeeded%", String.valueOf(result.getSucceeded()),
+                            "%skipped%", String.valueOf(result.getSkipped()),
+                            "%failed%", String.valueOf(result.getFailed()))));
+            return true;
+        }
+
         Player target = Bukkit.getPlayer(targetName);
 
         if (target == null) {
@@ -70,6 +90,14 @@ public class UnjailCommand implements CommandExecutor, TabCompleter {
                     completions.add(player.getName());
                 }
             }
+            if (prefix.startsWith("@")) {
+                for (String division : plugin.getDivisionManager().getAllDivisions()) {
+                    String selector = PlayerSelector.DIVISION_PREFIX + division;
+                    if (selector.startsWith(prefix)) {
+                        completions.add(selector);
+                    }
+                }
+            }
         }
         return completions;
     }
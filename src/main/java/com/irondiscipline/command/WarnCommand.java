@@ -220,8 +220,7 @@ public class WarnCommand implements CommandExecutor, TabCompleter {
             // 憲兵は士官未満のみ
             if (target instanceof Player) {
                 if (plugin.getRankManager().getRank((Player) target)
-                        .getWeight() >= com.irondiscipline.model.Rank.LIEUTENANT
-                                .getWeight()) {
+                        .getWeight() >= plugin.getConfigManager().getOfficerWeight()) {
                     sender.sendMessage("§c憲兵は士官を警告できません");
                     return false;
                 }
@@ -54,8 +54,8 @@ public class CombatListener implements Listener {
             )
             .build();
         
-        // 非同期でDB保存
-        plugin.getStorageManager().saveKillLogAsync(log);
+        // 書き込みキューへ (バッチでDB保存)
+        plugin.getStorageManager().queueKillLog(log);
         
         // デバッグログ
         if (plugin.getConfigManager().isDebug()) {
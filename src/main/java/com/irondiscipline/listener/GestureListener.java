@@ -1,6 +1,7 @@
 package com.irondiscipline.listener;
 
 import com.irondiscipline.IronDiscipline;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -82,13 +83,27 @@ public class GestureListener implements Listener {
     /**
      * 隔離プレイヤーの移動制限
      */
-    @EventHandler
+    @EventHandler(ignoreCancelled = true)
     public void onMove(PlayerMoveEvent event) {
-        Player player = event.getPlayer();
-        
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null) {
+            return;
+        }
+
+        // 視点移動や同じブロック内の移動は判定しない
+        if (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ() && from.getWorld() == to.getWorld()) {
+            return;
+        }
+
         // 隔離中なら位置チェック
+        Player player = event.getPlayer();
         if (plugin.getJailManager().isJailed(player)) {
-            plugin.getJailManager().preventEscape(player);
+            Location back = plugin.getJailManager().getEscapeDestination(player.getUniqueId(), to);
+            if (back != null) {
+                event.setTo(back);
+            }
         }
     }
 }
@@ -5,7 +5,9 @@ import com.irondiscipline.util.TabNametagUtil;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
@@ -20,12 +22,33 @@ public class JoinQuitListener implements Listener {
         this.plugin = plugin;
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        // 階級の先読み (チャットや参加時にLuckPermsを参照しないため)
+        plugin.getRankManager().prefetch(event.getUniqueId());
+        // 隔離記録の先読み (参加時にDBを待たないため)
+        plugin.getJailManager().prefetch(event.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getRankManager().discardPrefetch(event.getPlayer().getUniqueId());
+            plugin.getJailManager().discardPrefetch(event.getPlayer().getUniqueId());
+        }
+    }
+
     @EventHandler(priority = EventPriority.NORMAL)
     public void onJoin(PlayerJoinEvent event) {
         var player = event.getPlayer();
         
         // 階級キャッシュロード & Tab/ネームタグ更新
         plugin.getRankManager().loadPlayerCache(player);
+        // PTS通知先の上官の索引
+        plugin.getPTSManager().refreshOfficer(player);
         
         // 隔離状態の復元
         plugin.getJailManager().onPlayerJoin(player);
@@ -40,6 +63,7 @@ public class JoinQuitListener implements Listener {
         plugin.getRankManager().unloadPlayerCache(playerId);
         plugin.getPTSManager().cleanup(playerId);
         plugin.getRadioManager().cleanup(playerId);
+        plugin.getJailManager().onPlayerQuit(player);
         
         // Tab/ネームタグクリア
         TabNametagUtil.cleanup(player);
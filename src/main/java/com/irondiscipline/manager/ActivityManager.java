@@ -0,0 +1,171 @@
+package com.irondiscipline.manager;
+
+import com.irondiscipline.IronDiscipline;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 活動状況 (AFK判定) マネージャー
+ * 位置・視点は一定間隔で比較するだけにし、チャット・操作・コマンドは最終入力時刻を更新するだけにする
+ * (イベントごとにオブジェクトを作らない)。最後の活動から一定時間経つとAFKとし、
+ * promotion.time_based.check_afk が有効な場合はAFK中の時間を勤務時間から除外する。
+ */
+public class ActivityManager implements Listener {
+
+    // 位置・視点の変化とみなす最小量
+    private static final double MOVE_EPSILON_SQUARED = 0.01;
+    private static final float LOOK_EPSILON = 1.0f;
+
+    private final IronDiscipline plugin;
+    private final Map<UUID, Activity> activities = new ConcurrentHashMap<>();
+    private BukkitTask sampleTask;
+
+    public ActivityManager(IronDiscipline plugin) {
+        this.plugin = plugin;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+
+        long now = System.currentTimeMillis();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            activities.put(player.getUniqueId(), new Activity(player.getLocation(), now));
+        }
+
+        long sampleTicks = plugin.getConfigManager().getAfkSampleInterval() * 20L;
+        sampleTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sample, sampleTicks, sampleTicks);
+    }
+
+    /**
+     * プレイヤーごとの活動状況 (プリミティブのみ)
+     */
+    private static final class Activity {
+        double x, y, z;
+        float yaw, pitch;
+        // 最後に活動を確認した時刻 (サンプリング時)
+        long lastActive;
+        // 最終入力時刻 (チャットは非同期スレッドから書き込む)
+        volatile long lastInput;
+        boolean afk;
+
+        Activity(Location location, long now) {
+            x = location.getX();
+            y = location.getY();
+            z = location.getZ();
+            yaw = location.getYaw();
+            pitch = location.getPitch();
+            lastActive = now;
+            lastInput = now;
+        }
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        activities.put(player.getUniqueId(), new Activity(player.getLocation(), System.currentTimeMillis()));
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        activities.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChat(AsyncPlayerChatEvent event) {
+        markInput(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCommand(PlayerCommandPreprocessEvent event) {
+        markInput(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent event) {
+        markInput(event.getPlayer().getUniqueId());
+    }
+
+    private void markInput(UUID playerId) {
+        Activity activity = activities.get(playerId);
+        if (activity != null) {
+            activity.lastInput = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 一定間隔の活動チェック (メインスレッド)
+     */
+    private void sample() {
+        long now = System.currentTimeMillis();
+        long idleThreshold = plugin.getConfigManager().getAfkIdleThreshold() * 1000L;
+        boolean excludeIdle = plugin.getConfigManager().isTimeBasedCheckAFK();
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Activity activity = activities.get(player.getUniqueId());
+            if (activity == null) {
+                continue;
+            }
+
+            Location location = player.getLocation();
+            double dx = location.getX() - activity.x;
+            double dy = location.getY() - activity.y;
+            double dz = location.getZ() - activity.z;
+            boolean moved = dx * dx + dy * dy + dz * dz > MOVE_EPSILON_SQUARED;
+            boolean looked = Math.abs(location.getYaw() - activity.yaw) > LOOK_EPSILON
+                    || Math.abs(location.getPitch() - activity.pitch) > LOOK_EPSILON;
+            activity.x = location.getX();
+            activity.y = location.getY();
+            activity.z = location.getZ();
+            activity.yaw = location.getYaw();
+            activity.pitch = location.getPitch();
+
+            if (moved || looked) {
+                activity.lastActive = now;
+            } else if (activity.lastInput > activity.lastActive) {
+                activity.lastActive = activity.lastInput;
+            }
+
+            boolean idle = now - activity.lastActive >= idleThreshold;
+            if (idle && !activity.afk) {
+                // 最後の活動からAFKとみなす
+                activity.afk = true;
+                if (excludeIdle) {
+                    plugin.getPlaytimeManager().pauseSession(player.getUniqueId(), activity.lastActive);
+                }
+            } else if (!idle && activity.afk) {
+                activity.afk = false;
+                // 区切っていない場合は何もしない
+                plugin.getPlaytimeManager().resumeSession(player.getUniqueId(), activity.lastActive);
+            }
+        }
+    }
+
+    /**
+     * AFK中かどうか
+     */
+    public boolean isAfk(UUID playerId) {
+        Activity activity = activities.get(playerId);
+        return activity != null && activity.afk;
+    }
+
+    /**
+     * 停止処理
+     */
+    public void shutdown() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+    }
+}
@@ -7,9 +7,48 @@ import org.bukkit.Statistic;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitTask;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * 自動昇進マネージャー
  * プレイ時間に基づいた自動昇進を管理する
+ * <p>
+ * 判定は一度に全員を行わず、毎tick少しずつ順番に進める (1tickあたりの処理時間に上限を設ける)。
+ * 必要時間は階級の順序で引ける配列にまとめ、まだ条件を満たさないプレイヤーは
+ * 満たし得る時刻まで判定を省略する。
+ * <p>
+ * オフラインのプレイヤーは定期的に勤務時間の累計から一括で判定し、
+ * LuckPermsの読み込み・保存を同時実行数を制限して並行に進め、結果を監査ログに残す。
+ * 判定済みの累計はファイルに保存し、再起動後も累計が変わっていないプレイヤーを読み込み直さない。
  */
 public class AutoPromotionManager {
 
@@ -17,11 +56,45 @@ public class AutoPromotionManager {
     private final RankManager rankManager;
     private BukkitTask task;
 
+    // 現在の階級の順序 → 次の階級に必要な時間 (分、自動昇進対象外は-1)
+    private int[] requiredMinutes = new int[0];
+    // 今回の巡回で未判定のプレイヤー
+    private final Deque<UUID> pending = new ArrayDeque<>();
+    // 次の巡回の開始時刻
+    private long nextPassAt;
+    // 次に判定する必要のある時刻 (メインスレッドからのみ触る)
+    private final Map<UUID, Eligibility> eligibility = new HashMap<>();
+
+    private static final String AUDIT_FILE = "promotion-audit.log";
+    private static final String EVALUATED_FILE = "promotion-offline.dat";
+    private static final int EVALUATED_VERSION = 1;
+    private static final DateTimeFormatter AUDIT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private BukkitTask offlineTask;
+    private final AtomicBoolean offlineRunning = new AtomicBoolean();
+    // 前回の一括判定で見た累計 (オフライン中は変わらないため、変化がなければ判定し直さない)
+    private final Map<UUID, Long> offlineEvaluated = new ConcurrentHashMap<>();
+    // offlineEvaluated を判定した時の必要時間 (変わった場合は全員判定し直す)
+    private int[] offlineRequirements;
+
     public AutoPromotionManager(IronDiscipline plugin, RankManager rankManager) {
         this.plugin = plugin;
         this.rankManager = rankManager;
     }
 
+    /**
+     * 判定を省略できる期間 (どの階級での判定結果か)
+     */
+    private static final class Eligibility {
+        final Rank rank;
+        final long notBefore;
+
+        Eligibility(Rank rank, long notBefore) {
+            this.rank = rank;
+            this.notBefore = notBefore;
+        }
+    }
+
     /**
      * タスクを開始
      */
@@ -32,10 +105,18 @@ public class AutoPromotionManager {
             return;
         }
 
-        int intervalSeconds = plugin.getConfigManager().getTimeBasedPromotionInterval();
+        // 最初の巡回は従来通り1間隔後
+        nextPassAt = System.currentTimeMillis() + plugin.getConfigManager().getTimeBasedPromotionInterval() * 1000L;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
 
-        task = Bukkit.getScheduler().runTaskTimer(plugin, this::checkPromotions, intervalSeconds * 20L,
-                intervalSeconds * 20L);
+        if (plugin.getConfigManager().isOfflinePromotionEnabled()) {
+            if (offlineRequirements == null) {
+                loadEvaluated();
+            }
+            long offlineTicks = plugin.getConfigManager().getOfflinePromotionInterval() * 20L;
+            offlineTask = Bukkit.getScheduler().runTaskTimer(plugin, this::runOfflineBatch, offlineTicks,
+                    offlineTicks);
+        }
     }
 
     /**
@@ -46,6 +127,12 @@ public class AutoPromotionManager {
             task.cancel();
             task = null;
         }
+        if (offlineTask != null) {
+            offlineTask.cancel();
+            offlineTask = null;
+        }
+        pending.clear();
+        eligibility.clear();
     }
 
     /**
@@ -56,48 +143,346 @@ public class AutoPromotionManager {
     }
 
     /**
-     * 全プレイヤーの昇進判定
+     * 毎tickの処理 (時間の上限まで順番に判定)
      */
-    private void checkPromotions() {
+    private void tick() {
+        if (pending.isEmpty()) {
+            long now = System.currentTimeMillis();
+            if (now < nextPassAt) {
+                return;
+            }
+            startPass(now);
+            if (pending.isEmpty()) {
+                return; // オンラインのプレイヤーがいない
+            }
+        }
+
+        long deadline = System.nanoTime() + plugin.getConfigManager().getTimeBasedPromotionTickBudgetMicros() * 1000L;
+        long now = System.currentTimeMillis();
+        // 上限が短すぎても毎tick最低1人は進める
+        do {
+            Player player = Bukkit.getPlayer(pending.poll());
+            if (player != null) {
+                checkAndPromote(player, now);
+            }
+        } while (!pending.isEmpty() && System.nanoTime() < deadline);
+    }
+
+    /**
+     * 巡回を開始 (オンラインのプレイヤーを並べ、必要時間を読み直す)
+     */
+    private void startPass(long now) {
+        nextPassAt = now + plugin.getConfigManager().getTimeBasedPromotionInterval() * 1000L;
+        int[] required = buildRequirements();
+        if (!Arrays.equals(required, requiredMinutes)) {
+            // 必要時間が変わった場合は省略期間を計算し直す
+            requiredMinutes = required;
+            eligibility.clear();
+        }
+
+        Set<UUID> online = new HashSet<>();
         for (Player player : Bukkit.getOnlinePlayers()) {
-            checkAndPromote(player);
+            online.add(player.getUniqueId());
+            pending.add(player.getUniqueId());
+        }
+        // ログアウトしたプレイヤーの記録を捨てる
+        eligibility.keySet().retainAll(online);
+    }
+
+    /**
+     * 階級の順序ごとの必要時間 (リロード後の設定を巡回ごとに反映する)
+     */
+    private int[] buildRequirements() {
+        List<Rank> ranks = Rank.ladder().getRanks();
+        int[] required = new int[ranks.size()];
+        for (Rank rank : ranks) {
+            Rank nextRank = rank.getNextRank();
+            // 最高ランクは対象外
+            required[rank.ordinal()] = nextRank != null
+                    ? plugin.getConfigManager().getServerPlaytimeRequirement(nextRank.getId())
+                    : -1;
         }
+        return required;
+    }
+
+    /**
+     * 現在の階級から次の階級に必要な時間 (リロードで階級が組み替わった直後などで範囲外の場合は対象外)
+     */
+    private static int requirementOf(int[] required, Rank rank) {
+        return rank.ordinal() < required.length ? required[rank.ordinal()] : -1;
     }
 
     /**
      * 個別プレイヤーの昇進判定
      */
-    private void checkAndPromote(Player player) {
+    private void checkAndPromote(Player player, long now) {
         Rank currentRank = rankManager.getRank(player);
+
+        Eligibility cached = eligibility.get(player.getUniqueId());
+        if (cached != null && cached.rank == currentRank && now < cached.notBefore) {
+            return;
+        }
+
+        // 次のランクの必要時間
+        int required = requirementOf(requiredMinutes, currentRank);
+
+        if (required <= 0) {
+            // 自動昇進対象外 (階級が変わるまで判定しない)
+            eligibility.put(player.getUniqueId(), new Eligibility(currentRank, Long.MAX_VALUE));
+            return;
+        }
+
+        long playedMinutes;
+        if (plugin.getConfigManager().isTimeBasedCheckAFK()) {
+            // AFK中を除いた勤務時間
+            playedMinutes = plugin.getPlaytimeManager().getTotalPlaytime(player.getUniqueId()) / 60_000L;
+        } else {
+            // プレイ時間を取得 (TICKS単位なので分に変換)
+            int playedTicks = player.getStatistic(Statistic.PLAY_ONE_MINUTE);
+            playedMinutes = playedTicks / 1200; // 20 ticks * 60 seconds
+        }
+
+        if (playedMinutes < required) {
+            // プレイ時間は実時間より速くは増えないため、不足分が経過するまで判定しない
+            eligibility.put(player.getUniqueId(),
+                    new Eligibility(currentRank, now + (required - playedMinutes) * 60_000L));
+            return;
+        }
+
+        // 昇進実行 (昇進後は新しい階級で判定し直す)
+        eligibility.remove(player.getUniqueId());
         Rank nextRank = currentRank.getNextRank();
+        plugin.getLogger().info("自動昇進: " + player.getName() + " -> " + nextRank.getId() + " (" + playedMinutes
+                + "m / " + required + "m)");
+        rankManager.promote(player).thenAccept(newRank -> {
+            if (newRank != null) {
+                player.sendMessage(plugin.getConfigManager().getMessage("rank_promoted",
+                        "%player%", player.getName(),
+                        "%rank%", newRank.getDisplay()));
+                // 必要であればDiscord通知など
+            }
+        });
+    }
 
-        if (nextRank == null) {
-            return; // 最高ランク
+    /**
+     * オフラインのプレイヤーの一括昇進判定 (メインスレッドで対象を選び、LuckPermsの処理は並行に行う)
+     */
+    private void runOfflineBatch() {
+        if (!offlineRunning.compareAndSet(false, true)) {
+            return; // 前回の一括判定が終わっていない
         }
 
-        // 次のランクの必要時間を取得
-        int requiredMinutes = plugin.getConfigManager().getServerPlaytimeRequirement(nextRank.getId());
+        int[] required = buildRequirements();
+        if (!Arrays.equals(required, offlineRequirements)) {
+            offlineEvaluated.clear();
+            offlineRequirements = required;
+        }
+        long minRequiredMillis = Long.MAX_VALUE;
+        for (int minutes : required) {
+            if (minutes > 0) {
+                minRequiredMillis = Math.min(minRequiredMillis, minutes * 60_000L);
+            }
+        }
+
+        // LuckPermsを読み込む前に、どの昇進条件にも届かないプレイヤーと前回から変化のないプレイヤーを除く
+        Map<UUID, Long> candidates = new HashMap<>();
+        for (Map.Entry<UUID, Long> entry : plugin.getPlaytimeManager().getAllTotals().entrySet()) {
+            UUID playerId = entry.getKey();
+            long total = entry.getValue();
+            if (total < minRequiredMillis || Bukkit.getPlayer(playerId) != null) {
+                continue;
+            }
+            Long evaluated = offlineEvaluated.get(playerId);
+            if (evaluated != null && evaluated == total) {
+                continue;
+            }
+            candidates.put(playerId, total);
+        }
+        if (candidates.isEmpty()) {
+            offlineRunning.set(false);
+            return;
+        }
 
-        if (requiredMinutes <= 0) {
-            return; // 自動昇進対象外
+        OfflineBatchResult result = new OfflineBatchResult(candidates.size());
+        Iterator<Map.Entry<UUID, Long>> queue = candidates.entrySet().iterator();
+        int workers = Math.min(plugin.getConfigManager().getOfflinePromotionConcurrency(), candidates.size());
+        CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            running[i] = evaluateNext(queue, required, result);
         }
+        // プレイヤー名の解決はメインスレッドで行い、ファイルへの書き込みは非同期に戻す
+        CompletableFuture.allOf(running).whenComplete((ignored, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            List<String> lines = result.describePromotions();
+            Map<UUID, Long> evaluated = new HashMap<>(offlineEvaluated);
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                try {
+                    writeAudit(result, lines);
+                    saveEvaluated(required, evaluated);
+                } finally {
+                    offlineRunning.set(false);
+                }
+            });
+        }));
+    }
 
-        // プレイ時間を取得 (TICKS単位なので分に変換)
-        int playedTicks = player.getStatistic(Statistic.PLAY_ONE_MINUTE);
-        int playedMinutes = playedTicks / 1200; // 20 ticks * 60 seconds
+    /**
+     * 待ち行列から1人ずつ取り出して判定する (1つの実行枠)
+     */
+    private CompletableFuture<Void> evaluateNext(Iterator<Map.Entry<UUID, Long>> queue, int[] required,
+            OfflineBatchResult result) {
+        Map.Entry<UUID, Long> next;
+        synchronized (queue) {
+            if (!queue.hasNext()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            next = queue.next();
+        }
+        UUID playerId = next.getKey();
+        long total = next.getValue();
+        return evaluateOffline(playerId, total, required, result)
+                .exceptionally(error -> {
+                    result.failed.incrementAndGet();
+                    plugin.getLogger().warning("オフライン昇進判定失敗: " + playerId + " - " + error.getMessage());
+                    return null;
+                })
+                .thenCompose(ignored -> evaluateNext(queue, required, result));
+    }
 
-        if (playedMinutes >= requiredMinutes) {
-            // 昇進実行
-            plugin.getLogger().info("自動昇進: " + player.getName() + " -> " + nextRank.getId() + " (" + playedMinutes
-                    + "m / " + requiredMinutes + "m)");
-            rankManager.promote(player).thenAccept(newRank -> {
-                if (newRank != null) {
-                    player.sendMessage(plugin.getConfigManager().getMessage("rank_promoted",
-                            "%player%", player.getName(),
-                            "%rank%", newRank.getDisplay()));
-                    // 必要であればDiscord通知など
+    /**
+     * オフラインのプレイヤー1人の判定 (条件を満たす最上位の階級まで一度に昇進させる)
+     */
+    private CompletableFuture<Void> evaluateOffline(UUID playerId, long total, int[] required,
+            OfflineBatchResult result) {
+        long playedMinutes = total / 60_000L;
+        return rankManager.loadStoredRank(playerId).thenCompose(current -> {
+            Rank target = current;
+            while (target.getNextRank() != null && requirementOf(required, target) > 0
+                    && playedMinutes >= requirementOf(required, target)) {
+                target = target.getNextRank();
+            }
+            if (target == current) {
+                offlineEvaluated.put(playerId, total);
+                result.unchanged.incrementAndGet();
+                return CompletableFuture.completedFuture(null);
+            }
+
+            Rank promoted = target;
+            return rankManager.setRankByUUID(playerId, promoted).thenAccept(success -> {
+                if (success) {
+                    offlineEvaluated.put(playerId, total);
+                    result.addPromotion(playerId,
+                            current.getId() + " -> " + promoted.getId() + " (" + playedMinutes + "m)");
+                } else {
+                    result.failed.incrementAndGet();
                 }
             });
+        });
+    }
+
+    /**
+     * 一括判定の結果をログと監査ログファイルに書き出す
+     */
+    private void writeAudit(OfflineBatchResult result, List<String> promotions) {
+        String summary = "オフライン一括昇進: 対象 " + result.candidates + "人, 昇進 " + promotions.size()
+                + "人, 変更なし " + result.unchanged.get() + "人, 失敗 " + result.failed.get() + "人";
+        plugin.getLogger().info(summary);
+
+        List<String> lines = new ArrayList<>();
+        lines.add("[" + LocalDateTime.now().format(AUDIT_TIME) + "] " + summary);
+        for (String promotion : promotions) {
+            lines.add("  " + promotion);
+        }
+        try {
+            Files.write(new File(plugin.getDataFolder(), AUDIT_FILE).toPath(), lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            plugin.getLogger().warning("昇進監査ログの書き込み失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 判定済みの累計をファイルから読み込む (起動後最初の一括判定で全員を読み込み直さないよう)
+     */
+    private void loadEvaluated() {
+        offlineRequirements = new int[0];
+        File file = new File(plugin.getDataFolder(), EVALUATED_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != EVALUATED_VERSION) {
+                return;
+            }
+            int[] required = new int[in.readInt()];
+            for (int i = 0; i < required.length; i++) {
+                required[i] = in.readInt();
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                offlineEvaluated.put(new UUID(in.readLong(), in.readLong()), in.readLong());
+            }
+            offlineRequirements = required;
+        } catch (IOException e) {
+            offlineEvaluated.clear();
+            plugin.getLogger().warning("オフライン昇進の判定記録の読み込み失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 判定済みの累計をファイルに保存 (一時ファイルに書いてから置き換える)
+     */
+    private void saveEvaluated(int[] required, Map<UUID, Long> evaluated) {
+        File target = new File(plugin.getDataFolder(), EVALUATED_FILE);
+        File temp = new File(plugin.getDataFolder(), EVALUATED_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(EVALUATED_VERSION);
+            out.writeInt(required.length);
+            for (int minutes : required) {
+                out.writeInt(minutes);
+            }
+            out.writeInt(evaluated.size());
+            for (Map.Entry<UUID, Long> entry : evaluated.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeLong(entry.getValue());
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("オフライン昇進の判定記録の保存失敗: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            plugin.getLogger().warning("オフライン昇進の判定記録の保存失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * オフライン一括昇進の集計
+     */
+    private static final class OfflineBatchResult {
+        final int candidates;
+        final AtomicInteger unchanged = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        // プレイヤー → 昇進内容
+        private final Map<UUID, String> promotions = new LinkedHashMap<>();
+
+        OfflineBatchResult(int candidates) {
+            this.candidates = candidates;
+        }
+
+        synchronized void addPromotion(UUID playerId, String change) {
+            promotions.put(playerId, change);
+        }
+
+        /**
+         * 昇進内容を名前付きで並べる (名前の解決にBukkitを使うためメインスレッドで呼ぶ)
+         */
+        synchronized List<String> describePromotions() {
+            List<String> lines = new ArrayList<>(promotions.size());
+            promotions.forEach((playerId, change) ->
+                    lines.add(playerId + " (" + Bukkit.getOfflinePlayer(playerId).getName() + ") " + change));
+            return lines;
         }
     }
 }
@@ -1,12 +1,19 @@
 package com.irondiscipline.manager;
 
 import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.model.JailCell;
+import com.irondiscipline.model.RankLadder;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 /**
@@ -95,12 +102,89 @@ public class ConfigManager {
         return config.getString("database.mysql.password", "");
     }
 
+    public int getPoolMaximumSize() {
+        return config.getInt("database.pool.maximum_pool_size", 10);
+    }
+
+    public int getPoolMinimumIdle() {
+        return config.getInt("database.pool.minimum_idle", 2);
+    }
+
+    public long getPoolConnectionTimeout() {
+        return config.getLong("database.pool.connection_timeout", 5000L);
+    }
+
+    public long getPoolIdleTimeout() {
+        return config.getLong("database.pool.idle_timeout", 600000L);
+    }
+
+    public long getPoolMaxLifetime() {
+        return config.getLong("database.pool.max_lifetime", 1800000L);
+    }
+
+    public int getExecutorReadThreads() {
+        return config.getInt("database.executor.read_threads", 4);
+    }
+
+    public int getExecutorReadQueueSize() {
+        return config.getInt("database.executor.read_queue_size", 1000);
+    }
+
+    public int getExecutorWriteThreads() {
+        return config.getInt("database.executor.write_threads", 2);
+    }
+
+    public int getExecutorWriteQueueSize() {
+        return config.getInt("database.executor.write_queue_size", 5000);
+    }
+
     // ===== Ranks =====
 
     public String getRankMetaKey() {
         return config.getString("ranks.meta_key", "military_rank");
     }
 
+    /**
+     * 階級ラダーを組み立てる (未設定・不正な場合は組み込みの階級)
+     */
+    public RankLadder getRankLadder() {
+        List<RankLadder.Definition> definitions = new ArrayList<>();
+        for (Map<?, ?> entry : config.getMapList("ranks.ladder")) {
+            Object id = entry.get("id");
+            Object display = entry.get("display");
+            Object weight = entry.get("weight");
+            if (!(id instanceof String) || ((String) id).isBlank() || !(weight instanceof Number)) {
+                plugin.getLogger().warning("不正な階級定義を無視します: " + entry);
+                continue;
+            }
+            definitions.add(new RankLadder.Definition((String) id,
+                    display != null ? display.toString() : (String) id, ((Number) weight).intValue()));
+        }
+        if (definitions.isEmpty()) {
+            return RankLadder.defaults();
+        }
+        try {
+            return new RankLadder(definitions);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("階級定義が不正なため組み込みの階級を使用します: " + e.getMessage());
+            return RankLadder.defaults();
+        }
+    }
+
+    /**
+     * 一括階級変更でLuckPermsの読み込み・保存を同時に行う数
+     */
+    public int getRankBatchConcurrency() {
+        return Math.max(1, config.getInt("ranks.batch_concurrency", 4));
+    }
+
+    /**
+     * 士官とみなす重み (これ以上で管理コマンド・試験を実行可能)
+     */
+    public int getOfficerWeight() {
+        return config.getInt("ranks.officer_weight", 40);
+    }
+
     // ===== PTS =====
 
     public int getPTSRequireBelowWeight() {
@@ -164,6 +248,85 @@ public class ConfigManager {
         plugin.saveConfig();
     }
 
+    /**
+     * 隔離場所からこの距離 (ブロック) を超えると連れ戻す
+     */
+    public double getJailRadius() {
+        return config.getDouble("jail.radius", 10);
+    }
+
+    /**
+     * 刑期をオンライン中の時間のみで数えるか
+     */
+    public boolean isJailSentenceOnlineOnly() {
+        return config.getBoolean("jail.sentence.count_online_only", false);
+    }
+
+    /**
+     * 一括隔離/釈放で1tickあたりに処理する人数
+     */
+    public int getJailBatchPerTick() {
+        return Math.max(1, config.getInt("jail.batch.per_tick", 5));
+    }
+
+    /**
+     * 追加の監房 (jail.cells) を読み込む
+     * ワールドが存在しない、または座標が不正な監房は警告して除外する
+     */
+    public List<JailCell> getJailCells() {
+        List<JailCell> cells = new ArrayList<>();
+        ConfigurationSection section = config.getConfigurationSection("jail.cells");
+        if (section == null) {
+            return cells;
+        }
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection cell = section.getConfigurationSection(name);
+            if (cell == null) {
+                continue;
+            }
+            if (name.equalsIgnoreCase(JailCell.DEFAULT_NAME)) {
+                plugin.getLogger().warning("監房名 " + name + " は隔離場所 (jail.location) 用に予約されているため無視しました");
+                continue;
+            }
+            World world = plugin.getServer().getWorld(cell.getString("world", "world"));
+            int[] min = parseBlockPosition(cell.getString("min"));
+            int[] max = parseBlockPosition(cell.getString("max"));
+            if (world == null || min == null || max == null) {
+                plugin.getLogger().warning("監房の設定が不正なため無視しました: " + name);
+                continue;
+            }
+            int[] spawn = parseBlockPosition(cell.getString("spawn"));
+            Location spawnLocation = spawn != null
+                    ? new Location(world, spawn[0] + 0.5, spawn[1], spawn[2] + 0.5)
+                    : null;
+            cells.add(JailCell.box(name, world, min[0], min[1], min[2], max[0], max[1], max[2], spawnLocation,
+                    Math.max(0, cell.getInt("capacity", 0))));
+        }
+        return cells;
+    }
+
+    /**
+     * "x,y,z" 形式のブロック座標
+     */
+    private static int[] parseBlockPosition(String value) {
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(",");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new int[] {
+                    Integer.parseInt(parts[0].trim()),
+                    Integer.parseInt(parts[1].trim()),
+                    Integer.parseInt(parts[2].trim())
+            };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     public String getJailBlockedMessage() {
         String message = messagesConfig.getString("jail_blocked_message"); // Check locale file first (if I added it there)
         if (message == null) {
@@ -182,6 +345,42 @@ public class ConfigManager {
         return config.getBoolean("killlog.detailed", true);
     }
 
+    public String getKillLogPartitioning() {
+        return config.getString("killlog.partitioning", "monthly");
+    }
+
+    public int getKillLogCleanupChunkSize() {
+        return config.getInt("killlog.cleanup.chunk_size", 5000);
+    }
+
+    public long getKillLogCleanupChunkPause() {
+        return config.getLong("killlog.cleanup.chunk_pause", 200L);
+    }
+
+    public int getKillLogPageSize() {
+        return config.getInt("killlog.page_size", 10);
+    }
+
+    public int getKillLogQueueCapacity() {
+        return config.getInt("killlog.writer.queue_capacity", 10000);
+    }
+
+    public int getKillLogBatchSize() {
+        return config.getInt("killlog.writer.batch_size", 200);
+    }
+
+    public long getKillLogFlushInterval() {
+        return config.getLong("killlog.writer.flush_interval", 1000L);
+    }
+
+    public String getKillLogOverflowPolicy() {
+        return config.getString("killlog.writer.overflow_policy", "drop_oldest");
+    }
+
+    public long getKillLogBlockTimeout() {
+        return config.getLong("killlog.writer.block_timeout", 50L);
+    }
+
     // ===== Messages =====
 
     public String getPrefix() {
@@ -208,14 +407,76 @@ public class ConfigManager {
         return config.getInt("promotion.time_based.interval", 300);
     }
 
+    /**
+     * 自動昇進判定に1tickあたり使う時間の上限 (マイクロ秒)
+     */
+    public int getTimeBasedPromotionTickBudgetMicros() {
+        return Math.max(1, config.getInt("promotion.time_based.tick_budget_micros", 500));
+    }
+
+    public boolean isOfflinePromotionEnabled() {
+        return config.getBoolean("promotion.time_based.offline.enabled", true);
+    }
+
+    /**
+     * オフラインのプレイヤーの一括昇進判定の間隔 (秒)
+     */
+    public int getOfflinePromotionInterval() {
+        return Math.max(60, config.getInt("promotion.time_based.offline.interval", 1800));
+    }
+
+    /**
+     * オフライン一括昇進でLuckPermsの読み込み・保存を同時に行う数
+     */
+    public int getOfflinePromotionConcurrency() {
+        return Math.max(1, config.getInt("promotion.time_based.offline.concurrency", 4));
+    }
+
     public boolean isTimeBasedCheckAFK() {
         return config.getBoolean("promotion.time_based.check_afk", true);
     }
 
+    /**
+     * AFK判定のサンプリング間隔 (秒)
+     */
+    public int getAfkSampleInterval() {
+        return Math.max(1, config.getInt("afk.sample_interval", 5));
+    }
+
+    /**
+     * 最後の活動からAFKとみなすまでの時間 (秒)
+     */
+    public int getAfkIdleThreshold() {
+        return Math.max(1, config.getInt("afk.idle_threshold", 300));
+    }
+
     public int getServerPlaytimeRequirement(String rankId) {
         return config.getInt("promotion.time_based.rules." + rankId.toUpperCase(), -1);
     }
 
+    // ===== Playtime =====
+
+    /**
+     * 勤務時間ジャーナルをスナップショットにまとめる間隔 (分)
+     */
+    public int getPlaytimeCompactIntervalMinutes() {
+        return Math.max(1, config.getInt("playtime.compact_interval_minutes", 30));
+    }
+
+    /**
+     * オンライン中のプレイヤーの勤務時間をランキングに反映する間隔 (秒)
+     */
+    public int getPlaytimeLeaderboardRefreshSeconds() {
+        return Math.max(1, config.getInt("playtime.leaderboard_refresh_seconds", 60));
+    }
+
+    /**
+     * 日別の勤務時間をDBへまとめて反映する間隔 (秒)
+     */
+    public int getPlaytimeDailyFlushSeconds() {
+        return Math.max(10, config.getInt("playtime.daily_flush_seconds", 300));
+    }
+
     public int getExamQuizTimeout() {
         return config.getInt("promotion.exam.quiz_timeout", 45);
     }
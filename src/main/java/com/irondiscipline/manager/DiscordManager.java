@@ -1,6 +1,8 @@
 package com.irondiscipline.manager;
 
 import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.model.KillLog;
+import com.irondiscipline.model.KillLogPage;
 import com.irondiscipline.model.Rank;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
@@ -29,6 +31,7 @@ import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 
 import java.awt.Color;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -136,6 +139,9 @@ public class DiscordManager extends ListenerAdapter {
                         .addOption(OptionType.USER, "user", "対象ユーザー", true)
                         .addOption(OptionType.STRING, "rank", "階級ID", true),
 
+                Commands.slash("killlog", "戦闘ログを閲覧（管理者）")
+                        .addOption(OptionType.USER, "user", "対象ユーザー (省略時は全ログ)", false),
+
                 Commands.slash("kick", "キック（管理者）")
                         .addOption(OptionType.USER, "user", "対象ユーザー", true)
                         .addOption(OptionType.STRING, "reason", "理由", true),
@@ -181,6 +187,7 @@ public class DiscordManager extends ListenerAdapter {
             case "promote" -> handleAdminRank(event, true);
             case "demote" -> handleAdminRank(event, false);
             case "setrank" -> handleSetRank(event);
+            case "killlog" -> handleKillLog(event);
             case "kick" -> handlePunish(event, "kick");
             case "ban" -> handlePunish(event, "ban");
         }
@@ -275,11 +282,13 @@ public class DiscordManager extends ListenerAdapter {
 
         Bukkit.getScheduler().runTask(plugin, () -> {
             String playtime = plugin.getPlaytimeManager().getFormattedPlaytime(minecraftId);
+            int rank = plugin.getPlaytimeManager().getPlaytimeRank(minecraftId);
             String playerName = Bukkit.getOfflinePlayer(minecraftId).getName();
 
             EmbedBuilder eb = new EmbedBuilder()
                     .setTitle("⏱️ 勤務時間")
-                    .addField(playerName != null ? playerName : "Unknown", playtime, false)
+                    .addField(playerName != null ? playerName : "Unknown",
+                            rank > 0 ? playtime + " (" + rank + "位)" : playtime, false)
                     .setColor(Color.ORANGE)
                     .setFooter("鉄の規律");
 
@@ -298,7 +307,7 @@ public class DiscordManager extends ListenerAdapter {
 
         Bukkit.getScheduler().runTask(plugin, () -> {
             Player player = Bukkit.getPlayer(minecraftId);
-            Rank rank = player != null ? plugin.getRankManager().getRank(player) : Rank.PRIVATE;
+            Rank rank = player != null ? plugin.getRankManager().getRank(player) : Rank.ladder().lowest();
             String div = plugin.getDivisionManager().getDivision(minecraftId);
 
             EmbedBuilder eb = new EmbedBuilder()
@@ -1001,20 +1010,20 @@ public class DiscordManager extends ListenerAdapter {
             return;
         }
 
-        try {
-            Rank rank = Rank.valueOf(rankId.toUpperCase());
-            plugin.getRankManager().setRankByUUID(targetUUID, rank).thenAccept(success -> {
-                if (success) {
-                    event.getHook().sendMessage("✅ 階級を設定しました: " + rank.getId()).queue();
-                    updateNickname(targetDiscordId, Bukkit.getOfflinePlayer(targetUUID).getName(), rank);
-                } else {
-                    event.getHook().sendMessage("❌ 階級設定に失敗しました。").queue();
-                }
-            });
-            event.deferReply().queue();
-        } catch (IllegalArgumentException e) {
+        Rank rank = Rank.ladder().get(rankId);
+        if (rank == null) {
             event.reply("❌ 無効な階級名です。").setEphemeral(true).queue();
+            return;
         }
+        plugin.getRankManager().setRankByUUID(targetUUID, rank).thenAccept(success -> {
+            if (success) {
+                event.getHook().sendMessage("✅ 階級を設定しました: " + rank.getId()).queue();
+                updateNickname(targetDiscordId, Bukkit.getOfflinePlayer(targetUUID).getName(), rank);
+            } else {
+                event.getHook().sendMessage("❌ 階級設定に失敗しました。").queue();
+            }
+        });
+        event.deferReply().queue();
     }
 
     private void handlePunish(SlashCommandInteractionEvent event, String type) {
@@ -1056,6 +1065,93 @@ public class DiscordManager extends ListenerAdapter {
         event.reply("✅ 処罰を実行しました (" + type + "): " + reason).queue();
     }
 
+    private void handleKillLog(SlashCommandInteractionEvent event) {
+        if (event.getMember() == null || !event.getMember().hasPermission(Permission.ADMINISTRATOR)) {
+            event.reply("❌ 権限がありません。").setEphemeral(true).queue();
+            return;
+        }
+
+        UUID targetUUID = null;
+        var userOption = event.getOption("user");
+        if (userOption != null) {
+            targetUUID = plugin.getLinkManager().getMinecraftId(userOption.getAsUser().getIdLong());
+            if (targetUUID == null) {
+                event.reply("❌ 対象ユーザーは連携していません。").setEphemeral(true).queue();
+                return;
+            }
+        }
+
+        event.deferReply(true).queue();
+        UUID target = targetUUID;
+        plugin.getStorageManager().getKillLogPageAsync(target, null, plugin.getConfigManager().getKillLogPageSize())
+                .whenComplete((page, error) -> {
+                    if (error != null) {
+                        event.getHook().editOriginal("❌ 戦闘ログの取得に失敗しました。").queue();
+                        return;
+                    }
+                    event.getHook().editOriginalEmbeds(buildKillLogEmbed(target, page, 1))
+                            .setComponents(killLogComponents(target, page, 1))
+                            .queue();
+                });
+    }
+
+    /**
+     * 戦闘ログの次ページボタン (ID: killlog:<UUID|*>:<ページ>:<トークン>)
+     */
+    private void handleKillLogPage(ButtonInteractionEvent event) {
+        String[] parts = event.getComponentId().split(":", 4);
+        if (parts.length != 4) {
+            return;
+        }
+        UUID target = parts[1].equals("*") ? null : UUID.fromString(parts[1]);
+        int pageNumber = Integer.parseInt(parts[2]);
+
+        event.deferEdit().queue();
+        plugin.getStorageManager()
+                .getKillLogPageAsync(target, parts[3], plugin.getConfigManager().getKillLogPageSize())
+                .whenComplete((page, error) -> {
+                    if (error != null) {
+                        event.getHook().sendMessage("❌ 戦闘ログの取得に失敗しました。").setEphemeral(true).queue();
+                        return;
+                    }
+                    event.getHook().editOriginalEmbeds(buildKillLogEmbed(target, page, pageNumber))
+                            .setComponents(killLogComponents(target, page, pageNumber))
+                            .queue();
+                });
+    }
+
+    private net.dv8tion.jda.api.entities.MessageEmbed buildKillLogEmbed(UUID target, KillLogPage page, int pageNumber) {
+        java.text.SimpleDateFormat format = new java.text.SimpleDateFormat("MM/dd HH:mm:ss");
+        StringBuilder sb = new StringBuilder();
+        for (KillLog log : page.getLogs()) {
+            String killer = log.getKillerName() != null ? log.getKillerName() : "環境";
+            sb.append("`").append(format.format(new java.util.Date(log.getTimestamp()))).append("` ")
+                    .append(killer).append(" → **").append(log.getVictimName()).append("** | ")
+                    .append(ChatColor.stripColor(log.getWeapon())).append(" (").append(log.getFormattedDistance())
+                    .append(")\n");
+        }
+        if (sb.length() == 0) {
+            sb.append("ログが見つかりません。");
+        }
+
+        String targetName = target != null ? Bukkit.getOfflinePlayer(target).getName() : null;
+        return new EmbedBuilder()
+                .setTitle("⚔️ 戦闘ログ" + (targetName != null ? " (" + targetName + ")" : "") + " - " + pageNumber + "ページ")
+                .setDescription(sb.toString())
+                .setColor(Color.RED)
+                .setFooter("鉄の規律")
+                .build();
+    }
+
+    private List<net.dv8tion.jda.api.interactions.components.ActionRow> killLogComponents(UUID target,
+            KillLogPage page, int pageNumber) {
+        if (!page.hasNext()) {
+            return List.of();
+        }
+        String id = "killlog:" + (target != null ? target : "*") + ":" + (pageNumber + 1) + ":" + page.getNextToken();
+        return List.of(net.dv8tion.jda.api.interactions.components.ActionRow.of(Button.secondary(id, "次のページ ▶")));
+    }
+
     // Helper to parse <@12345> style mentions or raw IDs
     private long parseDiscordId(String input) {
         if (input.startsWith("<@") && input.endsWith(">")) {
@@ -1098,7 +1194,7 @@ public class DiscordManager extends ListenerAdapter {
             event.deferReply(true).queue();
 
             plugin.getRankManager().getRankAsync(uuid).thenAccept(rank -> {
-                String rankRoleId = plugin.getConfigManager().getDiscordRankRoleId(rank.name());
+                String rankRoleId = plugin.getConfigManager().getDiscordRankRoleId(rank.getId());
                 String verifiedRoleId = plugin.getConfigManager().getDiscordVerifiedRoleId();
 
                 Guild guild = event.getGuild();
@@ -1130,6 +1226,9 @@ public class DiscordManager extends ListenerAdapter {
                 }
             });
 
+        } else if (id.startsWith("killlog:")) {
+            handleKillLogPage(event);
+
         } else if (id.equals("role_toggle_notify")) {
             String notifyRoleId = plugin.getConfigManager().getDiscordNotificationRoleId();
             if (notifyRoleId == null || notifyRoleId.isEmpty()) {
@@ -1,16 +1,34 @@
 package com.irondiscipline.manager;
 
 import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.model.JailCell;
+import com.irondiscipline.model.JailRecord;
+import com.irondiscipline.model.JailSentence;
+import com.irondiscipline.model.JailZone;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitTask;
 
 import com.irondiscipline.util.InventoryUtil;
+import com.irondiscipline.util.JailCellAllocator;
+import com.irondiscipline.util.DurationUtil;
+import com.irondiscipline.util.TimingWheel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * 隔離マネージャー
@@ -20,23 +38,105 @@ public class JailManager {
 
     private final IronDiscipline plugin;
 
-    // 隔離中プレイヤー (キャッシュ)
+    // 隔離中プレイヤー (起動時にDBの全件を読み込み、隔離/釈放で更新)
     private final Map<UUID, JailData> jailedPlayers = new ConcurrentHashMap<>();
 
+    // ログイン前に先読みした隔離記録
+    private static final long PREFETCH_TIMEOUT_MILLIS = 3000L;
+    private final Map<UUID, CompletableFuture<JailRecord>> prefetched = new ConcurrentHashMap<>();
+
+    // 隔離区域 (設定から事前に計算し、移動判定ではこれだけを参照する)
+    private volatile JailZone zone = new JailZone(List.of());
+
+    // 監房 (DBに保存し /jailcell で管理) と収容状況
+    private final Map<String, JailCell> storedCells = new ConcurrentHashMap<>();
+    private final JailCellAllocator allocator = new JailCellAllocator();
+
+    // 刑期 (釈放時刻は1秒刻みのタイミングホイールで管理し、毎秒その時刻の分だけ処理する)
+    private static final long SENTENCE_TICK_MILLIS = 1000L;
+    private final Map<UUID, JailSentence> sentences = new ConcurrentHashMap<>();
+    // オンライン時間のみ数える場合の服役開始時刻
+    private final Map<UUID, Long> servingSince = new ConcurrentHashMap<>();
+    private final TimingWheel<UUID> sentenceWheel =
+            new TimingWheel<>(System.currentTimeMillis() / SENTENCE_TICK_MILLIS);
+    private BukkitTask sentenceTask;
+
     public JailManager(IronDiscipline plugin) {
         this.plugin = plugin;
+        loadStoredCells();
+        reloadZone();
         loadJailedPlayers();
+        startSentenceTicker();
     }
 
     /**
-     * プレイヤーを隔離
+     * 隔離区域を設定から作り直す (起動時・リロード時・/setjail 時・監房の変更時)
      */
-    public boolean jail(Player target, Player jailer, String reason) {
-        Location jailLocation = plugin.getConfigManager().getJailLocation();
-        if (jailLocation == null) {
-            return false;
+    public void reloadZone() {
+        // 監房 (設定 + DB、同名はDBを優先)
+        Map<String, JailCell> cells = new LinkedHashMap<>();
+        for (JailCell cell : plugin.getConfigManager().getJailCells()) {
+            cells.put(cell.getName(), cell);
+        }
+        cells.putAll(storedCells);
+        allocator.setCells(cells.values());
+
+        List<JailCell> zoneCells = new ArrayList<>();
+        Location location = plugin.getConfigManager().getJailLocation();
+        if (location != null) {
+            zoneCells.add(JailCell.around(JailCell.DEFAULT_NAME, location, plugin.getConfigManager().getJailRadius()));
         }
+        zoneCells.addAll(cells.values());
+        zone = new JailZone(zoneCells);
+    }
 
+    public JailZone getZone() {
+        return zone;
+    }
+
+    /**
+     * 隔離場所 (jail.location) の送り先 (未設定の場合null)
+     */
+    public Location getJailSpawn() {
+        JailCell cell = zone.getPrimaryCell();
+        return cell != null ? cell.getSpawn() : null;
+    }
+
+    /**
+     * 隔離先 (隔離場所または監房) が1つでも設定されているか
+     */
+    public boolean hasJailDestination() {
+        return !zone.isEmpty();
+    }
+
+    /**
+     * 監房を割り当て、送り先を返す
+     * 空いている監房がなければ隔離場所 (jail.location) へ送る
+     *
+     * @return 送り先がない場合null
+     */
+    private Location assignDestination(UUID playerId) {
+        JailCell cell = allocator.assign(playerId);
+        if (cell != null) {
+            return cell.getSpawn();
+        }
+        JailCell fallback = zone.getPrimaryCell();
+        return fallback != null && fallback.getName().equals(JailCell.DEFAULT_NAME) ? fallback.getSpawn() : null;
+    }
+
+    /**
+     * プレイヤーを隔離 (無期限)
+     */
+    public boolean jail(Player target, Player jailer, String reason) {
+        return jail(target, jailer, reason, 0);
+    }
+
+    /**
+     * プレイヤーを隔離
+     *
+     * @param sentenceMillis 刑期 (0以下は /unjail まで無期限)
+     */
+    public boolean jail(Player target, Player jailer, String reason, long sentenceMillis) {
         UUID targetId = target.getUniqueId();
 
         // 既に隔離中なら何もしない
@@ -44,27 +144,45 @@ public class JailManager {
             return false;
         }
 
+        // 監房の割り当て (同時に大勢隔離しても空いている監房へ分散する)
+        Location jailLocation = assignDestination(targetId);
+        if (jailLocation == null) {
+            return false;
+        }
+        JailCell assignedCell = allocator.getAssignedCell(targetId);
+        String cellName = assignedCell != null ? assignedCell.getName() : null;
+
         // 現在位置を保存
         Location originalLocation = target.getLocation();
         String locString = serializeLocation(originalLocation);
 
-        // インベントリバックアップ (Base64)
-        String invBackup = InventoryUtil.toBase64(target.getInventory().getContents());
-        String armorBackup = InventoryUtil.toBase64(target.getInventory().getArmorContents());
+        // インベントリバックアップ (圧縮バイナリ)
+        byte[] invBackup = InventoryUtil.toBytes(target.getInventory().getContents());
+        byte[] armorBackup = InventoryUtil.toBytes(target.getInventory().getArmorContents());
 
         // DB保存を先に実行 (トランザクション的安全性)
         // 戻り値はvoidではないので、呼び出し元での同期的な戻り値はfalseにし、完了後に処理する形が理想だが
         // 現状のAPI仕様上、同期的にtrue/falseを返す必要があるため、処理の開始を返す形にする。
 
         plugin.getStorageManager().saveJailedPlayerAsync(targetId, target.getName(), reason,
-                jailer != null ? jailer.getUniqueId() : null, locString, invBackup, armorBackup)
+                jailer != null ? jailer.getUniqueId() : null, locString, invBackup, armorBackup, sentenceMillis,
+                cellName)
                 .thenAccept(success -> {
                     if (success) {
                         Bukkit.getScheduler().runTask(plugin, () -> {
-                            // DB保存成功後にインベントリ操作とテレポート
-                            if (!target.isOnline())
+                            // データ保存 (キャッシュ) はログアウトしていても行う (参加時の判定はメモリのみを見るため)
+                            JailData data = new JailData(targetId, target.getName(), reason,
+                                    System.currentTimeMillis(), jailer != null ? jailer.getUniqueId() : null,
+                                    locString);
+                            jailedPlayers.put(targetId, data);
+
+                            if (!target.isOnline()) {
+                                deferBackup(targetId, target.getName(), reason,
+                                        jailer != null ? jailer.getUniqueId() : null, sentenceMillis, cellName);
                                 return;
+                            }
 
+                            // DB保存成功後にインベントリ操作とテレポート
                             // インベントリクリア
                             target.getInventory().clear();
                             target.getInventory().setArmorContents(new ItemStack[4]);
@@ -75,17 +193,23 @@ public class JailManager {
                             // 隔離場所へテレポート
                             target.teleport(jailLocation);
 
-                            // データ保存 (キャッシュ)
-                            JailData data = new JailData(targetId, target.getName(), reason,
-                                    System.currentTimeMillis(), jailer != null ? jailer.getUniqueId() : null,
-                                    locString);
-                            jailedPlayers.put(targetId, data);
+                            // 刑期開始
+                            if (sentenceMillis > 0) {
+                                startServing(target, new JailSentence(System.currentTimeMillis(), sentenceMillis, 0));
+                            }
 
                             // 通知
-                            target.sendMessage(plugin.getConfigManager().getMessage("jail_you_jailed",
-                                    "%reason%", reason != null ? reason : "理由なし"));
+                            if (sentenceMillis > 0) {
+                                target.sendMessage(plugin.getConfigManager().getMessage("jail_you_jailed_timed",
+                                        "%reason%", reason != null ? reason : "理由なし",
+                                        "%duration%", DurationUtil.format(sentenceMillis)));
+                            } else {
+                                target.sendMessage(plugin.getConfigManager().getMessage("jail_you_jailed",
+                                        "%reason%", reason != null ? reason : "理由なし"));
+                            }
                         });
                     } else {
+                        allocator.release(targetId);
                         plugin.getLogger().warning("隔離処理中断: DB保存に失敗しました - " + target.getName());
                     }
                 });
@@ -94,16 +218,37 @@ public class JailManager {
     }
 
     /**
-     * オフラインプレイヤーを隔離 (DBのみ更新)
+     * 隔離の保存後、インベントリを預かる前にログアウトした場合の記録の差し替え
+     * インベントリは手元に残っているため、保存したバックアップを捨ててオフライン隔離と同じ扱いにする
+     * (次回ログイン時にバックアップを取り、刑期もそこから数える)
+     */
+    private void deferBackup(UUID playerId, String playerName, String reason, UUID jailedBy, long sentenceMillis,
+                             String cellName) {
+        plugin.getStorageManager().saveJailedPlayerAsync(playerId, playerName, reason, jailedBy, null,
+                (byte[]) null, null, sentenceMillis, cellName);
+    }
+
+    /**
+     * オフラインプレイヤーを隔離 (DBのみ更新・無期限)
      */
     public boolean jailOffline(UUID targetId, String targetName, UUID jailerId, String reason) {
+        return jailOffline(targetId, targetName, jailerId, reason, 0);
+    }
+
+    /**
+     * オフラインプレイヤーを隔離 (DBのみ更新)
+     * 刑期は実時間・オンライン時間のどちらで数える場合も、ログインして隔離された時点から数える
+     * (オフラインの間に刑期が過ぎても釈放しない)
+     */
+    public boolean jailOffline(UUID targetId, String targetName, UUID jailerId, String reason,
+                               long sentenceMillis) {
         if (isJailed(targetId)) {
             return false;
         }
 
         // DB保存 (インベントリバックアップはnull = ログイン時にバックアップ)
-        plugin.getStorageManager().saveJailedPlayer(targetId, targetName, reason,
-                jailerId, null, null, null);
+        plugin.getStorageManager().saveJailedPlayerAsync(targetId, targetName, reason,
+                jailerId, null, (byte[]) null, null, sentenceMillis);
 
         // キャッシュ更新 (一応)
         JailData data = new JailData(targetId, targetName, reason,
@@ -124,42 +269,43 @@ public class JailManager {
         }
 
         JailData data = jailedPlayers.remove(targetId);
+        sentences.remove(targetId);
+        servingSince.remove(targetId);
+        sentenceWheel.cancel(targetId);
+        allocator.release(targetId);
 
         // 元の場所へテレポート
+        boolean teleported = false;
         if (data != null && data.originalLocation != null) {
             Location original = deserializeLocation(data.originalLocation);
             if (original != null) {
                 target.teleport(original);
+                teleported = true;
             }
         }
+        boolean needsTeleport = !teleported;
 
         // ゲームモード復元
         target.setGameMode(GameMode.SURVIVAL);
 
-        // インベントリ復元 (DBから非同期取得)
-        plugin.getStorageManager().getInventoryBackupAsync(targetId).thenAccept(invData -> {
-            plugin.getStorageManager().getArmorBackupAsync(targetId).thenAccept(armorData -> {
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    if (invData != null) {
-                        ItemStack[] items = InventoryUtil.fromBase64(invData);
-                        if (items != null) {
-                            target.getInventory().setContents(items);
-                        }
+        // インベントリ復元 (隔離記録をDBから1回で非同期取得)
+        plugin.getStorageManager().getJailRecordAsync(targetId).thenAccept(record -> {
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                // 起動時に読み込んだだけで元座標を持っていない場合は記録の元座標へ
+                if (needsTeleport && record != null && record.getOriginalLocation() != null) {
+                    Location original = deserializeLocation(record.getOriginalLocation());
+                    if (original != null) {
+                        target.teleport(original);
                     }
+                }
 
-                    if (armorData != null) {
-                        ItemStack[] armor = InventoryUtil.fromBase64(armorData);
-                        if (armor != null) {
-                            target.getInventory().setArmorContents(armor);
-                        }
-                    }
+                restoreInventory(target, record);
 
-                    // DB削除 (非同期)
-                    plugin.getStorageManager().removeJailedPlayerAsync(targetId).thenRun(() -> {
-                        Bukkit.getScheduler().runTask(plugin, () -> {
-                            // 通知 (DB削除完了後)
-                            target.sendMessage(plugin.getConfigManager().getMessage("jail_you_released"));
-                        });
+                // DB削除 (非同期)
+                plugin.getStorageManager().removeJailedPlayerAsync(targetId).thenRun(() -> {
+                    Bukkit.getScheduler().runTask(plugin, () -> {
+                        // 通知 (DB削除完了後)
+                        target.sendMessage(plugin.getConfigManager().getMessage("jail_you_released"));
                     });
                 });
             });
@@ -168,6 +314,220 @@ public class JailManager {
         return true;
     }
 
+    // ===== 一括隔離・釈放 =====
+
+    /**
+     * 複数のプレイヤーをまとめて隔離 (部隊・範囲指定など)
+     * インベントリの保存は数tickに分けて行い、DBへは1トランザクションでまとめて保存する。
+     * 既に隔離中のプレイヤーはスキップする。
+     *
+     * @param sentenceMillis 刑期 (0以下は /unjail まで無期限)
+     * @param callback 全員の処理が終わった時の集計 (メインスレッド)
+     */
+    public void jailBatch(List<Player> targets, Player jailer, String reason, long sentenceMillis,
+                          Consumer<BatchResult> callback) {
+        BatchResult result = new BatchResult();
+        UUID jailerId = jailer != null ? jailer.getUniqueId() : null;
+
+        // 監房の割り当ては先にまとめて行う (同じ監房に偏らないよう順に空いている監房へ)
+        List<Player> pending = new ArrayList<>();
+        Map<UUID, Location> destinations = new HashMap<>();
+        for (Player target : targets) {
+            UUID targetId = target.getUniqueId();
+            if (isJailed(targetId) || destinations.containsKey(targetId)) {
+                result.skipped++;
+                continue;
+            }
+            Location destination = assignDestination(targetId);
+            if (destination == null) {
+                result.failed++;
+                continue;
+            }
+            destinations.put(targetId, destination);
+            pending.add(target);
+        }
+
+        // インベントリを数tickに分けて保存用に変換
+        List<JailRecord> records = new ArrayList<>();
+        forEachSpread(pending, target -> {
+            UUID targetId = target.getUniqueId();
+            if (!target.isOnline()) {
+                allocator.release(targetId);
+                destinations.remove(targetId);
+                result.failed++;
+                return;
+            }
+            JailCell cell = allocator.getAssignedCell(targetId);
+            records.add(new JailRecord(targetId, target.getName(), reason, System.currentTimeMillis(), jailerId,
+                    serializeLocation(target.getLocation()),
+                    InventoryUtil.toBytes(target.getInventory().getContents()),
+                    InventoryUtil.toBytes(target.getInventory().getArmorContents()),
+                    sentenceMillis > 0 ? new JailSentence(System.currentTimeMillis(), sentenceMillis, 0) : null,
+                    cell != null ? cell.getName() : null));
+        }, () -> plugin.getStorageManager().saveJailedPlayersAsync(records).thenAccept(success ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (!success) {
+                        records.forEach(record -> allocator.release(record.getPlayerId()));
+                        result.failed += records.size();
+                        plugin.getLogger().warning("一括隔離中断: DB保存に失敗しました (" + records.size() + "人)");
+                        callback.accept(result);
+                        return;
+                    }
+                    for (JailRecord record : records) {
+                        applyJail(record, destinations.get(record.getPlayerId()));
+                        result.succeeded++;
+                    }
+                    callback.accept(result);
+                })));
+    }
+
+    /**
+     * 保存済みの隔離記録をオンラインのプレイヤーに反映 (一括隔離のDB保存後)
+     */
+    private void applyJail(JailRecord record, Location destination) {
+        UUID playerId = record.getPlayerId();
+        jailedPlayers.put(playerId, new JailData(playerId, record.getPlayerName(), record.getReason(),
+                record.getJailedAt(), record.getJailedBy(), record.getOriginalLocation()));
+
+        Player target = Bukkit.getPlayer(playerId);
+        if (target == null || !target.isOnline()) {
+            // 保存済みのため次回ログイン時に隔離状態へ戻す
+            JailSentence sentence = record.getSentence();
+            deferBackup(playerId, record.getPlayerName(), record.getReason(), record.getJailedBy(),
+                    sentence != null ? sentence.getDurationMillis() : 0, record.getCellName());
+            return;
+        }
+        target.getInventory().clear();
+        target.getInventory().setArmorContents(new ItemStack[4]);
+        target.setGameMode(GameMode.ADVENTURE);
+        target.teleport(destination);
+
+        String reason = record.getReason() != null ? record.getReason() : "理由なし";
+        JailSentence sentence = record.getSentence();
+        if (sentence != null) {
+            startServing(target, sentence);
+            target.sendMessage(plugin.getConfigManager().getMessage("jail_you_jailed_timed",
+                    "%reason%", reason, "%duration%", DurationUtil.format(sentence.getDurationMillis())));
+        } else {
+            target.sendMessage(plugin.getConfigManager().getMessage("jail_you_jailed", "%reason%", reason));
+        }
+    }
+
+    /**
+     * 複数のプレイヤーをまとめて釈放
+     * 隔離記録は1回のクエリで取得し、インベントリの復元は数tickに分けて行い、
+     * 復元できたプレイヤーの記録だけをDBから1トランザクションでまとめて削除する。
+     * 隔離中でないプレイヤーはスキップし、オフラインのプレイヤーは記録を残したまま失敗として数える
+     * (インベントリのバックアップは記録にしかないため、復元するまで削除しない)。
+     *
+     * @param callback 全員の処理が終わった時の集計 (メインスレッド)
+     */
+    public void unjailBatch(List<Player> targets, Consumer<BatchResult> callback) {
+        BatchResult result = new BatchResult();
+        Map<UUID, Player> pending = new LinkedHashMap<>();
+        for (Player target : targets) {
+            UUID targetId = target.getUniqueId();
+            if (!jailedPlayers.containsKey(targetId) || pending.containsKey(targetId)) {
+                result.skipped++;
+                continue;
+            }
+            if (!target.isOnline()) {
+                result.failed++;
+                continue;
+            }
+            pending.put(targetId, target);
+        }
+
+        List<UUID> restored = new ArrayList<>();
+        plugin.getStorageManager().getJailRecordsAsync(pending.keySet()).thenAccept(records ->
+                Bukkit.getScheduler().runTask(plugin, () -> forEachSpread(new ArrayList<>(pending.values()), target -> {
+                    UUID targetId = target.getUniqueId();
+                    JailRecord record = records.get(targetId);
+                    if (!target.isOnline() || record == null) {
+                        // 途中でログアウトした・記録を読めなかった場合は何も変更せず、隔離を続ける
+                        result.failed++;
+                        return;
+                    }
+                    JailData data = jailedPlayers.remove(targetId);
+                    if (data == null) {
+                        // 記録の取得を待つ間に別の処理で釈放済み
+                        result.skipped++;
+                        return;
+                    }
+                    sentences.remove(targetId);
+                    servingSince.remove(targetId);
+                    sentenceWheel.cancel(targetId);
+                    allocator.release(targetId);
+
+                    String originalLoc = data.originalLocation != null ? data.originalLocation
+                            : record.getOriginalLocation();
+                    if (originalLoc != null) {
+                        Location original = deserializeLocation(originalLoc);
+                        if (original != null) {
+                            target.teleport(original);
+                        }
+                    }
+                    target.setGameMode(GameMode.SURVIVAL);
+                    restoreInventory(target, record);
+                    restored.add(targetId);
+                }, () -> plugin.getStorageManager().removeJailedPlayersAsync(restored).thenAccept(success ->
+                        Bukkit.getScheduler().runTask(plugin, () -> {
+                            if (!success) {
+                                // 復元済みのため、1人ずつ削除し直す (残ると次回ログイン時に再度隔離されるため)
+                                plugin.getLogger().warning("一括釈放: DB削除に失敗したため個別に再試行します ("
+                                        + restored.size() + "人)");
+                                restored.forEach(plugin.getStorageManager()::removeJailedPlayerAsync);
+                            }
+                            result.succeeded += restored.size();
+                            for (UUID playerId : restored) {
+                                Player target = Bukkit.getPlayer(playerId);
+                                if (target != null) {
+                                    target.sendMessage(plugin.getConfigManager().getMessage("jail_you_released"));
+                                }
+                            }
+                            callback.accept(result);
+                        })))));
+    }
+
+    /**
+     * 隔離記録のバックアップからインベントリを復元
+     */
+    private void restoreInventory(Player target, JailRecord record) {
+        if (record == null) {
+            return;
+        }
+        if (record.getInventoryBackup() != null) {
+            ItemStack[] items = InventoryUtil.fromBytes(record.getInventoryBackup());
+            if (items != null) {
+                target.getInventory().setContents(items);
+            }
+        }
+        if (record.getArmorBackup() != null) {
+            ItemStack[] armor = InventoryUtil.fromBytes(record.getArmorBackup());
+            if (armor != null) {
+                target.getInventory().setArmorContents(armor);
+            }
+        }
+    }
+
+    /**
+     * 1tickあたり jail.batch.per_tick 人ずつ処理し、全員終わったら完了処理を呼ぶ (メインスレッド)
+     */
+    private <T> void forEachSpread(List<T> items, Consumer<T> step, Runnable done) {
+        int perTick = Math.max(1, plugin.getConfigManager().getJailBatchPerTick());
+        int[] next = { 0 };
+        Bukkit.getScheduler().runTaskTimer(plugin, task -> {
+            int end = Math.min(next[0] + perTick, items.size());
+            for (; next[0] < end; next[0]++) {
+                step.accept(items.get(next[0]));
+            }
+            if (next[0] >= items.size()) {
+                task.cancel();
+                done.run();
+            }
+        }, 0L, 1L);
+    }
+
     /**
      * 隔離中かどうかチェック
      */
@@ -182,79 +542,359 @@ public class JailManager {
         return jailedPlayers.containsKey(playerId);
     }
 
+    /**
+     * ログイン前 (AsyncPlayerPreLoginEvent) に隔離記録を先読み
+     * 非同期スレッドから呼ばれるため、参加処理がDBを待たなくて済むようここで取得完了を待つ
+     */
+    public void prefetch(UUID playerId) {
+        // 隔離中でなければ先読み不要
+        if (plugin.getStorageManager().isJailedIndexLoaded() && !isJailed(playerId)) {
+            return;
+        }
+        CompletableFuture<JailRecord> future = plugin.getStorageManager().getJailRecordAsync(playerId);
+        prefetched.put(playerId, future);
+        try {
+            future.get(PREFETCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            plugin.getLogger().warning("隔離記録の先読みがタイムアウトしました: " + playerId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            prefetched.remove(playerId);
+        }
+    }
+
+    /**
+     * ログインが拒否された場合などに先読み結果を破棄
+     */
+    public void discardPrefetch(UUID playerId) {
+        prefetched.remove(playerId);
+    }
+
     /**
      * ログイン時の隔離チェックと復元
      */
     public void onPlayerJoin(Player player) {
         UUID playerId = player.getUniqueId();
 
+        // 全件読み込み済みなら、隔離中でないプレイヤーはDBを見ずにそのまま参加させる
+        if (plugin.getStorageManager().isJailedIndexLoaded() && !isJailed(playerId)) {
+            prefetched.remove(playerId);
+            return;
+        }
+
+        // 先読み済みならその場で復元 (DB待ちなし)
+        CompletableFuture<JailRecord> future = prefetched.remove(playerId);
+        if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+            JailRecord record = future.join();
+            if (record != null) {
+                restoreJailState(player, record);
+            }
+            return;
+        }
+
         // 元のゲームモードを保存 (Race Condition対策で一時的にスペクテイターにするため)
         GameMode originalMode = player.getGameMode();
 
         // 即座に行動制限
         player.setGameMode(GameMode.SPECTATOR);
 
-        // 非同期チェック
-        plugin.getStorageManager().isJailedAsync(playerId).thenAccept(isJailed -> {
-            if (!isJailed) {
+        // 非同期チェック (隔離記録を1回で取得)
+        if (future == null) {
+            future = plugin.getStorageManager().getJailRecordAsync(playerId);
+        }
+        future.whenComplete((record, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (!player.isOnline())
+                return;
+
+            if (record == null) {
                 // 隔離中でなければ元のモードに復元
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    if (player.isOnline()) {
-                        player.setGameMode(originalMode);
-                    }
-                });
+                player.setGameMode(originalMode);
                 return;
             }
+            restoreJailState(player, record);
+        }));
+    }
 
-            // DBからバックアップ状況を確認
-            plugin.getStorageManager().getInventoryBackupAsync(playerId).thenAccept(invBackup -> {
-                // 元座標も非同期で取得
-                plugin.getStorageManager().getOriginalLocationAsync(playerId).thenAccept(savedOriginalLoc -> {
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        if (!player.isOnline())
-                            return;
+    /**
+     * 隔離記録のあるプレイヤーを隔離状態に戻す (メインスレッド)
+     */
+    private void restoreJailState(Player player, JailRecord record) {
+        UUID playerId = player.getUniqueId();
+        String originalLoc = record.getOriginalLocation();
+        JailSentence sentence = record.getSentence();
 
-                        String finalOriginalLoc = savedOriginalLoc;
+        // オフライン中に刑期を終えていた場合は釈放
+        // (オフライン隔離でまだインベントリを預かっていない場合は、刑期がこれから始まるため対象外)
+        boolean firstLogin = record.getInventoryBackup() == null;
+        if (!firstLogin && sentence != null && remainingMillis(sentence, System.currentTimeMillis()) <= 0) {
+            releaseExpired(player, record);
+            return;
+        }
 
-                        // バックアップがない場合（オフライン処罰時）は今すぐバックアップ
-                        if (invBackup == null) {
-                            // インベントリバックアップ
-                            String newInvBackup = InventoryUtil.toBase64(player.getInventory().getContents());
-                            String newArmorBackup = InventoryUtil.toBase64(player.getInventory().getArmorContents());
+        // 監房 (保存済みの割り当てを優先し、監房がなくなっていれば割り当て直す)
+        JailCell cell = record.getCellName() != null ? allocator.occupy(playerId, record.getCellName()) : null;
+        Location jailLocation = cell != null ? cell.getSpawn() : assignDestination(playerId);
+        JailCell assigned = allocator.getAssignedCell(playerId);
+        String cellName = assigned != null ? assigned.getName() : null;
 
-                            // 元の場所保存
-                            String locString = serializeLocation(player.getLocation());
-                            finalOriginalLoc = locString;
+        // バックアップがない場合（オフライン処罰時）は今すぐバックアップ
+        if (firstLogin) {
+            // インベントリバックアップ
+            byte[] newInvBackup = InventoryUtil.toBytes(player.getInventory().getContents());
+            byte[] newArmorBackup = InventoryUtil.toBytes(player.getInventory().getArmorContents());
 
-                            // DB更新
-                            plugin.getStorageManager().saveJailedPlayer(playerId, player.getName(), "Offline Jail",
-                                    null, locString, newInvBackup, newArmorBackup);
+            // 元の場所保存
+            originalLoc = serializeLocation(player.getLocation());
 
-                            // インベントリクリア
-                            player.getInventory().clear();
-                            player.getInventory().setArmorContents(new ItemStack[4]);
-                        }
+            // 刑期は隔離された今から数える (残りを新しい刑期として保存)
+            long sentenceMillis = 0;
+            if (sentence != null) {
+                sentence = sentence.restartAt(System.currentTimeMillis());
+                sentenceMillis = sentence.getDurationMillis();
+            }
 
-                        // DBに隔離記録がある場合
-                        // キャッシュ復元
-                        if (!jailedPlayers.containsKey(playerId)) {
-                            jailedPlayers.put(playerId,
-                                    new JailData(playerId, player.getName(), "再接続", System.currentTimeMillis(), null,
-                                            finalOriginalLoc));
-                        }
+            // DB更新
+            plugin.getStorageManager().saveJailedPlayerAsync(playerId, player.getName(),
+                    record.getReason() != null ? record.getReason() : "Offline Jail",
+                    record.getJailedBy(), originalLoc, newInvBackup, newArmorBackup, sentenceMillis, cellName);
 
-                        // 隔離場所にテレポート
-                        Location jailLocation = plugin.getConfigManager().getJailLocation();
-                        if (jailLocation != null) {
-                            player.teleport(jailLocation);
-                            player.setGameMode(GameMode.ADVENTURE);
-                            player.sendMessage(plugin.getConfigManager().getMessage("jail_you_jailed",
-                                    "%reason%", "拘留中のため再配置"));
-                        }
-                    });
-                });
-            });
-        });
+            // インベントリクリア
+            player.getInventory().clear();
+            player.getInventory().setArmorContents(new ItemStack[4]);
+        } else if (!Objects.equals(cellName, record.getCellName())) {
+            plugin.getStorageManager().updateJailCellAsync(playerId, cellName);
+        }
+
+        // DBに隔離記録がある場合
+        // キャッシュ復元 (起動時に読み込んだ元座標なしのデータも置き換える)
+        JailData cached = jailedPlayers.get(playerId);
+        if (cached == null || cached.originalLocation == null) {
+            jailedPlayers.put(playerId,
+                    new JailData(playerId, player.getName(), record.getReason(), record.getJailedAt(),
+                            record.getJailedBy(), originalLoc));
+        }
+
+        // 刑期の計測を再開
+        if (sentence != null) {
+            startServing(player, sentence);
+        }
+
+        // 隔離場所 (監房) にテレポート
+        if (jailLocation != null) {
+            player.teleport(jailLocation);
+            player.setGameMode(GameMode.ADVENTURE);
+            player.sendMessage(plugin.getConfigManager().getMessage("jail_you_jailed",
+                    "%reason%", "拘留中のため再配置"));
+        }
+    }
+
+    /**
+     * 刑期を終えていた隔離記録の釈放 (ログイン時)
+     */
+    private void releaseExpired(Player player, JailRecord record) {
+        // 通常の釈放 (インベントリ・元の場所を復元)
+        UUID playerId = player.getUniqueId();
+        jailedPlayers.putIfAbsent(playerId, new JailData(playerId, player.getName(), record.getReason(),
+                record.getJailedAt(), record.getJailedBy(), record.getOriginalLocation()));
+        unjail(player);
+    }
+
+    /**
+     * 刑期の残り時間
+     * オンライン時間のみ数える場合は服役済み時間から、それ以外は釈放時刻から求める
+     */
+    private long remainingMillis(JailSentence sentence, long now) {
+        if (plugin.getConfigManager().isJailSentenceOnlineOnly()) {
+            return sentence.getRemainingOnlineMillis();
+        }
+        return sentence.getReleaseAt() - now;
+    }
+
+    /**
+     * 刑期の計測を開始し、釈放時刻をホイールに登録 (オンライン中のプレイヤー)
+     */
+    private void startServing(Player player, JailSentence sentence) {
+        UUID playerId = player.getUniqueId();
+        long now = System.currentTimeMillis();
+        sentences.put(playerId, sentence);
+
+        long releaseAt;
+        if (plugin.getConfigManager().isJailSentenceOnlineOnly()) {
+            servingSince.put(playerId, now);
+            releaseAt = now + sentence.getRemainingOnlineMillis();
+        } else {
+            releaseAt = sentence.getReleaseAt();
+        }
+        sentenceWheel.schedule(playerId, toSentenceTick(releaseAt));
+    }
+
+    /**
+     * 釈放時刻をホイールの時刻に変換 (切り上げ)
+     */
+    private static long toSentenceTick(long millis) {
+        return (millis + SENTENCE_TICK_MILLIS - 1) / SENTENCE_TICK_MILLIS;
+    }
+
+    /**
+     * ログアウト時の処理
+     * オンライン時間のみ数える場合は服役済み時間を保存し、ホイールから外す
+     */
+    public void onPlayerQuit(Player player) {
+        UUID playerId = player.getUniqueId();
+        prefetched.remove(playerId);
+        saveServedTime(playerId, System.currentTimeMillis());
+    }
+
+    private void saveServedTime(UUID playerId, long now) {
+        Long since = servingSince.remove(playerId);
+        JailSentence sentence = sentences.get(playerId);
+        if (since == null || sentence == null) {
+            return;
+        }
+        sentenceWheel.cancel(playerId);
+        long served = sentence.getServedMillis() + (now - since);
+        sentences.put(playerId, sentence.withServed(served));
+        plugin.getStorageManager().updateJailServedAsync(playerId, served);
+    }
+
+    /**
+     * 毎秒の刑期チェック (釈放時刻を迎えたプレイヤーのみ処理)
+     */
+    private void startSentenceTicker() {
+        sentenceTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tickSentences, 20L, 20L);
+    }
+
+    private void tickSentences() {
+        long tick = System.currentTimeMillis() / SENTENCE_TICK_MILLIS;
+        for (UUID playerId : sentenceWheel.advanceTo(tick)) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline() || !isJailed(player)) {
+                // オフラインの場合は次回ログイン時に釈放
+                continue;
+            }
+            servingSince.remove(playerId);
+            plugin.getLogger().info("刑期満了により釈放: " + player.getName());
+            unjail(player);
+        }
+    }
+
+    /**
+     * 刑期の残り時間 (刑期なしの場合-1)
+     */
+    public long getRemainingSentence(UUID playerId) {
+        JailSentence sentence = sentences.get(playerId);
+        if (sentence == null) {
+            return -1;
+        }
+        long now = System.currentTimeMillis();
+        if (plugin.getConfigManager().isJailSentenceOnlineOnly()) {
+            Long since = servingSince.get(playerId);
+            long served = sentence.getServedMillis() + (since != null ? now - since : 0);
+            return Math.max(0, sentence.getDurationMillis() - served);
+        }
+        return Math.max(0, sentence.getReleaseAt() - now);
+    }
+
+    /**
+     * 停止処理 (ストレージ停止前に呼ぶ)
+     */
+    public void shutdown() {
+        if (sentenceTask != null) {
+            sentenceTask.cancel();
+        }
+        long now = System.currentTimeMillis();
+        for (UUID playerId : List.copyOf(servingSince.keySet())) {
+            saveServedTime(playerId, now);
+        }
+    }
+
+    // ===== 監房管理 =====
+
+    /**
+     * DBに保存された監房を読み込む (起動時)
+     */
+    private void loadStoredCells() {
+        try {
+            for (JailCell cell : plugin.getStorageManager().getJailCellsAsync()
+                    .get(PREFETCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (cell.getName().equalsIgnoreCase(JailCell.DEFAULT_NAME)) {
+                    plugin.getLogger().warning("監房名 " + cell.getName()
+                            + " は隔離場所用に予約されているため無視しました (別の名前で作り直してください)");
+                    continue;
+                }
+                storedCells.put(cell.getName(), cell);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().warning("監房の読み込みに失敗しました: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 監房を追加・更新して保存
+     */
+    public CompletableFuture<Boolean> saveCell(JailCell cell) {
+        storedCells.put(cell.getName(), cell);
+        reloadZone();
+        return plugin.getStorageManager().saveJailCellAsync(cell);
+    }
+
+    /**
+     * 監房を削除
+     * 収容中のオンラインのプレイヤーはすぐに、オフラインのプレイヤーは次のログイン時に別の監房へ移す
+     *
+     * @return 監房が存在しない場合false
+     */
+    public boolean removeCell(String name) {
+        if (storedCells.remove(name) == null) {
+            return false;
+        }
+        reloadZone();
+        plugin.getStorageManager().deleteJailCellAsync(name);
+        reassignOrphans();
+        return true;
+    }
+
+    public JailCell getCell(String name) {
+        return allocator.getCell(name);
+    }
+
+    /**
+     * 設定ファイル (jail.cells) で定義された監房かどうか (同名のDBの監房がある場合はfalse)
+     */
+    public boolean isConfigCell(String name) {
+        return !storedCells.containsKey(name) && allocator.getCell(name) != null;
+    }
+
+    public List<JailCell> getCells() {
+        return allocator.getCells();
+    }
+
+    public int getCellOccupancy(String name) {
+        return allocator.getOccupancy(name);
+    }
+
+    /**
+     * 監房の削除で割り当てが外れたオンラインの隔離中プレイヤーを割り当て直す
+     */
+    private void reassignOrphans() {
+        for (UUID playerId : jailedPlayers.keySet()) {
+            if (allocator.getAssignedCell(playerId) != null) {
+                continue;
+            }
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null) {
+                continue;
+            }
+            Location destination = assignDestination(playerId);
+            JailCell cell = allocator.getAssignedCell(playerId);
+            plugin.getStorageManager().updateJailCellAsync(playerId, cell != null ? cell.getName() : null);
+            if (destination != null) {
+                player.teleport(destination);
+            }
+        }
     }
 
     /**
@@ -264,20 +904,62 @@ public class JailManager {
         if (!isJailed(player))
             return;
 
-        Location jailLocation = plugin.getConfigManager().getJailLocation();
-        if (jailLocation != null) {
-            // 隔離場所から離れすぎていたら戻す
-            if (player.getLocation().distance(jailLocation) > 10) {
-                player.teleport(jailLocation);
+        Location back = getEscapeDestination(player.getUniqueId(), player.getLocation());
+        if (back != null) {
+            player.teleport(back);
+        }
+    }
+
+    /**
+     * 移動先が隔離区域の外なら戻し先 (最も近い監房) を返す
+     *
+     * @return 区域内または区域未設定の場合null
+     */
+    public Location getEscapeDestination(UUID playerId, Location to) {
+        // 監房に割り当て済みなら自分の監房から出たかで判定
+        JailCell cell = allocator.getAssignedCell(playerId);
+        if (cell != null) {
+            if (cell.contains(to)) {
+                return null;
             }
+            Location back = cell.getSpawn();
+            back.setYaw(to.getYaw());
+            back.setPitch(to.getPitch());
+            return back;
         }
+
+        JailZone current = zone;
+        if (current.isEmpty() || current.contains(to)) {
+            return null;
+        }
+        Location back = current.nearestCell(to).getSpawn();
+        back.setYaw(to.getYaw());
+        back.setPitch(to.getPitch());
+        return back;
     }
 
     /**
      * 保存済み隔離プレイヤーをロード
      */
     private void loadJailedPlayers() {
-        // 起動時にDBから読み込み
+        // 起動時にDBから読み込んだ隔離中IDを登録 (以降の隔離判定はメモリのみ)
+        // 元座標などは参加時・釈放時に隔離記録から取得する
+        for (UUID playerId : plugin.getStorageManager().getJailedPlayerIds()) {
+            jailedPlayers.put(playerId, new JailData(playerId, null, null, 0L, null, null));
+        }
+
+        // 監房の収容状況 (オフラインの隔離中プレイヤーも定員に数える)
+        plugin.getStorageManager().getJailCellAssignments().forEach(allocator::occupy);
+
+        // 刑期の再登録 (実時間で数える場合はオフラインのプレイヤーも登録し、満了はログイン時に処理)
+        // オフライン隔離でまだログインしていない場合の刑期は、ログイン時に数え直して登録し直す
+        Map<UUID, JailSentence> stored = plugin.getStorageManager().getJailSentences();
+        sentences.putAll(stored);
+        if (!plugin.getConfigManager().isJailSentenceOnlineOnly()) {
+            stored.forEach((playerId, sentence) -> sentenceWheel.schedule(playerId,
+                    toSentenceTick(sentence.getReleaseAt())));
+        }
+
         // オンラインプレイヤーがいれば状態を復元
         for (Player player : Bukkit.getOnlinePlayers()) {
             onPlayerJoin(player);
@@ -319,6 +1001,19 @@ public class JailManager {
         }
     }
 
+    /**
+     * 一括隔離/釈放の集計
+     */
+    public static class BatchResult {
+        private int succeeded;
+        private int skipped;
+        private int failed;
+
+        public int getSucceeded() { return succeeded; }
+        public int getSkipped() { return skipped; }
+        public int getFailed() { return failed; }
+    }
+
     /**
      * 隔離データ内部クラス
      */
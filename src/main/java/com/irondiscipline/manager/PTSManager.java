@@ -2,6 +2,7 @@ package com.irondiscipline.manager;
 
 import com.irondiscipline.IronDiscipline;
 import com.irondiscipline.model.Rank;
+import com.irondiscipline.util.TimingWheel;
 import net.md_5.bungee.api.ChatMessageType;
 import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.Bukkit;
@@ -15,6 +16,8 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * PTS (Permission To Speak) マネージャー
  * 発言許可システムの管理
+ * 発言許可の残り時間の表示と期限切れは、付与の数に関係なく毎秒1回のタスクでまとめて処理する
+ * (期限は1秒刻みのタイミングホイールで管理し、その時刻に期限を迎えた分だけ取り出す)。
  */
 public class PTSManager {
 
@@ -26,12 +29,45 @@ public class PTSManager {
     // PTS要請中のプレイヤー
     private final Set<UUID> requestingPlayers = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
-    // 期限切れチェック用タスク
-    private BukkitTask expirationTask;
+    // 通知先の上官 (オンラインのみ、参加・退出・階級変更・権限の再計算で更新)
+    private final Set<UUID> officers = ConcurrentHashMap.newKeySet();
+
+    // 発言許可の期限 (1秒刻み、再付与は期限を置き換える)
+    private static final long GRANT_TICK_MILLIS = 1000L;
+    private final TimingWheel<UUID> grantWheel =
+            new TimingWheel<>(System.currentTimeMillis() / GRANT_TICK_MILLIS);
+
+    // 残り時間表示と期限切れ処理のタスク
+    private BukkitTask ticker;
 
     public PTSManager(IronDiscipline plugin) {
         this.plugin = plugin;
-        startExpirationChecker();
+        rebuildOfficers();
+        startTicker();
+    }
+
+    /**
+     * 上官の索引を更新 (メインスレッド)
+     * PTS付与権限を持っているか、閾値より上の階級なら通知対象
+     */
+    public void refreshOfficer(Player player) {
+        int threshold = plugin.getConfigManager().getPTSRequireBelowWeight();
+        if (player.hasPermission("iron.pts.grant") ||
+                plugin.getRankManager().getRank(player).getWeight() > threshold) {
+            officers.add(player.getUniqueId());
+        } else {
+            officers.remove(player.getUniqueId());
+        }
+    }
+
+    /**
+     * オンラインの全員から上官の索引を作り直す (起動・リロード時)
+     */
+    public void rebuildOfficers() {
+        officers.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refreshOfficer(player);
+        }
     }
 
     /**
@@ -74,14 +110,16 @@ public class PTSManager {
         player.sendMessage(plugin.getConfigManager().getMessage("pts_received",
                 "%seconds%", String.valueOf(seconds)));
 
-        // アクションバーで残り時間表示開始
-        startCountdownDisplay(player, seconds);
+        // 期限を登録 (再付与の場合は置き換え)、残り時間は毎秒のタスクで表示する
+        grantWheel.schedule(player.getUniqueId(), toGrantTick(expiration));
+        showCountdown(player);
     }
 
     /**
      * 発言許可を剥奪
      */
     public void revokeGrant(Player player) {
+        grantWheel.cancel(player.getUniqueId());
         if (grantedPlayers.remove(player.getUniqueId()) != null) {
             player.sendMessage(plugin.getConfigManager().getMessage("pts_expired"));
         }
@@ -128,22 +166,20 @@ public class PTSManager {
         String message = plugin.getConfigManager().getMessage("pts_request_notify",
                 "%player%", requester.getName());
 
-        int threshold = plugin.getConfigManager().getPTSRequireBelowWeight();
-
-        for (Player officer : Bukkit.getOnlinePlayers()) {
+        for (UUID officerId : officers) {
             // 自分自身はスキップ
-            if (officer.equals(requester))
+            if (officerId.equals(requester.getUniqueId()))
                 continue;
 
-            // PTS付与権限を持っているか、閾値より上の階級
-            if (officer.hasPermission("iron.pts.grant") ||
-                    plugin.getRankManager().getRank(officer).getWeight() > threshold) {
-                officer.sendMessage(message);
+            Player officer = Bukkit.getPlayer(officerId);
+            if (officer == null)
+                continue;
 
-                // サウンド通知
-                officer.playSound(officer.getLocation(),
-                        org.bukkit.Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.5f);
-            }
+            officer.sendMessage(message);
+
+            // サウンド通知
+            officer.playSound(officer.getLocation(),
+                    org.bukkit.Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.5f);
         }
     }
 
@@ -151,19 +187,18 @@ public class PTSManager {
      * 特定メッセージで上官に通知
      */
     public void notifyOfficersWithMessage(Player requester, String chatMessage) {
-        int threshold = plugin.getConfigManager().getPTSRequireBelowWeight();
         Rank requesterRank = plugin.getRankManager().getRank(requester);
 
         String formattedMessage = plugin.getConfigManager().getPTSRequestPrefix() + " " +
                 requesterRank.getDisplay() + " " + requester.getName() +
                 ChatColor.GRAY + ": " + ChatColor.WHITE + chatMessage;
 
-        for (Player officer : Bukkit.getOnlinePlayers()) {
-            if (officer.equals(requester))
+        for (UUID officerId : officers) {
+            if (officerId.equals(requester.getUniqueId()))
                 continue;
 
-            if (officer.hasPermission("iron.pts.grant") ||
-                    plugin.getRankManager().getRank(officer).getWeight() > threshold) {
+            Player officer = Bukkit.getPlayer(officerId);
+            if (officer != null) {
                 officer.sendMessage(formattedMessage);
             }
         }
@@ -188,59 +223,65 @@ public class PTSManager {
     }
 
     /**
-     * カウントダウン表示
+     * 期限をホイールの時刻に変換 (切り上げ)
      */
-    private void startCountdownDisplay(Player player, int totalSeconds) {
-        final UUID playerId = player.getUniqueId();
+    private static long toGrantTick(long millis) {
+        return (millis + GRANT_TICK_MILLIS - 1) / GRANT_TICK_MILLIS;
+    }
 
-        Bukkit.getScheduler().runTaskTimer(plugin, task -> {
-            Player p = Bukkit.getPlayer(playerId);
-            if (p == null || !p.isOnline()) {
-                task.cancel();
-                return;
-            }
+    /**
+     * 毎秒の処理を開始
+     */
+    private void startTicker() {
+        ticker = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 20L, 20L);
+    }
 
-            int remaining = getRemainingSeconds(playerId);
-            if (remaining <= 0) {
-                p.spigot().sendMessage(ChatMessageType.ACTION_BAR,
+    /**
+     * 期限を迎えた発言許可を失効させ、残りの付与中のプレイヤーに残り時間を表示
+     */
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (UUID playerId : grantWheel.advanceTo(now / GRANT_TICK_MILLIS)) {
+            if (grantedPlayers.remove(playerId) == null) {
+                continue; // 既に剥奪済み
+            }
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null && player.isOnline()) {
+                player.sendMessage(plugin.getConfigManager().getMessage("pts_expired"));
+                player.spigot().sendMessage(ChatMessageType.ACTION_BAR,
                         TextComponent.fromLegacyText(ChatColor.RED + "⏱ 発言許可失効"));
-                task.cancel();
-                return;
             }
+        }
 
-            // 色分け
-            ChatColor color;
-            if (remaining > 30) {
-                color = ChatColor.GREEN;
-            } else if (remaining > 10) {
-                color = ChatColor.YELLOW;
-            } else {
-                color = ChatColor.RED;
+        for (UUID playerId : grantedPlayers.keySet()) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null && player.isOnline()) {
+                showCountdown(player);
             }
-
-            p.spigot().sendMessage(ChatMessageType.ACTION_BAR,
-                    TextComponent.fromLegacyText(color + "🎤 発言許可: " + remaining + "秒"));
-
-        }, 0L, 20L); // 毎秒更新
+        }
     }
 
     /**
-     * 期限切れチェッカー開始
+     * アクションバーに残り時間を表示
      */
-    private void startExpirationChecker() {
-        expirationTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            long now = System.currentTimeMillis();
-            grantedPlayers.entrySet().removeIf(entry -> {
-                if (now >= entry.getValue()) {
-                    Player player = Bukkit.getPlayer(entry.getKey());
-                    if (player != null && player.isOnline()) {
-                        player.sendMessage(plugin.getConfigManager().getMessage("pts_expired"));
-                    }
-                    return true;
-                }
-                return false;
-            });
-        }, 20L, 20L); // 毎秒チェック
+    private void showCountdown(Player player) {
+        int remaining = getRemainingSeconds(player.getUniqueId());
+        if (remaining <= 0) {
+            return; // 次の処理で失効
+        }
+
+        // 色分け
+        ChatColor color;
+        if (remaining > 30) {
+            color = ChatColor.GREEN;
+        } else if (remaining > 10) {
+            color = ChatColor.YELLOW;
+        } else {
+            color = ChatColor.RED;
+        }
+
+        player.spigot().sendMessage(ChatMessageType.ACTION_BAR,
+                TextComponent.fromLegacyText(color + "🎤 発言許可: " + remaining + "秒"));
     }
 
     /**
@@ -248,15 +289,17 @@ public class PTSManager {
      */
     public void cleanup(UUID playerId) {
         grantedPlayers.remove(playerId);
+        grantWheel.cancel(playerId);
         requestingPlayers.remove(playerId);
+        officers.remove(playerId);
     }
 
     /**
      * タスク停止 (シャットダウン処理)
      */
     public void shutdown() {
-        if (expirationTask != null && !expirationTask.isCancelled()) {
-            expirationTask.cancel();
+        if (ticker != null && !ticker.isCancelled()) {
+            ticker.cancel();
         }
     }
 }
@@ -1,17 +1,24 @@
 package com.irondiscipline.manager;
 
 import com.irondiscipline.IronDiscipline;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.irondiscipline.model.DailyPlaytime;
+import com.irondiscipline.storage.PlaytimeJournal;
+import com.irondiscipline.util.DailyPlaytimeBuffer;
+import com.irondiscipline.util.Leaderboard;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
 
-import java.io.*;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -21,7 +28,6 @@ import java.util.concurrent.ConcurrentHashMap;
 public class PlaytimeManager implements Listener {
 
     private final IronDiscipline plugin;
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
     
     // プレイヤー -> 累計勤務時間(ミリ秒)
     private final Map<UUID, Long> totalPlaytime = new ConcurrentHashMap<>();
@@ -29,38 +35,124 @@ public class PlaytimeManager implements Listener {
     // 現在のセッション開始時刻
     private final Map<UUID, Long> sessionStart = new ConcurrentHashMap<>();
     
-    private File dataFile;
+    // 追記型ジャーナル (ログアウトごとに1件追記し、定期的にスナップショットへまとめる)
+    private final PlaytimeJournal journal;
+    private BukkitTask compactTask;
+
+    // 勤務時間ランキング (ログアウト時と定期更新で反映し、取得時に並べ替えない)
+    private final Leaderboard<UUID> leaderboard = new Leaderboard<>();
+    private BukkitTask leaderboardTask;
+
+    // 日別の勤務時間 (日付ごとに溜めて定期的にDBへまとめて加算する)
+    private final DailyPlaytimeBuffer daily = new DailyPlaytimeBuffer(ZoneId.systemDefault());
+    private BukkitTask dailyFlushTask;
 
     public PlaytimeManager(IronDiscipline plugin) {
         this.plugin = plugin;
-        this.dataFile = new File(plugin.getDataFolder(), "playtime.json");
+        this.journal = new PlaytimeJournal(plugin.getDataFolder(), plugin.getLogger());
         loadData();
+
+        // 定期的にジャーナルをスナップショットへまとめる
+        long compactTicks = plugin.getConfigManager().getPlaytimeCompactIntervalMinutes() * 60L * 20L;
+        compactTask = Bukkit.getScheduler().runTaskTimer(plugin, journal::compact, compactTicks, compactTicks);
+
+        // オンライン中のプレイヤーの勤務時間を定期的にランキングへ反映
+        long refreshTicks = plugin.getConfigManager().getPlaytimeLeaderboardRefreshSeconds() * 20L;
+        leaderboardTask = Bukkit.getScheduler().runTaskTimer(plugin, this::refreshLeaderboard,
+                refreshTicks, refreshTicks);
+
+        // 日別の勤務時間を定期的にDBへ反映
+        long flushTicks = plugin.getConfigManager().getPlaytimeDailyFlushSeconds() * 20L;
+        dailyFlushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flushDaily, flushTicks, flushTicks);
         
         // リスナー登録
         Bukkit.getPluginManager().registerEvents(this, plugin);
         
         // 現在オンラインのプレイヤーのセッション開始
         for (Player player : Bukkit.getOnlinePlayers()) {
-            sessionStart.put(player.getUniqueId(), System.currentTimeMillis());
+            startSession(player.getUniqueId());
         }
     }
 
     @EventHandler
     public void onJoin(PlayerJoinEvent event) {
-        sessionStart.put(event.getPlayer().getUniqueId(), System.currentTimeMillis());
+        startSession(event.getPlayer().getUniqueId());
+    }
+
+    private void startSession(UUID playerId) {
+        long now = System.currentTimeMillis();
+        sessionStart.put(playerId, now);
+        if (daily.start(playerId, now)) {
+            // 本日このサーバーで初めての参加なら、DBの本日分を読み込む
+            long today = daily.toEpochDay(now);
+            plugin.getStorageManager().getPlaytimeBetweenAsync(playerId, today, today)
+                    .thenAccept(millis -> daily.addStoredToday(playerId, today, millis));
+        }
     }
 
     @EventHandler
     public void onQuit(PlayerQuitEvent event) {
         UUID playerId = event.getPlayer().getUniqueId();
         Long start = sessionStart.remove(playerId);
+        daily.stop(playerId, System.currentTimeMillis());
         if (start != null) {
             long sessionTime = System.currentTimeMillis() - start;
-            totalPlaytime.merge(playerId, sessionTime, Long::sum);
-            saveData();
+            long total = totalPlaytime.merge(playerId, sessionTime, Long::sum);
+            journal.append(playerId, sessionTime);
+            leaderboard.update(playerId, total);
         }
     }
 
+    /**
+     * オンライン中のプレイヤーの現在の累計をランキングに反映
+     */
+    private void refreshLeaderboard() {
+        for (UUID playerId : sessionStart.keySet()) {
+            leaderboard.update(playerId, getTotalPlaytime(playerId));
+        }
+    }
+
+    /**
+     * AFKになったプレイヤーのセッションを区切る (AFK中は勤務時間に数えない)
+     *
+     * @param idleSince 最後に活動した時刻
+     */
+    public void pauseSession(UUID playerId, long idleSince) {
+        Long start = sessionStart.remove(playerId);
+        if (start == null) {
+            return;
+        }
+        long end = Math.max(start, idleSince);
+        long total = totalPlaytime.merge(playerId, end - start, Long::sum);
+        journal.append(playerId, end - start);
+        leaderboard.update(playerId, total);
+        // 定期計上で最後の活動より後まで日別に数えていた分は差し引く
+        daily.stopAt(playerId, end, System.currentTimeMillis());
+    }
+
+    /**
+     * AFKから戻ったプレイヤーのセッションを再開
+     */
+    public void resumeSession(UUID playerId, long activeSince) {
+        if (sessionStart.putIfAbsent(playerId, activeSince) == null) {
+            daily.start(playerId, activeSince);
+        }
+    }
+
+    /**
+     * 日別の勤務時間をまとめてDBへ加算 (失敗した分は次回再送)
+     */
+    private CompletableFuture<Boolean> flushDaily() {
+        daily.accountAll(System.currentTimeMillis());
+        List<DailyPlaytime> entries = daily.drain();
+        return plugin.getStorageManager().addDailyPlaytimeAsync(entries).thenApply(success -> {
+            if (!success) {
+                daily.restore(entries);
+            }
+            return success;
+        });
+    }
+
     /**
      * 累計勤務時間を取得（ミリ秒）
      */
@@ -76,6 +168,13 @@ public class PlaytimeManager implements Listener {
         return total;
     }
 
+    /**
+     * 全プレイヤーの累計勤務時間 (現在のセッションは含まない、コピー)
+     */
+    public Map<UUID, Long> getAllTotals() {
+        return new HashMap<>(totalPlaytime);
+    }
+
     /**
      * フォーマットされた勤務時間を取得
      */
@@ -84,14 +183,45 @@ public class PlaytimeManager implements Listener {
     }
 
     /**
-     * 今日の勤務時間を取得（現在セッションのみ）
+     * 今日の勤務時間を取得（再接続前の分を含む）
      */
     public long getTodayPlaytime(UUID playerId) {
-        Long start = sessionStart.get(playerId);
-        if (start != null) {
-            return System.currentTimeMillis() - start;
-        }
-        return 0;
+        return daily.getToday(playerId, System.currentTimeMillis());
+    }
+
+    /**
+     * 期間内 (両端の日を含む) の勤務時間
+     * DBの日別集計に未反映の分を加えて返す
+     */
+    public CompletableFuture<Long> getPlaytimeBetween(UUID playerId, LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        return plugin.getStorageManager().getPlaytimeBetweenAsync(playerId, fromDay, toDay)
+                .thenApply(stored -> stored + daily.getUnsaved(playerId, fromDay, toDay, System.currentTimeMillis()));
+    }
+
+    /**
+     * 直近7日間 (今日を含む) の勤務時間
+     */
+    public CompletableFuture<Long> getWeekPlaytime(UUID playerId) {
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        return getPlaytimeBetween(playerId, today.minusDays(6), today);
+    }
+
+    /**
+     * 今月の勤務時間
+     */
+    public CompletableFuture<Long> getMonthPlaytime(UUID playerId) {
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        return getPlaytimeBetween(playerId, today.with(TemporalAdjusters.firstDayOfMonth()), today);
+    }
+
+    /**
+     * 期間内 (両端の日を含む) の勤務時間ランキング (DBに反映済みの分のみ)
+     */
+    public CompletableFuture<List<Map.Entry<UUID, Long>>> getTopPlaytimeBetween(LocalDate from, LocalDate to,
+                                                                                int limit) {
+        return plugin.getStorageManager().getTopPlaytimeBetweenAsync(from.toEpochDay(), to.toEpochDay(), limit);
     }
 
     /**
@@ -103,30 +233,30 @@ public class PlaytimeManager implements Listener {
 
     /**
      * 勤務時間ランキング取得
+     * オンライン中のプレイヤーの値は最大で playtime.leaderboard_refresh_seconds 秒前のもの
      */
     public List<Map.Entry<UUID, Long>> getTopPlaytime(int limit) {
-        Map<UUID, Long> current = new HashMap<>();
-        
-        // オフラインプレイヤーの累計
-        for (Map.Entry<UUID, Long> entry : totalPlaytime.entrySet()) {
-            current.put(entry.getKey(), getTotalPlaytime(entry.getKey()));
-        }
-        
-        // オンラインプレイヤーの累計（まだtotalPlaytimeにない場合）
-        for (UUID uuid : sessionStart.keySet()) {
-            current.putIfAbsent(uuid, getTotalPlaytime(uuid));
-        }
-        
-        List<Map.Entry<UUID, Long>> sorted = new ArrayList<>(current.entrySet());
-        sorted.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
-        
-        return sorted.subList(0, Math.min(limit, sorted.size()));
+        return leaderboard.top(limit);
+    }
+
+    /**
+     * 勤務時間ランキングの順位 (1位から、記録がない場合-1)
+     */
+    public int getPlaytimeRank(UUID playerId) {
+        return leaderboard.rank(playerId);
+    }
+
+    /**
+     * ランキングの登録人数
+     */
+    public int getRankedPlayerCount() {
+        return leaderboard.size();
     }
 
     /**
      * 時間をフォーマット
      */
-    private String formatTime(long millis) {
+    public String formatTime(long millis) {
         long seconds = millis / 1000;
         long minutes = seconds / 60;
         long hours = minutes / 60;
@@ -145,49 +275,35 @@ public class PlaytimeManager implements Listener {
      * シャットダウン時に全員のセッションを保存
      */
     public void saveAll() {
+        if (compactTask != null) {
+            compactTask.cancel();
+        }
+        if (leaderboardTask != null) {
+            leaderboardTask.cancel();
+        }
+        if (dailyFlushTask != null) {
+            dailyFlushTask.cancel();
+        }
         for (Map.Entry<UUID, Long> entry : sessionStart.entrySet()) {
             long sessionTime = System.currentTimeMillis() - entry.getValue();
             totalPlaytime.merge(entry.getKey(), sessionTime, Long::sum);
+            journal.append(entry.getKey(), sessionTime);
         }
         sessionStart.clear();
-        saveDataSync();
-    }
+        journal.close();
 
-    private void saveData() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, this::saveDataSync);
-    }
-
-    private void saveDataSync() {
+        // 日別の勤務時間 (ストレージ停止前に呼ばれる)
         try {
-            Map<String, Long> data = new HashMap<>();
-            for (Map.Entry<UUID, Long> entry : totalPlaytime.entrySet()) {
-                data.put(entry.getKey().toString(), entry.getValue());
-            }
-            
-            try (Writer writer = new FileWriter(dataFile)) {
-                gson.toJson(data, writer);
-            }
-        } catch (IOException e) {
-            plugin.getLogger().warning("勤務時間データ保存失敗: " + e.getMessage());
+            flushDaily().join();
+        } catch (Exception e) {
+            plugin.getLogger().warning("日別勤務時間の保存失敗: " + e.getMessage());
         }
     }
 
     private void loadData() {
-        if (!dataFile.exists()) {
-            return;
-        }
-        
-        try (Reader reader = new FileReader(dataFile)) {
-            java.lang.reflect.Type type = new com.google.gson.reflect.TypeToken<Map<String, Long>>(){}.getType();
-            Map<String, Long> data = gson.fromJson(reader, type);
-            if (data != null) {
-                for (Map.Entry<String, Long> entry : data.entrySet()) {
-                    try {
-                        UUID uuid = UUID.fromString(entry.getKey());
-                        totalPlaytime.put(uuid, entry.getValue());
-                    } catch (IllegalArgumentException ignored) {}
-                }
-            }
+        try {
+            totalPlaytime.putAll(journal.load());
+            totalPlaytime.forEach(leaderboard::update);
             plugin.getLogger().info("勤務時間データ読み込み完了");
         } catch (IOException e) {
             plugin.getLogger().warning("勤務時間データ読み込み失敗: " + e.getMessage());
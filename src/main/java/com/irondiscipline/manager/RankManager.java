@@ -9,10 +9,21 @@ import net.luckperms.api.node.types.MetaNode;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
 
 /**
  * 階級マネージャー
@@ -24,9 +35,16 @@ public class RankManager {
     private final LuckPerms luckPerms;
     private final String metaKey;
 
+    // ログイン前の先読みで待つ上限
+    private static final long PREFETCH_TIMEOUT_MILLIS = 3000L;
+
     // キャッシュ - 毎チャットでのAPI呼び出しを避ける
     private final Map<UUID, Rank> rankCache = new ConcurrentHashMap<>();
 
+    // LuckPermsの更新で無効化されたプレイヤー (次のtickでまとめて読み直す)
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
     public RankManager(IronDiscipline plugin, LuckPerms luckPerms) {
         this.plugin = plugin;
         this.luckPerms = luckPerms;
@@ -40,9 +58,47 @@ public class RankManager {
 
     /**
      * プレイヤーの現在階級を取得（キャッシュ優先）
+     * 通常は参加前に先読み済みのためキャッシュを読むだけで済む。
+     * 先読みがない場合もマップのロックを取ったままLuckPermsを参照しない
      */
     public Rank getRank(Player player) {
-        return rankCache.computeIfAbsent(player.getUniqueId(), uuid -> fetchRankFromLuckPerms(player));
+        Rank rank = rankCache.get(player.getUniqueId());
+        if (rank != null) {
+            return rank;
+        }
+        Rank fetched = fetchRankFromLuckPerms(player);
+        Rank existing = rankCache.putIfAbsent(player.getUniqueId(), fetched);
+        return existing != null ? existing : fetched;
+    }
+
+    /**
+     * ログイン前の階級の先読み (AsyncPlayerPreLoginEvent の非同期スレッドから呼ぶ)
+     * LuckPermsのユーザーが未読み込みの場合は読み込みを待つ
+     */
+    public void prefetch(UUID playerId) {
+        try {
+            User user = luckPerms.getUserManager().getUser(playerId);
+            if (user == null) {
+                user = luckPerms.getUserManager().loadUser(playerId)
+                        .get(PREFETCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            rankCache.put(playerId, Rank.fromId(user.getCachedData().getMetaData().getMetaValue(metaKey)));
+        } catch (TimeoutException e) {
+            plugin.getLogger().warning("階級の先読みがタイムアウトしました: " + playerId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            plugin.getLogger().warning("階級の先読み失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * ログインが拒否された場合に先読み結果を破棄
+     */
+    public void discardPrefetch(UUID playerId) {
+        if (Bukkit.getPlayer(playerId) == null) {
+            rankCache.remove(playerId);
+        }
     }
 
     /**
@@ -68,7 +124,7 @@ public class RankManager {
     private Rank fetchRankFromLuckPerms(Player player) {
         User user = luckPerms.getUserManager().getUser(player.getUniqueId());
         if (user == null) {
-            return Rank.PRIVATE;
+            return Rank.ladder().lowest();
         }
         String rankId = user.getCachedData().getMetaData().getMetaValue(metaKey);
         return Rank.fromId(rankId);
@@ -89,6 +145,7 @@ public class RankManager {
                         return;
 
                     TabNametagUtil.updatePlayer(player, newRank);
+                    plugin.getPTSManager().refreshOfficer(player);
 
                     // 本人に通知
                     player.sendMessage(plugin.getConfigManager().getMessage("rank_changed_self",
@@ -101,9 +158,10 @@ public class RankManager {
 
     /**
      * UUIDで階級設定
+     * LuckPermsへの保存が完了してから結果を返す
      */
     public CompletableFuture<Boolean> setRankByUUID(UUID playerId, Rank newRank) {
-        return luckPerms.getUserManager().loadUser(playerId).thenApply(user -> {
+        return luckPerms.getUserManager().loadUser(playerId).thenCompose(user -> {
             try {
                 // 既存のメタノードを削除
                 user.data().clear(node -> node instanceof MetaNode && ((MetaNode) node).getMetaKey().equals(metaKey));
@@ -111,21 +169,101 @@ public class RankManager {
                 // 新しいメタノードを追加
                 MetaNode node = MetaNode.builder(metaKey, newRank.getId()).build();
                 user.data().add(node);
-
-                // 保存
-                luckPerms.getUserManager().saveUser(user);
-
-                // キャッシュ更新
-                rankCache.put(playerId, newRank);
-
-                return true;
             } catch (Exception e) {
                 plugin.getLogger().warning("階級設定失敗: " + e.getMessage());
-                return false;
+                return CompletableFuture.completedFuture(false);
             }
+
+            // 保存
+            return luckPerms.getUserManager().saveUser(user).handle((ignored, error) -> {
+                if (error != null) {
+                    plugin.getLogger().warning("階級保存失敗: " + error.getMessage());
+                    return false;
+                }
+                // キャッシュ更新 (オフラインのプレイヤーはキャッシュに載せない)
+                rankCache.replace(playerId, newRank);
+                return true;
+            });
         });
     }
 
+    /**
+     * LuckPermsに保存されている階級を取得 (オフラインプレイヤーの一括処理用、キャッシュしない)
+     */
+    public CompletableFuture<Rank> loadStoredRank(UUID playerId) {
+        return luckPerms.getUserManager().loadUser(playerId)
+                .thenApply(user -> Rank.fromId(user.getCachedData().getMetaData().getMetaValue(metaKey)));
+    }
+
+    /**
+     * 複数プレイヤーの階級を一括で変更 (オフラインを含む)
+     * LuckPermsの読み込み・保存は同時実行数を制限して並行に進め、
+     * 完了後にキャッシュとオンラインのプレイヤーのTab/ネームタグをメインスレッドでまとめて更新する。
+     *
+     * @param change 現在の階級から新しい階級を求める (変更しない場合null)
+     */
+    public CompletableFuture<BatchResult> changeRanks(Collection<UUID> playerIds, UnaryOperator<Rank> change) {
+        BatchResult result = new BatchResult();
+        Map<UUID, Rank> changed = new ConcurrentHashMap<>();
+        Iterator<UUID> queue = new ArrayList<>(new LinkedHashSet<>(playerIds)).iterator();
+        int workers = Math.max(1, Math.min(plugin.getConfigManager().getRankBatchConcurrency(), playerIds.size()));
+        CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            running[i] = changeNext(queue, change, changed, result);
+        }
+
+        CompletableFuture<BatchResult> done = new CompletableFuture<>();
+        CompletableFuture.allOf(running).whenComplete((ignored, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            // キャッシュとTab/ネームタグを1回でまとめて反映
+            for (Map.Entry<UUID, Rank> entry : changed.entrySet()) {
+                Player player = Bukkit.getPlayer(entry.getKey());
+                if (player == null || !player.isOnline()) {
+                    rankCache.replace(entry.getKey(), entry.getValue());
+                    continue;
+                }
+                rankCache.put(entry.getKey(), entry.getValue());
+                TabNametagUtil.updatePlayer(player, entry.getValue());
+                plugin.getPTSManager().refreshOfficer(player);
+                player.sendMessage(plugin.getConfigManager().getMessage("rank_changed_self",
+                        "%rank%", entry.getValue().getDisplay()));
+            }
+            done.complete(result);
+        }));
+        return done;
+    }
+
+    /**
+     * 待ち行列から1人ずつ取り出して変更する (1つの実行枠)
+     */
+    private CompletableFuture<Void> changeNext(Iterator<UUID> queue, UnaryOperator<Rank> change,
+            Map<UUID, Rank> changed, BatchResult result) {
+        UUID playerId;
+        synchronized (queue) {
+            if (!queue.hasNext()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            playerId = queue.next();
+        }
+        return luckPerms.getUserManager().loadUser(playerId).thenCompose(user -> {
+            Rank current = Rank.fromId(user.getCachedData().getMetaData().getMetaValue(metaKey));
+            Rank target = change.apply(current);
+            if (target == null || target == current) {
+                result.skip();
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            user.data().clear(node -> node instanceof MetaNode && ((MetaNode) node).getMetaKey().equals(metaKey));
+            user.data().add(MetaNode.builder(metaKey, target.getId()).build());
+            return luckPerms.getUserManager().saveUser(user).thenRun(() -> {
+                changed.put(playerId, target);
+                result.succeed();
+            });
+        }).exceptionally(error -> {
+            plugin.getLogger().warning("一括階級変更失敗: " + playerId + " - " + error.getMessage());
+            result.fail(playerId);
+            return null;
+        }).thenCompose(ignored -> changeNext(queue, change, changed, result));
+    }
+
     /**
      * 昇進
      */
@@ -171,28 +309,79 @@ public class RankManager {
 
     /**
      * キャッシュを無効化
+     * 一括操作で大量に届いても、次のtickでまとめて1回だけ読み直す
      */
     public void invalidateCache(UUID playerId) {
-        rankCache.remove(playerId);
+        dirty.add(playerId);
+        if (flushScheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTask(plugin, this::flushInvalidations);
+        }
+    }
+
+    /**
+     * 無効化されたプレイヤーの階級を読み直す (メインスレッド)
+     * 階級が変わったプレイヤーのみTab/ネームタグを更新し、上官の索引は全員分を更新する
+     */
+    private void flushInvalidations() {
+        // 読み直し中に届いた無効化は次のtickで処理する
+        flushScheduled.set(false);
+        Iterator<UUID> it = dirty.iterator();
+        while (it.hasNext()) {
+            UUID playerId = it.next();
+            it.remove();
+
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline()) {
+                rankCache.remove(playerId);
+                continue;
+            }
+            Rank rank = fetchRankFromLuckPerms(player);
+            if (rankCache.put(playerId, rank) != rank) {
+                TabNametagUtil.updatePlayer(player, rank);
+            }
+            // 権限の変更でも上官かどうかが変わり得る
+            plugin.getPTSManager().refreshOfficer(player);
+        }
+    }
 
-        // オンラインならTab更新
-        Player player = Bukkit.getPlayer(playerId);
-        if (player != null && player.isOnline()) {
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                Rank rank = fetchRankFromLuckPerms(player);
-                rankCache.put(playerId, rank);
+    /**
+     * 階級ラダーの差し替え後に、キャッシュの階級を新しいラダーのものへ置き換える (メインスレッド)
+     */
+    public void reloadLadder() {
+        for (Map.Entry<UUID, Rank> entry : rankCache.entrySet()) {
+            Rank rank = Rank.fromId(entry.getValue().getId());
+            entry.setValue(rank);
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player != null && player.isOnline()) {
                 TabNametagUtil.updatePlayer(player, rank);
-            });
+            }
         }
     }
 
+    /**
+     * 一括階級変更の結果
+     */
+    public static class BatchResult {
+        private int succeeded;
+        private int skipped;
+        private final List<UUID> failed = new ArrayList<>();
+
+        private synchronized void succeed() { succeeded++; }
+        private synchronized void skip() { skipped++; }
+        private synchronized void fail(UUID playerId) { failed.add(playerId); }
+
+        public synchronized int getSucceeded() { return succeeded; }
+        public synchronized int getSkipped() { return skipped; }
+        public synchronized int getFailed() { return failed.size(); }
+        public synchronized List<UUID> getFailedPlayers() { return new ArrayList<>(failed); }
+    }
+
     /**
      * プレイヤー参加時のキャッシュ読み込み
      */
     public void loadPlayerCache(Player player) {
-        Rank rank = fetchRankFromLuckPerms(player);
-        rankCache.put(player.getUniqueId(), rank);
-        TabNametagUtil.updatePlayer(player, rank);
+        // 先読み済みならキャッシュを読むだけ
+        TabNametagUtil.updatePlayer(player, getRank(player));
     }
 
     /**
@@ -1,20 +1,39 @@
 package com.irondiscipline.manager;
 
 import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.model.DailyPlaytime;
+import com.irondiscipline.model.JailCell;
+import com.irondiscipline.model.JailRecord;
+import com.irondiscipline.model.JailSentence;
 import com.irondiscipline.model.KillLog;
+import com.irondiscipline.model.KillLogPage;
 import com.irondiscipline.manager.WarningManager.Warning;
+import com.irondiscipline.storage.ConnectionPool;
+import com.irondiscipline.storage.KillLogPartitions;
+import com.irondiscipline.storage.KillLogWriter;
+import com.irondiscipline.storage.StorageExecutor;
+import com.irondiscipline.util.InventoryUtil;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
@@ -24,22 +43,39 @@ import java.util.logging.Level;
 public class StorageManager {
 
     private final IronDiscipline plugin;
-    private Connection connection;
+    private ConnectionPool pool;
+    private KillLogWriter killLogWriter;
+    private KillLogPartitions partitions;
     private final String dbType;
 
-    // Caches for jailed player data to avoid blocking calls on read
-    private final Map<UUID, String> armorCache = new ConcurrentHashMap<>();
-    private final Map<UUID, String> inventoryCache = new ConcurrentHashMap<>();
-    private final Map<UUID, String> locationCache = new ConcurrentHashMap<>();
+    // 一括取得時のIN句1回あたりの件数
+    private static final int JAIL_BATCH_QUERY_SIZE = 500;
 
-    // Executor for DB operations to avoid blocking common ForkJoinPool
-    private final ExecutorService dbExecutor = Executors.newCachedThreadPool();
+    // Cache for jailed player data to avoid blocking calls on read
+    // (元座標・バックアップを1件の隔離記録としてまとめて保持)
+    private final Map<UUID, JailRecord> jailRecordCache = new ConcurrentHashMap<>();
+
+    // 読み込み/書き込みレーンを分けた上限付きのDB処理スレッド
+    private final StorageExecutor executor;
     // Track removal times to prevent stale cache population
     private final Map<UUID, Long> lastRemoveTime = new ConcurrentHashMap<>();
 
+    // 隔離中プレイヤーIDの索引 (起動時に一括読み込みし、保存/削除で更新)
+    // 読み込み済みの場合、隔離中かどうかの判定はDBに問い合わせない
+    private final Set<UUID> jailedIndex = ConcurrentHashMap.newKeySet();
+    // 刑期付きで隔離中のプレイヤー (索引と同時に読み込み、保存/削除で更新)
+    private final Map<UUID, JailSentence> jailSentences = new ConcurrentHashMap<>();
+    // 監房に割り当て済みの隔離中プレイヤー (同上)
+    private final Map<UUID, String> jailCellAssignments = new ConcurrentHashMap<>();
+    private volatile boolean jailedIndexLoaded;
+
     public StorageManager(IronDiscipline plugin) {
         this.plugin = plugin;
-        this.dbType = plugin.getConfigManager().getDatabaseType();
+        ConfigManager config = plugin.getConfigManager();
+        this.dbType = config.getDatabaseType();
+        this.executor = new StorageExecutor(plugin.getLogger(),
+                config.getExecutorReadThreads(), config.getExecutorReadQueueSize(),
+                config.getExecutorWriteThreads(), config.getExecutorWriteQueueSize());
         initializeDatabase();
     }
 
@@ -51,6 +87,9 @@ public class StorageManager {
                 initH2();
             }
             createTables();
+            loadJailedIndex();
+            initKillLogPartitions();
+            startKillLogWriter();
             plugin.getLogger().info("データベース接続成功: " + dbType.toUpperCase());
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "データベース接続失敗", e);
@@ -77,7 +116,7 @@ public class StorageManager {
 
         File dbFile = new File(plugin.getDataFolder(), "irondiscipline");
         String url = "jdbc:h2:" + dbFile.getAbsolutePath() + ";MODE=MySQL";
-        connection = DriverManager.getConnection(url, "sa", "");
+        pool = createPool(() -> DriverManager.getConnection(url, "sa", ""));
     }
 
     private void initMySQL() throws SQLException {
@@ -86,12 +125,31 @@ public class StorageManager {
                 config.getMySQLHost(),
                 config.getMySQLPort(),
                 config.getMySQLDatabase());
-        connection = DriverManager.getConnection(url, config.getMySQLUsername(), config.getMySQLPassword());
+        pool = createPool(() -> DriverManager.getConnection(url, config.getMySQLUsername(), config.getMySQLPassword()));
+    }
+
+    private ConnectionPool createPool(ConnectionPool.ConnectionFactory factory) throws SQLException {
+        ConfigManager config = plugin.getConfigManager();
+        ConnectionPool created = ConnectionPool.builder("IronDiscipline-DB", factory)
+                .logger(plugin.getLogger())
+                .maximumPoolSize(config.getPoolMaximumSize())
+                .minimumIdle(config.getPoolMinimumIdle())
+                .connectionTimeout(config.getPoolConnectionTimeout())
+                .idleTimeout(config.getPoolIdleTimeout())
+                .maxLifetime(config.getPoolMaxLifetime())
+                .build();
+        try {
+            created.fill();
+        } catch (SQLException e) {
+            created.close();
+            throw e;
+        }
+        return created;
     }
 
     private void createTables() throws SQLException {
         // Kill logs table
-        try (Statement stmt = connection.createStatement()) {
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
             stmt.execute("""
                         CREATE TABLE IF NOT EXISTS kill_logs (
                             id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -119,7 +177,12 @@ public class StorageManager {
                             jailed_by VARCHAR(36),
                             original_location TEXT,
                             inventory_backup LONGTEXT,
-                            armor_backup LONGTEXT
+                            armor_backup LONGTEXT,
+                            inventory_data LONGBLOB,
+                            armor_data LONGBLOB,
+                            sentence_millis BIGINT NOT NULL DEFAULT 0,
+                            served_millis BIGINT NOT NULL DEFAULT 0,
+                            cell_name VARCHAR(32)
                         )
                     """);
 
@@ -134,11 +197,70 @@ public class StorageManager {
             } catch (SQLException ignored) {
                 // Column likely already exists
             }
+            // Migration: 圧縮バイナリ形式のバックアップ列 (旧LONGTEXT列は読み込みのみ)
+            try {
+                stmt.execute("ALTER TABLE jailed_players ADD COLUMN inventory_data LONGBLOB");
+            } catch (SQLException ignored) {
+                // Column likely already exists
+            }
+            try {
+                stmt.execute("ALTER TABLE jailed_players ADD COLUMN armor_data LONGBLOB");
+            } catch (SQLException ignored) {
+                // Column likely already exists
+            }
+            // Migration: 刑期 (0 = 無期限) と服役済み時間
+            try {
+                stmt.execute("ALTER TABLE jailed_players ADD COLUMN sentence_millis BIGINT NOT NULL DEFAULT 0");
+            } catch (SQLException ignored) {
+                // Column likely already exists
+            }
+            try {
+                stmt.execute("ALTER TABLE jailed_players ADD COLUMN served_millis BIGINT NOT NULL DEFAULT 0");
+            } catch (SQLException ignored) {
+                // Column likely already exists
+            }
+            // Migration: 割り当てられた監房
+            try {
+                stmt.execute("ALTER TABLE jailed_players ADD COLUMN cell_name VARCHAR(32)");
+            } catch (SQLException ignored) {
+                // Column likely already exists
+            }
+
+            // Jail cells table (監房の範囲・戻し先・収容人数)
+            stmt.execute("""
+                        CREATE TABLE IF NOT EXISTS jail_cells (
+                            name VARCHAR(32) PRIMARY KEY,
+                            world VARCHAR(64) NOT NULL,
+                            min_x DOUBLE NOT NULL,
+                            min_y DOUBLE NOT NULL,
+                            min_z DOUBLE NOT NULL,
+                            max_x DOUBLE NOT NULL,
+                            max_y DOUBLE NOT NULL,
+                            max_z DOUBLE NOT NULL,
+                            spawn_x DOUBLE NOT NULL,
+                            spawn_y DOUBLE NOT NULL,
+                            spawn_z DOUBLE NOT NULL,
+                            spawn_yaw FLOAT NOT NULL DEFAULT 0,
+                            capacity INT NOT NULL DEFAULT 0
+                        )
+                    """);
 
             // Create indexes
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_kill_logs_timestamp ON kill_logs(timestamp)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_kill_logs_killer ON kill_logs(killer_id)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_kill_logs_victim ON kill_logs(victim_id)");
+            // プレイヤー別の履歴は (ID, timestamp) の複合インデックスで新しい順に読む
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_kill_logs_killer_ts ON kill_logs(killer_id, timestamp, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_kill_logs_victim_ts ON kill_logs(victim_id, timestamp, id)");
+
+            // Migration: 複合インデックスの先頭列と重複する旧インデックスを削除
+            for (String oldIndex : new String[] { "idx_kill_logs_killer", "idx_kill_logs_victim" }) {
+                try {
+                    stmt.execute("mysql".equalsIgnoreCase(dbType)
+                            ? "DROP INDEX " + oldIndex + " ON kill_logs"
+                            : "DROP INDEX IF EXISTS " + oldIndex);
+                } catch (SQLException ignored) {
+                    // Index likely already dropped
+                }
+            }
 
             // Warnings table
             stmt.execute("""
@@ -152,99 +274,237 @@ public class StorageManager {
                         )
                     """);
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_warnings_player_id ON warnings(player_id)");
+
+            // Daily playtime table (プレイヤー × 日付ごとの勤務時間、日付はエポック日)
+            stmt.execute("""
+                        CREATE TABLE IF NOT EXISTS playtime_daily (
+                            player_id VARCHAR(36) NOT NULL,
+                            epoch_day INT NOT NULL,
+                            millis BIGINT NOT NULL DEFAULT 0,
+                            PRIMARY KEY (player_id, epoch_day)
+                        )
+                    """);
+            // 期間内の全員の集計 (ランキング・活動レポート) 用
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_playtime_daily_day ON playtime_daily(epoch_day, player_id)");
         }
     }
 
+    private void startKillLogWriter() {
+        ConfigManager config = plugin.getConfigManager();
+        killLogWriter = new KillLogWriter(this::saveKillLogBatch, plugin.getLogger(),
+                config.getKillLogQueueCapacity(),
+                config.getKillLogBatchSize(),
+                config.getKillLogFlushInterval(),
+                KillLogWriter.OverflowPolicy.fromString(config.getKillLogOverflowPolicy()),
+                config.getKillLogBlockTimeout());
+    }
+
     /**
-     * 戦闘ログを非同期で保存
+     * 戦闘ログを書き込みキューに追加 (バッチでまとめて保存される)
+     *
+     * @return キューに入った場合true、満杯で破棄された場合false
      */
-    public CompletableFuture<Void> saveKillLogAsync(KillLog log) {
-        return CompletableFuture.runAsync(() -> {
+    public boolean queueKillLog(KillLog log) {
+        if (killLogWriter == null) {
+            plugin.getLogger().warning("戦闘ログ保存失敗: データベース未接続");
+            return false;
+        }
+        return killLogWriter.enqueue(log);
+    }
+
+    /**
+     * キュー内の戦闘ログが保存されるまで待機
+     */
+    public boolean flushKillLogs(long timeoutMillis) {
+        return killLogWriter == null || killLogWriter.flush(timeoutMillis);
+    }
+
+    private void initKillLogPartitions() throws SQLException {
+        String mode = plugin.getConfigManager().getKillLogPartitioning();
+        partitions = new KillLogPartitions(!"none".equalsIgnoreCase(mode));
+        try (Connection conn = pool.getConnection()) {
+            partitions.initialize(conn);
+        }
+    }
+
+    private void saveKillLogBatch(List<KillLog> batch) throws SQLException {
+        Map<String, List<KillLog>> byTable = new LinkedHashMap<>();
+        long firstId = -1;
+        if (partitions.isEnabled()) {
+            // 月別テーブルの作成とIDの確保は、書き込みのトランザクションより先に自動コミットで確定させる
+            try (Connection conn = pool.getConnection()) {
+                for (KillLog log : batch) {
+                    byTable.computeIfAbsent(partitions.tableFor(conn, log.getTimestamp()),
+                            k -> new ArrayList<>()).add(log);
+                }
+                firstId = partitions.reserveIds(conn, batch.size());
+            }
+        } else {
+            byTable.put(KillLogPartitions.LEGACY_TABLE, batch);
+        }
+
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
             try {
-                saveKillLog(log);
+                // 月別テーブルごとにまとめて保存
+                long nextId = firstId;
+                for (Map.Entry<String, List<KillLog>> entry : byTable.entrySet()) {
+                    nextId = insertKillLogs(conn, entry.getKey(), entry.getValue(), nextId);
+                }
+                conn.commit();
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "戦闘ログ保存失敗", e);
+                conn.rollback();
+                throw e;
             }
-        }, dbExecutor);
+        }
     }
 
-    private void saveKillLog(KillLog log) throws SQLException {
-        String sql = """
-                    INSERT INTO kill_logs (timestamp, killer_id, killer_name, victim_id, victim_name,
-                                           weapon, distance, world, x, y, z)
-                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setLong(1, log.getTimestamp());
-            ps.setString(2, log.getKillerId() != null ? log.getKillerId().toString() : null);
-            ps.setString(3, log.getKillerName());
-            ps.setString(4, log.getVictimId().toString());
-            ps.setString(5, log.getVictimName());
-            ps.setString(6, log.getWeapon());
-            ps.setDouble(7, log.getDistance());
-            ps.setString(8, log.getWorld());
-            ps.setDouble(9, log.getX());
-            ps.setDouble(10, log.getY());
-            ps.setDouble(11, log.getZ());
-            ps.executeUpdate();
+    /**
+     * @param firstId 割り当てるIDの先頭 (負の場合はテーブルの自動採番)
+     * @return 次に割り当てるID
+     */
+    private long insertKillLogs(Connection conn, String table, List<KillLog> logs, long firstId)
+            throws SQLException {
+        boolean assignIds = firstId >= 0;
+        long nextId = firstId;
+        String sql = "INSERT INTO " + table + " (" + (assignIds ? "id, " : "")
+                + "timestamp, killer_id, killer_name, victim_id, victim_name, weapon, distance, world, x, y, z) "
+                + "VALUES (" + (assignIds ? "?, " : "") + "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (KillLog log : logs) {
+                int index = 1;
+                if (assignIds) {
+                    ps.setLong(index++, nextId++);
+                }
+                ps.setLong(index++, log.getTimestamp());
+                ps.setString(index++, log.getKillerId() != null ? log.getKillerId().toString() : null);
+                ps.setString(index++, log.getKillerName());
+                ps.setString(index++, log.getVictimId().toString());
+                ps.setString(index++, log.getVictimName());
+                ps.setString(index++, log.getWeapon());
+                ps.setDouble(index++, log.getDistance());
+                ps.setString(index++, log.getWorld());
+                ps.setDouble(index++, log.getX());
+                ps.setDouble(index++, log.getY());
+                ps.setDouble(index, log.getZ());
+                ps.addBatch();
+            }
+            ps.executeBatch();
         }
+        return nextId;
     }
 
     /**
      * 戦闘ログを非同期で取得
      */
     public CompletableFuture<List<KillLog>> getKillLogsAsync(UUID playerId, int limit) {
-        return CompletableFuture.supplyAsync(() -> {
+        return getKillLogPageAsync(playerId, null, limit).thenApply(KillLogPage::getLogs);
+    }
+
+    /**
+     * 全戦闘ログを非同期で取得
+     */
+    public CompletableFuture<List<KillLog>> getAllKillLogsAsync(int limit) {
+        return getKillLogPageAsync(null, null, limit).thenApply(KillLogPage::getLogs);
+    }
+
+    /**
+     * 戦闘ログを1ページ分取得 (新しい順)
+     * (timestamp, id) の位置からシークするため、ページの深さに関係なく同じコストで取得できる
+     *
+     * @param playerId  対象プレイヤー (nullの場合は全ログ)
+     * @param pageToken 前ページの {@link KillLogPage#getNextToken()} (先頭ページはnull)
+     * @param pageSize  1ページの件数
+     */
+    public CompletableFuture<KillLogPage> getKillLogPageAsync(UUID playerId, String pageToken, int pageSize) {
+        KillLogPage.Cursor cursor;
+        try {
+            cursor = pageToken != null ? KillLogPage.decodeToken(pageToken) : null;
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        String operation = playerId != null ? "getKillLogPage" : "getAllKillLogPage";
+        return executor.read(operation, () -> {
             try {
-                return getKillLogs(playerId, limit);
+                return getKillLogPage(playerId, cursor, Math.max(1, pageSize));
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "戦闘ログ取得失敗", e);
-                return new ArrayList<>();
+                return new KillLogPage(new ArrayList<>(), null);
             }
-        }, dbExecutor);
+        });
     }
 
-    private List<KillLog> getKillLogs(UUID playerId, int limit) throws SQLException {
+    private KillLogPage getKillLogPage(UUID playerId, KillLogPage.Cursor cursor, int pageSize) throws SQLException {
+        // 次ページの有無を判定するため1件多く取得
+        int limit = pageSize + 1;
         List<KillLog> logs = new ArrayList<>();
-        String sql = """
-                    SELECT * FROM kill_logs
-                    WHERE killer_id = ? OR victim_id = ?
-                    ORDER BY timestamp DESC
-                    LIMIT ?
-                """;
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            String id = playerId.toString();
-            ps.setString(1, id);
-            ps.setString(2, id);
-            ps.setInt(3, limit);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    logs.add(parseKillLog(rs));
+        try (Connection conn = pool.getConnection()) {
+            // 月別テーブルを新しい順に読み、残りのテーブルが全て取得済みの件数より古ければ打ち切る
+            for (KillLogPartitions.Source source : partitions.sourcesNewestFirst()) {
+                if (cursor != null && source.getMinTimestamp() > cursor.getTimestamp()) {
+                    continue;
+                }
+                if (logs.size() >= limit && logs.get(limit - 1).getTimestamp() >= source.getMaxTimestamp()) {
+                    break;
                 }
+                logs = mergeNewestFirst(logs, queryKillLogTable(conn, source.getTable(), playerId, cursor, limit),
+                        limit);
             }
         }
-        return logs;
+
+        if (logs.size() > pageSize) {
+            logs = new ArrayList<>(logs.subList(0, pageSize));
+            return new KillLogPage(logs, KillLogPage.encodeToken(logs.get(pageSize - 1)));
+        }
+        return new KillLogPage(logs, null);
     }
 
     /**
-     * 全戦闘ログを非同期で取得
+     * 1テーブル分の戦闘ログを上位limit件取得
      */
-    public CompletableFuture<List<KillLog>> getAllKillLogsAsync(int limit) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return getAllKillLogs(limit);
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "戦闘ログ取得失敗", e);
-                return new ArrayList<>();
-            }
-        }, dbExecutor);
+    private List<KillLog> queryKillLogTable(Connection conn, String table, UUID playerId,
+            KillLogPage.Cursor cursor, int limit) throws SQLException {
+        if (playerId == null) {
+            return queryKillLogs(conn, table, null, null, cursor, limit);
+        }
+        // killer_id = ? OR victim_id = ? はインデックスが効かずフルスキャン/ソートになりやすいため、
+        // (killer_id, timestamp) と (victim_id, timestamp) をそれぞれ上位N件だけ読んでマージする
+        List<KillLog> asKiller = queryKillLogs(conn, table, "killer_id", playerId, cursor, limit);
+        List<KillLog> asVictim = queryKillLogs(conn, table, "victim_id", playerId, cursor, limit);
+        return mergeNewestFirst(asKiller, asVictim, limit);
     }
 
-    private List<KillLog> getAllKillLogs(int limit) throws SQLException {
+    /**
+     * 戦闘ログを (timestamp, id) の降順で取得
+     *
+     * @param column 絞り込み列 (killer_id / victim_id、nullの場合は全ログ)
+     */
+    private List<KillLog> queryKillLogs(Connection conn, String table, String column, UUID playerId,
+            KillLogPage.Cursor cursor, int limit) throws SQLException {
+        List<String> conditions = new ArrayList<>();
+        if (column != null) {
+            conditions.add(column + " = ?");
+        }
+        if (cursor != null) {
+            // (timestamp, id) < (?, ?) を timestamp の範囲条件として使える形に展開
+            conditions.add("timestamp <= ? AND (timestamp < ? OR id < ?)");
+        }
+        String where = conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions);
+        String sql = "SELECT * FROM " + table + " " + where + " ORDER BY timestamp DESC, id DESC LIMIT ?";
+
         List<KillLog> logs = new ArrayList<>();
-        String sql = "SELECT * FROM kill_logs ORDER BY timestamp DESC LIMIT ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setInt(1, limit);
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (column != null) {
+                ps.setString(index++, playerId.toString());
+            }
+            if (cursor != null) {
+                ps.setLong(index++, cursor.getTimestamp());
+                ps.setLong(index++, cursor.getTimestamp());
+                ps.setLong(index++, cursor.getId());
+            }
+            ps.setInt(index, limit);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     logs.add(parseKillLog(rs));
@@ -254,6 +514,41 @@ public class StorageManager {
         return logs;
     }
 
+    /**
+     * (timestamp, id) 降順に並んだ2つのリストを上位limit件までマージ
+     * 自殺など両方に含まれる行は1件にまとめる (IDは全テーブルを通して一意)
+     */
+    private static List<KillLog> mergeNewestFirst(List<KillLog> a, List<KillLog> b, int limit) {
+        List<KillLog> merged = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < a.size() || j < b.size())) {
+            KillLog next;
+            if (j >= b.size()) {
+                next = a.get(i++);
+            } else if (i >= a.size()) {
+                next = b.get(j++);
+            } else {
+                KillLog x = a.get(i);
+                KillLog y = b.get(j);
+                if (x.getId() == y.getId()) {
+                    next = x;
+                    i++;
+                    j++;
+                } else if (x.getTimestamp() > y.getTimestamp()
+                        || (x.getTimestamp() == y.getTimestamp() && x.getId() > y.getId())) {
+                    next = x;
+                    i++;
+                } else {
+                    next = y;
+                    j++;
+                }
+            }
+            merged.add(next);
+        }
+        return merged;
+    }
+
     private KillLog parseKillLog(ResultSet rs) throws SQLException {
         return KillLog.builder()
                 .id(rs.getLong("id"))
@@ -271,61 +566,162 @@ public class StorageManager {
     // ===== Jail Data =====
 
     /**
-     * 隔離データを保存
+     * 隔離データを保存 (インベントリバックアップ付き・無期限)
+     *
+     * @param inventoryBackup {@link com.irondiscipline.util.InventoryUtil#toBytes} 形式のバックアップ
      */
+    public CompletableFuture<Boolean> saveJailedPlayerAsync(UUID playerId, String playerName, String reason,
+            UUID jailedBy, String originalLocation,
+            byte[] inventoryBackup, byte[] armorBackup) {
+        return saveJailedPlayerAsync(playerId, playerName, reason, jailedBy, originalLocation,
+                inventoryBackup, armorBackup, 0);
+    }
+
     /**
-     * 隔離データを保存 (インベントリバックアップ付き)
+     * 隔離データを保存 (インベントリバックアップ・刑期付き)
+     * 服役済み時間は0から数え直す
+     *
+     * @param sentenceMillis 刑期 (0以下は無期限)
      */
     public CompletableFuture<Boolean> saveJailedPlayerAsync(UUID playerId, String playerName, String reason,
             UUID jailedBy, String originalLocation,
-            String inventoryBackup, String armorBackup) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String sql;
-                if ("mysql".equalsIgnoreCase(dbType)) {
-                    sql = """
-                            INSERT INTO jailed_players (player_id, player_name, reason, jailed_at, jailed_by, original_location, inventory_backup, armor_backup)
-                            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
-                            ON DUPLICATE KEY UPDATE
-                            player_name = VALUES(player_name),
-                            reason = VALUES(reason),
-                            jailed_at = VALUES(jailed_at),
-                            jailed_by = VALUES(jailed_by),
-                            original_location = VALUES(original_location),
-                            inventory_backup = VALUES(inventory_backup),
-                            armor_backup = VALUES(armor_backup)
-                        """;
-                } else {
-                    sql = """
-                            MERGE INTO jailed_players (player_id, player_name, reason, jailed_at, jailed_by, original_location, inventory_backup, armor_backup)
-                            KEY (player_id)
-                            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
-                        """;
-                }
-
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                    ps.setString(1, playerId.toString());
-                    ps.setString(2, playerName);
-                    ps.setString(3, reason);
-                    ps.setLong(4, System.currentTimeMillis());
-                    ps.setString(5, jailedBy != null ? jailedBy.toString() : null);
-                    ps.setString(6, originalLocation);
-                    ps.setString(7, inventoryBackup);
-                    ps.setString(8, armorBackup);
-                    ps.executeUpdate();
+            byte[] inventoryBackup, byte[] armorBackup, long sentenceMillis) {
+        return saveJailedPlayerAsync(playerId, playerName, reason, jailedBy, originalLocation,
+                inventoryBackup, armorBackup, sentenceMillis, null);
+    }
 
-                    // Update caches
-                    if (armorBackup != null) armorCache.put(playerId, armorBackup);
-                    if (inventoryBackup != null) inventoryCache.put(playerId, inventoryBackup);
-                    if (originalLocation != null) locationCache.put(playerId, originalLocation);
+    /**
+     * 隔離データを保存 (インベントリバックアップ・刑期・監房付き)
+     *
+     * @param cellName 割り当てた監房 (未割り当てはnull)
+     */
+    public CompletableFuture<Boolean> saveJailedPlayerAsync(UUID playerId, String playerName, String reason,
+            UUID jailedBy, String originalLocation,
+            byte[] inventoryBackup, byte[] armorBackup, long sentenceMillis, String cellName) {
+        long jailedAt = System.currentTimeMillis();
+        JailSentence sentence = sentenceMillis > 0 ? new JailSentence(jailedAt, sentenceMillis, 0) : null;
+        JailRecord record = new JailRecord(playerId, playerName, reason, jailedAt, jailedBy,
+                originalLocation, inventoryBackup, armorBackup, sentence, cellName);
+        return executor.supply(StorageExecutor.Lane.WRITE, "saveJailedPlayer", () -> {
+            try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(jailUpsertSql())) {
+                bindJailRecord(ps, record);
+                ps.executeUpdate();
+                cacheJailRecord(record);
+                return true;
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "隔離データ保存失敗", e);
+                return false;
+            }
+        });
+    }
 
-                    return true;
+    /**
+     * 複数の隔離データを1トランザクションでまとめて保存 (一括隔離用)
+     * 1件でも失敗した場合は全件ロールバックする
+     */
+    public CompletableFuture<Boolean> saveJailedPlayersAsync(List<JailRecord> records) {
+        if (records.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return executor.supply(StorageExecutor.Lane.WRITE, "saveJailedPlayersBatch", () -> {
+            try (Connection conn = pool.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement ps = conn.prepareStatement(jailUpsertSql())) {
+                    for (JailRecord record : records) {
+                        bindJailRecord(ps, record);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
                 }
+                records.forEach(this::cacheJailRecord);
+                return true;
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "隔離データ保存失敗", e);
+                plugin.getLogger().log(Level.WARNING, "隔離データの一括保存失敗 (" + records.size() + "件)", e);
                 return false;
             }
-        }, dbExecutor);
+        });
+    }
+
+    /**
+     * 隔離データの保存SQL (旧形式の列はNULLにして圧縮バイナリ列へ移行する)
+     */
+    private String jailUpsertSql() {
+        if ("mysql".equalsIgnoreCase(dbType)) {
+            return """
+                    INSERT INTO jailed_players (player_id, player_name, reason, jailed_at, jailed_by, original_location,
+                                                inventory_data, armor_data, inventory_backup, armor_backup,
+                                                sentence_millis, served_millis, cell_name)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, NULL, NULL, ?, 0, ?)
+                    ON DUPLICATE KEY UPDATE
+                    player_name = VALUES(player_name),
+                    reason = VALUES(reason),
+                    jailed_at = VALUES(jailed_at),
+                    jailed_by = VALUES(jailed_by),
+                    original_location = VALUES(original_location),
+                    inventory_data = VALUES(inventory_data),
+                    armor_data = VALUES(armor_data),
+                    inventory_backup = NULL,
+                    armor_backup = NULL,
+                    sentence_millis = VALUES(sentence_millis),
+                    served_millis = 0,
+                    cell_name = VALUES(cell_name)
+                    """;
+        }
+        return """
+                MERGE INTO jailed_players (player_id, player_name, reason, jailed_at, jailed_by, original_location,
+                                           inventory_data, armor_data, inventory_backup, armor_backup,
+                                           sentence_millis, served_millis, cell_name)
+                KEY (player_id)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, NULL, NULL, ?, 0, ?)
+                """;
+    }
+
+    private static void bindJailRecord(PreparedStatement ps, JailRecord record) throws SQLException {
+        ps.setString(1, record.getPlayerId().toString());
+        ps.setString(2, record.getPlayerName());
+        ps.setString(3, record.getReason());
+        ps.setLong(4, record.getJailedAt());
+        ps.setString(5, record.getJailedBy() != null ? record.getJailedBy().toString() : null);
+        ps.setString(6, record.getOriginalLocation());
+        ps.setBytes(7, record.getInventoryBackup());
+        ps.setBytes(8, record.getArmorBackup());
+        ps.setLong(9, record.getSentence() != null ? record.getSentence().getDurationMillis() : 0);
+        ps.setString(10, record.getCellName());
+    }
+
+    /**
+     * 保存した隔離データをキャッシュ・索引に反映
+     */
+    private void cacheJailRecord(JailRecord record) {
+        UUID playerId = record.getPlayerId();
+        jailRecordCache.put(playerId, record);
+        if (record.getCellName() != null) {
+            jailCellAssignments.put(playerId, record.getCellName());
+        } else {
+            jailCellAssignments.remove(playerId);
+        }
+        jailedIndex.add(playerId);
+        if (record.getSentence() != null) {
+            jailSentences.put(playerId, record.getSentence());
+        } else {
+            jailSentences.remove(playerId);
+        }
+    }
+
+    /**
+     * 隔離データを保存 (Base64文字列のバックアップ)
+     * @deprecated Use the byte[] version with InventoryUtil.toBytes instead
+     */
+    @Deprecated
+    public CompletableFuture<Boolean> saveJailedPlayerAsync(UUID playerId, String playerName, String reason,
+            UUID jailedBy, String originalLocation,
+            String inventoryBackup, String armorBackup) {
+        return saveJailedPlayerAsync(playerId, playerName, reason, jailedBy, originalLocation,
+                fromLegacyBackup(inventoryBackup), fromLegacyBackup(armorBackup));
     }
 
     /**
@@ -353,23 +749,142 @@ public class StorageManager {
     public CompletableFuture<Void> removeJailedPlayerAsync(UUID playerId) {
         // Mark removal time to prevent concurrent reads from populating stale cache
         lastRemoveTime.put(playerId, System.nanoTime());
+        // 釈放は呼び出した時点で索引に反映する
+        boolean wasIndexed = jailedIndex.remove(playerId);
+        JailSentence sentence = jailSentences.remove(playerId);
+        String cellName = jailCellAssignments.remove(playerId);
 
-        return CompletableFuture.runAsync(() -> {
+        return executor.write("removeJailedPlayer", () -> {
             try {
                 String sql = "DELETE FROM jailed_players WHERE player_id = ?";
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
                     ps.setString(1, playerId.toString());
                     ps.executeUpdate();
 
-                    // Clear caches
-                    armorCache.remove(playerId);
-                    inventoryCache.remove(playerId);
-                    locationCache.remove(playerId);
+                    // Clear cache
+                    jailRecordCache.remove(playerId);
                 }
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "隔離データ削除失敗", e);
+                // DBに残っているため索引も戻す
+                if (wasIndexed) {
+                    jailedIndex.add(playerId);
+                }
+                if (sentence != null) {
+                    jailSentences.put(playerId, sentence);
+                }
+                if (cellName != null) {
+                    jailCellAssignments.put(playerId, cellName);
+                }
+            }
+        });
+    }
+
+    /**
+     * 複数人の隔離データを1トランザクションでまとめて削除 (一括釈放用)
+     * 索引は呼び出した時点で反映し、失敗した場合は元に戻す
+     */
+    public CompletableFuture<Boolean> removeJailedPlayersAsync(Collection<UUID> playerIds) {
+        if (playerIds.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        List<UUID> ids = new ArrayList<>(playerIds);
+        long now = System.nanoTime();
+        Set<UUID> wasIndexed = new HashSet<>();
+        Map<UUID, JailSentence> sentences = new HashMap<>();
+        Map<UUID, String> cells = new HashMap<>();
+        for (UUID playerId : ids) {
+            lastRemoveTime.put(playerId, now);
+            if (jailedIndex.remove(playerId)) {
+                wasIndexed.add(playerId);
+            }
+            JailSentence sentence = jailSentences.remove(playerId);
+            if (sentence != null) {
+                sentences.put(playerId, sentence);
+            }
+            String cellName = jailCellAssignments.remove(playerId);
+            if (cellName != null) {
+                cells.put(playerId, cellName);
+            }
+        }
+
+        return executor.supply(StorageExecutor.Lane.WRITE, "removeJailedPlayersBatch", () -> {
+            try (Connection conn = pool.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement ps = conn.prepareStatement("DELETE FROM jailed_players WHERE player_id = ?")) {
+                    for (UUID playerId : ids) {
+                        ps.setString(1, playerId.toString());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+                ids.forEach(jailRecordCache::remove);
+                return true;
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "隔離データの一括削除失敗 (" + ids.size() + "件)", e);
+                // DBに残っているため索引も戻す
+                jailedIndex.addAll(wasIndexed);
+                jailSentences.putAll(sentences);
+                jailCellAssignments.putAll(cells);
+                return false;
             }
-        }, dbExecutor);
+        });
+    }
+
+    /**
+     * 服役済み時間を更新 (オンライン時間のみ刑期を数える場合、ログアウト時などに保存)
+     */
+    public CompletableFuture<Void> updateJailServedAsync(UUID playerId, long servedMillis) {
+        jailSentences.computeIfPresent(playerId, (id, s) -> s.withServed(servedMillis));
+        JailRecord cached = jailRecordCache.get(playerId);
+        if (cached != null && cached.getSentence() != null) {
+            jailRecordCache.put(playerId, new JailRecord(playerId, cached.getPlayerName(), cached.getReason(),
+                    cached.getJailedAt(), cached.getJailedBy(), cached.getOriginalLocation(),
+                    cached.getInventoryBackup(), cached.getArmorBackup(),
+                    cached.getSentence().withServed(servedMillis), cached.getCellName()));
+        }
+
+        return executor.write("updateJailServed", () -> {
+            try {
+                String sql = "UPDATE jailed_players SET served_millis = ? WHERE player_id = ?";
+                try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setLong(1, servedMillis);
+                    ps.setString(2, playerId.toString());
+                    ps.executeUpdate();
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "服役時間の保存失敗", e);
+            }
+        });
+    }
+
+    /**
+     * 割り当てた監房を更新
+     */
+    public CompletableFuture<Void> updateJailCellAsync(UUID playerId, String cellName) {
+        if (cellName != null) {
+            jailCellAssignments.put(playerId, cellName);
+        } else {
+            jailCellAssignments.remove(playerId);
+        }
+        jailRecordCache.remove(playerId);
+
+        return executor.write("updateJailCell", () -> {
+            try {
+                String sql = "UPDATE jailed_players SET cell_name = ? WHERE player_id = ?";
+                try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, cellName);
+                    ps.setString(2, playerId.toString());
+                    ps.executeUpdate();
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "監房の割り当て保存失敗", e);
+            }
+        });
     }
 
     /**
@@ -404,39 +919,145 @@ public class StorageManager {
      * 隔離プレイヤーの元座標を取得 (非同期)
      */
     public CompletableFuture<String> getOriginalLocationAsync(UUID playerId) {
-        if (locationCache.containsKey(playerId)) {
-            return CompletableFuture.completedFuture(locationCache.get(playerId));
+        return getJailRecordAsync(playerId).thenApply(r -> r != null ? r.getOriginalLocation() : null);
+    }
+
+    /**
+     * 隔離記録を取得 (非同期)
+     * 元座標・バックアップ・理由などを1回のクエリで取得し、まとめてキャッシュする
+     *
+     * @return 隔離記録 (隔離されていない場合null)
+     */
+    public CompletableFuture<JailRecord> getJailRecordAsync(UUID playerId) {
+        JailRecord cached = jailRecordCache.get(playerId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        // 索引にない = 隔離記録なし (DBに問い合わせない)
+        if (jailedIndexLoaded && !jailedIndex.contains(playerId)) {
+            return CompletableFuture.completedFuture(null);
         }
 
         long startTime = System.nanoTime();
-        return CompletableFuture.supplyAsync(() -> {
+        return executor.read("getJailRecord", () -> {
             try {
-                String sql = "SELECT original_location FROM jailed_players WHERE player_id = ?";
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                String sql = """
+                            SELECT player_name, reason, jailed_at, jailed_by, original_location,
+                                   inventory_data, inventory_backup, armor_data, armor_backup,
+                                   sentence_millis, served_millis, cell_name
+                            FROM jailed_players WHERE player_id = ?
+                        """;
+                try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
                     ps.setString(1, playerId.toString());
                     try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) {
-                            String loc = rs.getString("original_location");
-                            if (loc != null) {
+                        if (!rs.next()) {
+                            return null;
+                        }
+                        JailRecord record = readJailRecord(playerId, rs);
+
+                        Long removed = lastRemoveTime.get(playerId);
+                        if (removed == null || removed < startTime) {
+                            jailRecordCache.put(playerId, record);
+                        }
+                        return record;
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "隔離記録取得失敗", e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 複数人の隔離記録をまとめて取得 (一括釈放用)
+     * キャッシュにない分だけをIN句で問い合わせる
+     *
+     * @return プレイヤーID → 隔離記録 (隔離されていないプレイヤーは含まない)
+     */
+    public CompletableFuture<Map<UUID, JailRecord>> getJailRecordsAsync(Collection<UUID> playerIds) {
+        Map<UUID, JailRecord> found = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID playerId : playerIds) {
+            JailRecord cached = jailRecordCache.get(playerId);
+            if (cached != null) {
+                found.put(playerId, cached);
+            } else if (!jailedIndexLoaded || jailedIndex.contains(playerId)) {
+                missing.add(playerId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(found);
+        }
+
+        long startTime = System.nanoTime();
+        return executor.read("getJailRecords", () -> {
+            try (Connection conn = pool.getConnection()) {
+                for (int from = 0; from < missing.size(); from += JAIL_BATCH_QUERY_SIZE) {
+                    List<UUID> chunk = missing.subList(from, Math.min(from + JAIL_BATCH_QUERY_SIZE, missing.size()));
+                    String sql = """
+                                SELECT player_id, player_name, reason, jailed_at, jailed_by, original_location,
+                                       inventory_data, inventory_backup, armor_data, armor_backup,
+                                       sentence_millis, served_millis, cell_name
+                                FROM jailed_players WHERE player_id IN (%s)
+                            """.formatted(String.join(",", Collections.nCopies(chunk.size(), "?")));
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            ps.setString(i + 1, chunk.get(i).toString());
+                        }
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                UUID playerId = UUID.fromString(rs.getString("player_id"));
+                                JailRecord record = readJailRecord(playerId, rs);
                                 Long removed = lastRemoveTime.get(playerId);
                                 if (removed == null || removed < startTime) {
-                                    locationCache.put(playerId, loc);
+                                    jailRecordCache.put(playerId, record);
                                 }
+                                found.put(playerId, record);
                             }
-                            return loc;
                         }
                     }
                 }
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "元座標取得失敗", e);
+                plugin.getLogger().log(Level.WARNING, "隔離記録の一括取得失敗", e);
             }
-            return null;
-        }, dbExecutor);
+            return found;
+        });
+    }
+
+    private static JailRecord readJailRecord(UUID playerId, ResultSet rs) throws SQLException {
+        String jailedBy = rs.getString("jailed_by");
+        return new JailRecord(playerId,
+                rs.getString("player_name"),
+                rs.getString("reason"),
+                rs.getLong("jailed_at"),
+                jailedBy != null ? UUID.fromString(jailedBy) : null,
+                rs.getString("original_location"),
+                readBackup(rs, "inventory_data", "inventory_backup"),
+                readBackup(rs, "armor_data", "armor_backup"),
+                readSentence(rs),
+                rs.getString("cell_name"));
+    }
+
+    /**
+     * 刑期列を読み込む (無期限の場合null)
+     */
+    private static JailSentence readSentence(ResultSet rs) throws SQLException {
+        long sentence = rs.getLong("sentence_millis");
+        return sentence > 0 ? new JailSentence(rs.getLong("jailed_at"), sentence, rs.getLong("served_millis")) : null;
+    }
+
+    /**
+     * バックアップ列を読み込む (圧縮バイナリ列が空なら旧形式のBase64列)
+     */
+    private static byte[] readBackup(ResultSet rs, String dataColumn, String legacyColumn) throws SQLException {
+        byte[] backup = rs.getBytes(dataColumn);
+        return backup != null ? backup : fromLegacyBackup(rs.getString(legacyColumn));
     }
 
     /**
      * 隔離プレイヤーのインベントリバックアップを取得 (同期 - 非推奨)
-     * @deprecated Use getInventoryBackupAsync instead
+     * @deprecated Use getInventoryBackupDataAsync instead
      */
     @Deprecated
     public String getInventoryBackup(UUID playerId) {
@@ -444,42 +1065,25 @@ public class StorageManager {
     }
 
     /**
-     * 隔離プレイヤーのインベントリバックアップを取得 (非同期)
+     * 隔離プレイヤーのインベントリバックアップをBase64文字列で取得 (非同期)
+     * @deprecated Use getInventoryBackupDataAsync instead
      */
+    @Deprecated
     public CompletableFuture<String> getInventoryBackupAsync(UUID playerId) {
-        if (inventoryCache.containsKey(playerId)) {
-            return CompletableFuture.completedFuture(inventoryCache.get(playerId));
-        }
+        return getInventoryBackupDataAsync(playerId).thenApply(StorageManager::toLegacyBackup);
+    }
 
-        long startTime = System.nanoTime();
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String sql = "SELECT inventory_backup FROM jailed_players WHERE player_id = ?";
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                    ps.setString(1, playerId.toString());
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) {
-                            String backup = rs.getString("inventory_backup");
-                            if (backup != null) {
-                                Long removed = lastRemoveTime.get(playerId);
-                                if (removed == null || removed < startTime) {
-                                    inventoryCache.put(playerId, backup);
-                                }
-                            }
-                            return backup;
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "インベントリバックアップ取得失敗", e);
-            }
-            return null;
-        }, dbExecutor);
+    /**
+     * 隔離プレイヤーのインベントリバックアップを取得 (非同期)
+     * {@link com.irondiscipline.util.InventoryUtil#fromBytes} で復元できる形式で返す
+     */
+    public CompletableFuture<byte[]> getInventoryBackupDataAsync(UUID playerId) {
+        return getJailRecordAsync(playerId).thenApply(r -> r != null ? r.getInventoryBackup() : null);
     }
 
     /**
      * 隔離プレイヤーの装備バックアップを取得 (同期 - 非推奨)
-     * @deprecated Use getArmorBackupAsync instead
+     * @deprecated Use getArmorBackupDataAsync instead
      */
     @Deprecated
     public String getArmorBackup(UUID playerId) {
@@ -487,37 +1091,41 @@ public class StorageManager {
     }
 
     /**
-     * 隔離プレイヤーの装備バックアップを取得 (非同期)
+     * 隔離プレイヤーの装備バックアップをBase64文字列で取得 (非同期)
+     * @deprecated Use getArmorBackupDataAsync instead
      */
+    @Deprecated
     public CompletableFuture<String> getArmorBackupAsync(UUID playerId) {
-        if (armorCache.containsKey(playerId)) {
-            return CompletableFuture.completedFuture(armorCache.get(playerId));
-        }
+        return getArmorBackupDataAsync(playerId).thenApply(StorageManager::toLegacyBackup);
+    }
 
-        long startTime = System.nanoTime();
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String sql = "SELECT armor_backup FROM jailed_players WHERE player_id = ?";
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                    ps.setString(1, playerId.toString());
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) {
-                            String backup = rs.getString("armor_backup");
-                            if (backup != null) {
-                                Long removed = lastRemoveTime.get(playerId);
-                                if (removed == null || removed < startTime) {
-                                    armorCache.put(playerId, backup);
-                                }
-                            }
-                            return backup;
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "装備バックアップ取得失敗", e);
-            }
+    /**
+     * 隔離プレイヤーの装備バックアップを取得 (非同期)
+     */
+    public CompletableFuture<byte[]> getArmorBackupDataAsync(UUID playerId) {
+        return getJailRecordAsync(playerId).thenApply(r -> r != null ? r.getArmorBackup() : null);
+    }
+
+    /**
+     * 旧形式のBase64文字列をバックアップデータとして扱う (InventoryUtil.fromBytesで復元可能)
+     */
+    private static byte[] fromLegacyBackup(String backup) {
+        return backup != null ? backup.getBytes(StandardCharsets.US_ASCII) : null;
+    }
+
+    /**
+     * バックアップデータを旧形式のBase64文字列に変換 (InventoryUtil.fromBase64で復元可能)
+     * 圧縮バイナリ形式は一度ItemStack配列に戻してから旧形式で書き直す
+     */
+    private static String toLegacyBackup(byte[] backup) {
+        if (backup == null) {
             return null;
-        }, dbExecutor);
+        }
+        if (!InventoryUtil.isBinaryFormat(backup)) {
+            return new String(backup, StandardCharsets.US_ASCII);
+        }
+        ItemStack[] items = InventoryUtil.fromBytes(backup);
+        return items != null ? InventoryUtil.toBase64(items) : null;
     }
 
     /**
@@ -531,31 +1139,304 @@ public class StorageManager {
 
     /**
      * 隔離中かどうか確認 (非同期)
+     * 索引の読み込み後はメモリ上で判定し、完了済みのFutureを返す
      */
     public CompletableFuture<Boolean> isJailedAsync(UUID playerId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String sql = "SELECT 1 FROM jailed_players WHERE player_id = ?";
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                    ps.setString(1, playerId.toString());
-                    try (ResultSet rs = ps.executeQuery()) {
-                        return rs.next();
+        if (jailedIndexLoaded) {
+            return CompletableFuture.completedFuture(jailedIndex.contains(playerId));
+        }
+        return getJailRecordAsync(playerId).thenApply(r -> r != null);
+    }
+
+    /**
+     * 隔離中プレイヤーIDの索引を一括読み込み (起動時)
+     * バックアップ列は読まず、IDと刑期のみを1回のクエリで順に読み込む
+     */
+    private void loadJailedIndex() throws SQLException {
+        long start = System.nanoTime();
+        jailedIndex.clear();
+        jailSentences.clear();
+        jailCellAssignments.clear();
+        try (Connection conn = pool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT player_id, jailed_at, sentence_millis, served_millis, cell_name FROM jailed_players")) {
+            ps.setFetchSize(500);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    try {
+                        UUID playerId = UUID.fromString(rs.getString(1));
+                        jailedIndex.add(playerId);
+                        JailSentence sentence = readSentence(rs);
+                        if (sentence != null) {
+                            jailSentences.put(playerId, sentence);
+                        }
+                        String cellName = rs.getString("cell_name");
+                        if (cellName != null) {
+                            jailCellAssignments.put(playerId, cellName);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("不正な隔離データのIDを無視しました: " + rs.getString(1));
+                    }
+                }
+            }
+        }
+        jailedIndexLoaded = true;
+        plugin.getLogger().info("隔離中プレイヤーを読み込みました: " + jailedIndex.size() + "人 ("
+                + (System.nanoTime() - start) / 1_000_000 + "ms)");
+    }
+
+    /**
+     * 隔離中かどうかの索引が読み込み済みか
+     * (DB接続失敗などで未読み込みの場合、判定はDBに問い合わせる)
+     */
+    public boolean isJailedIndexLoaded() {
+        return jailedIndexLoaded;
+    }
+
+    /**
+     * 隔離中プレイヤーIDの一覧 (読み取り専用)
+     */
+    public Set<UUID> getJailedPlayerIds() {
+        return Collections.unmodifiableSet(jailedIndex);
+    }
+
+    /**
+     * 刑期付きで隔離中のプレイヤーと刑期 (読み取り専用)
+     */
+    public Map<UUID, JailSentence> getJailSentences() {
+        return Collections.unmodifiableMap(jailSentences);
+    }
+
+    /**
+     * 監房に割り当て済みの隔離中プレイヤーと監房名 (読み取り専用)
+     */
+    public Map<UUID, String> getJailCellAssignments() {
+        return Collections.unmodifiableMap(jailCellAssignments);
+    }
+
+    // ===== Jail Cells =====
+
+    /**
+     * 監房を全件取得 (ワールドが読み込まれていない監房は除外)
+     */
+    public CompletableFuture<List<JailCell>> getJailCellsAsync() {
+        return executor.read("getJailCells", () -> {
+            List<JailCell> cells = new ArrayList<>();
+            String sql = "SELECT * FROM jail_cells ORDER BY name";
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString("name");
+                    World world = plugin.getServer().getWorld(rs.getString("world"));
+                    if (world == null) {
+                        plugin.getLogger().warning("監房のワールドが見つからないため無視しました: " + name);
+                        continue;
                     }
+                    Location spawn = new Location(world,
+                            rs.getDouble("spawn_x"), rs.getDouble("spawn_y"), rs.getDouble("spawn_z"),
+                            rs.getFloat("spawn_yaw"), 0);
+                    cells.add(JailCell.bounds(name, world,
+                            rs.getDouble("min_x"), rs.getDouble("min_y"), rs.getDouble("min_z"),
+                            rs.getDouble("max_x"), rs.getDouble("max_y"), rs.getDouble("max_z"),
+                            spawn, rs.getInt("capacity")));
                 }
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "隔離確認失敗", e);
+                plugin.getLogger().log(Level.WARNING, "監房の読み込み失敗", e);
             }
-            return false;
-        }, dbExecutor);
+            return cells;
+        });
+    }
+
+    /**
+     * 監房を保存 (同名の監房は上書き)
+     */
+    public CompletableFuture<Boolean> saveJailCellAsync(JailCell cell) {
+        return executor.supply(StorageExecutor.Lane.WRITE, "saveJailCell", () -> {
+            String sql;
+            if ("mysql".equalsIgnoreCase(dbType)) {
+                sql = """
+                        REPLACE INTO jail_cells (name, world, min_x, min_y, min_z, max_x, max_y, max_z,
+                                                 spawn_x, spawn_y, spawn_z, spawn_yaw, capacity)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """;
+            } else {
+                sql = """
+                        MERGE INTO jail_cells (name, world, min_x, min_y, min_z, max_x, max_y, max_z,
+                                               spawn_x, spawn_y, spawn_z, spawn_yaw, capacity)
+                        KEY (name)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """;
+            }
+            Location spawn = cell.getSpawn();
+            try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, cell.getName());
+                ps.setString(2, cell.getWorld().getName());
+                ps.setDouble(3, cell.getMinX());
+                ps.setDouble(4, cell.getMinY());
+                ps.setDouble(5, cell.getMinZ());
+                ps.setDouble(6, cell.getMaxX());
+                ps.setDouble(7, cell.getMaxY());
+                ps.setDouble(8, cell.getMaxZ());
+                ps.setDouble(9, spawn.getX());
+                ps.setDouble(10, spawn.getY());
+                ps.setDouble(11, spawn.getZ());
+                ps.setFloat(12, spawn.getYaw());
+                ps.setInt(13, cell.getCapacity());
+                ps.executeUpdate();
+                return true;
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "監房の保存失敗", e);
+                return false;
+            }
+        });
+    }
+
+    /**
+     * 監房を削除
+     */
+    public CompletableFuture<Boolean> deleteJailCellAsync(String name) {
+        return executor.supply(StorageExecutor.Lane.WRITE, "deleteJailCell", () -> {
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement ps = conn.prepareStatement("DELETE FROM jail_cells WHERE name = ?")) {
+                ps.setString(1, name);
+                return ps.executeUpdate() > 0;
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "監房の削除失敗", e);
+                return false;
+            }
+        });
+    }
+
+    // ===== Daily Playtime =====
+
+    /**
+     * 日別の勤務時間を1トランザクションでまとめて加算
+     * 失敗した場合は呼び出し元で保持し直して再送する
+     */
+    public CompletableFuture<Boolean> addDailyPlaytimeAsync(List<DailyPlaytime> entries) {
+        if (entries.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return executor.supply(StorageExecutor.Lane.WRITE, "addDailyPlaytime", () -> {
+            String sql;
+            if ("mysql".equalsIgnoreCase(dbType)) {
+                sql = """
+                        INSERT INTO playtime_daily (player_id, epoch_day, millis) VALUES (?, ?, ?)
+                        ON DUPLICATE KEY UPDATE millis = millis + VALUES(millis)
+                        """;
+            } else {
+                sql = """
+                        MERGE INTO playtime_daily t
+                        USING (VALUES (CAST(? AS VARCHAR(36)), CAST(? AS INT), CAST(? AS BIGINT))) s(player_id, epoch_day, millis)
+                        ON t.player_id = s.player_id AND t.epoch_day = s.epoch_day
+                        WHEN MATCHED THEN UPDATE SET t.millis = t.millis + s.millis
+                        WHEN NOT MATCHED THEN INSERT (player_id, epoch_day, millis) VALUES (s.player_id, s.epoch_day, s.millis)
+                        """;
+            }
+            try (Connection conn = pool.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (DailyPlaytime entry : entries) {
+                        ps.setString(1, entry.getPlayerId().toString());
+                        ps.setInt(2, (int) entry.getEpochDay());
+                        ps.setLong(3, entry.getMillis());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+                return true;
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "日別勤務時間の保存失敗 (" + entries.size() + "件)", e);
+                return false;
+            }
+        });
+    }
+
+    /**
+     * 期間内 (両端の日を含む) の勤務時間の合計
+     */
+    public CompletableFuture<Long> getPlaytimeBetweenAsync(UUID playerId, long fromDay, long toDay) {
+        return executor.read("getPlaytimeBetween", () -> {
+            String sql = "SELECT COALESCE(SUM(millis), 0) FROM playtime_daily "
+                    + "WHERE player_id = ? AND epoch_day BETWEEN ? AND ?";
+            try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, playerId.toString());
+                ps.setInt(2, (int) fromDay);
+                ps.setInt(3, (int) toDay);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "勤務時間の期間集計失敗", e);
+                return 0L;
+            }
+        });
+    }
+
+    /**
+     * 期間内 (両端の日を含む) の日ごとの勤務時間 (エポック日 → ミリ秒、記録のない日は含まない)
+     */
+    public CompletableFuture<Map<Long, Long>> getDailyPlaytimeAsync(UUID playerId, long fromDay, long toDay) {
+        return executor.read("getDailyPlaytime", () -> {
+            Map<Long, Long> days = new LinkedHashMap<>();
+            String sql = "SELECT epoch_day, millis FROM playtime_daily "
+                    + "WHERE player_id = ? AND epoch_day BETWEEN ? AND ? ORDER BY epoch_day";
+            try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, playerId.toString());
+                ps.setInt(2, (int) fromDay);
+                ps.setInt(3, (int) toDay);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        days.put((long) rs.getInt("epoch_day"), rs.getLong("millis"));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "日別勤務時間の取得失敗", e);
+            }
+            return days;
+        });
+    }
+
+    /**
+     * 期間内 (両端の日を含む) の勤務時間の上位 (勤務時間の多い順)
+     */
+    public CompletableFuture<List<Map.Entry<UUID, Long>>> getTopPlaytimeBetweenAsync(long fromDay, long toDay,
+                                                                                     int limit) {
+        return executor.read("getTopPlaytimeBetween", () -> {
+            List<Map.Entry<UUID, Long>> top = new ArrayList<>();
+            String sql = """
+                        SELECT player_id, SUM(millis) AS total FROM playtime_daily
+                        WHERE epoch_day BETWEEN ? AND ?
+                        GROUP BY player_id ORDER BY total DESC, player_id LIMIT ?
+                    """;
+            try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, (int) fromDay);
+                ps.setInt(2, (int) toDay);
+                ps.setInt(3, limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        top.add(Map.entry(UUID.fromString(rs.getString("player_id")), rs.getLong("total")));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "勤務時間の期間ランキング取得失敗", e);
+            }
+            return top;
+        });
     }
 
     // ===== Warnings Data =====
 
     public CompletableFuture<Void> addWarningAsync(UUID playerId, String playerName, String reason, String warnedBy, long timestamp) {
-        return CompletableFuture.runAsync(() -> {
+        return executor.write("addWarning", () -> {
             try {
                 String sql = "INSERT INTO warnings (player_id, player_name, reason, warned_by, timestamp) VALUES (?, ?, ?, ?, ?)";
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
                     ps.setString(1, playerId.toString());
                     ps.setString(2, playerName);
                     ps.setString(3, reason);
@@ -570,11 +1451,11 @@ public class StorageManager {
     }
 
     public CompletableFuture<List<Warning>> getWarningsAsync(UUID playerId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return executor.read("getWarnings", () -> {
             List<Warning> warnings = new ArrayList<>();
             try {
                 String sql = "SELECT * FROM warnings WHERE player_id = ? ORDER BY timestamp ASC";
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
                     ps.setString(1, playerId.toString());
                     try (ResultSet rs = ps.executeQuery()) {
                         while (rs.next()) {
@@ -590,86 +1471,143 @@ public class StorageManager {
                 plugin.getLogger().log(Level.WARNING, "警告データ取得失敗", e);
             }
             return warnings;
-        }, dbExecutor);
+        });
     }
 
     public CompletableFuture<Void> clearWarningsAsync(UUID playerId) {
-        return CompletableFuture.runAsync(() -> {
+        return executor.write("clearWarnings", () -> {
             try {
                 String sql = "DELETE FROM warnings WHERE player_id = ?";
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
                     ps.setString(1, playerId.toString());
                     ps.executeUpdate();
                 }
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "警告クリア失敗", e);
             }
-        }, dbExecutor);
+        });
     }
 
     public CompletableFuture<Void> removeLastWarningAsync(UUID playerId) {
-        return CompletableFuture.runAsync(() -> {
+        return executor.write("removeLastWarning", () -> {
             try {
                 String selectSql = "SELECT id FROM warnings WHERE player_id = ? ORDER BY timestamp DESC LIMIT 1";
                 long idToDelete = -1;
 
-                try (PreparedStatement ps = connection.prepareStatement(selectSql)) {
-                    ps.setString(1, playerId.toString());
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) {
-                            idToDelete = rs.getLong("id");
+                try (Connection conn = pool.getConnection()) {
+                    try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
+                        ps.setString(1, playerId.toString());
+                        try (ResultSet rs = ps.executeQuery()) {
+                            if (rs.next()) {
+                                idToDelete = rs.getLong("id");
+                            }
                         }
                     }
-                }
 
-                if (idToDelete != -1) {
-                    String deleteSql = "DELETE FROM warnings WHERE id = ?";
-                    try (PreparedStatement ps = connection.prepareStatement(deleteSql)) {
-                        ps.setLong(1, idToDelete);
-                        ps.executeUpdate();
+                    if (idToDelete != -1) {
+                        String deleteSql = "DELETE FROM warnings WHERE id = ?";
+                        try (PreparedStatement ps = conn.prepareStatement(deleteSql)) {
+                            ps.setLong(1, idToDelete);
+                            ps.executeUpdate();
+                        }
                     }
                 }
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "最新警告削除失敗", e);
             }
-        }, dbExecutor);
+        });
     }
 
     /**
      * 古いログを削除
+     * 保存期間を全て過ぎた月別テーブルはDROPし、旧テーブルは一定件数ずつ間隔を空けて削除する
+     * (月別テーブルは月単位で削除されるため、最大で1か月分長く保持される)
      */
     public void cleanupOldLogs() {
         int days = plugin.getConfigManager().getKillLogRetentionDays();
         long cutoff = System.currentTimeMillis() - (days * 24L * 60 * 60 * 1000);
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                String sql = "DELETE FROM kill_logs WHERE timestamp < ?";
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                    ps.setLong(1, cutoff);
-                    int deleted = ps.executeUpdate();
-                    if (deleted > 0) {
-                        plugin.getLogger().info("古い戦闘ログを削除: " + deleted + "件");
-                    }
+        executor.write("cleanupOldLogs", () -> {
+            try (Connection conn = pool.getConnection()) {
+                for (KillLogPartitions.Source partition : partitions.expiredPartitions(cutoff)) {
+                    partitions.drop(conn, partition);
+                    plugin.getLogger().info("古い戦闘ログを削除: " + partition.getTable());
                 }
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "古いログ削除失敗", e);
             }
+            deleteOldLogsChunk(cutoff, 0);
         });
     }
 
+    /**
+     * 旧テーブルの古いログを1チャンク削除し、残っていれば間隔を空けて次のチャンクを予約
+     * (1回のDELETEで大量に削除するとロックが長時間続き、戦闘ログの保存が止まるため)
+     */
+    private void deleteOldLogsChunk(long cutoff, int deletedSoFar) {
+        ConfigManager config = plugin.getConfigManager();
+        int chunkSize = config.getKillLogCleanupChunkSize() > 0 ? config.getKillLogCleanupChunkSize() : 5000;
+        long pause = Math.max(0, config.getKillLogCleanupChunkPause());
+
+        int deleted;
+        String sql = "DELETE FROM " + KillLogPartitions.LEGACY_TABLE + " WHERE timestamp < ? LIMIT ?";
+        try (Connection conn = pool.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, cutoff);
+            ps.setInt(2, chunkSize);
+            deleted = ps.executeUpdate();
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "古いログ削除失敗", e);
+            return;
+        }
+
+        int total = deletedSoFar + deleted;
+        if (deleted >= chunkSize) {
+            CompletableFuture.delayedExecutor(pause, TimeUnit.MILLISECONDS).execute(() ->
+                    executor.write("cleanupOldLogsChunk", () -> deleteOldLogsChunk(cutoff, total)));
+        } else if (total > 0) {
+            plugin.getLogger().info("古い戦闘ログを削除: " + total + "件");
+        }
+    }
+
     /**
      * シャットダウン処理
      */
     public void shutdown() {
-        if (connection != null) {
-            try {
-                connection.close();
-                plugin.getLogger().info("データベース接続を閉じました");
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "データベース切断失敗", e);
-            }
+        if (killLogWriter != null) {
+            killLogWriter.shutdown(5000);
+        }
+        executor.shutdown(5000);
+        if (pool != null) {
+            pool.close();
+            plugin.getLogger().info("データベース接続を閉じました");
         }
-        dbExecutor.shutdown();
+    }
+
+    /**
+     * コネクションプールを取得 (メトリクス表示用)
+     */
+    public ConnectionPool getConnectionPool() {
+        return pool;
+    }
+
+    /**
+     * 戦闘ログの月別テーブル管理を取得 (メトリクス表示用)
+     */
+    public KillLogPartitions getKillLogPartitions() {
+        return partitions;
+    }
+
+    /**
+     * DB処理スレッドを取得 (メトリクス表示用)
+     */
+    public StorageExecutor getStorageExecutor() {
+        return executor;
+    }
+
+    /**
+     * 戦闘ログ書き込みキューを取得 (メトリクス表示用)
+     */
+    public KillLogWriter getKillLogWriter() {
+        return killLogWriter;
     }
 }
@@ -0,0 +1,24 @@
+package com.irondiscipline.model;
+
+import java.util.UUID;
+
+/**
+ * 1日分の勤務時間の加算 (プレイヤー × 日付)
+ * 日付はサーバーのタイムゾーンでのエポック日 ({@link java.time.LocalDate#toEpochDay()})
+ */
+public class DailyPlaytime {
+
+    private final UUID playerId;
+    private final long epochDay;
+    private final long millis;
+
+    public DailyPlaytime(UUID playerId, long epochDay, long millis) {
+        this.playerId = playerId;
+        this.epochDay = epochDay;
+        this.millis = millis;
+    }
+
+    public UUID getPlayerId() { return playerId; }
+    public long getEpochDay() { return epochDay; }
+    public long getMillis() { return millis; }
+}
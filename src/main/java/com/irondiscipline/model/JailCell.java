@@ -0,0 +1,148 @@
+package com.irondiscipline.model;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.UUID;
+
+/**
+ * 監房 (隔離区域の1区画)
+ * 範囲は軸に沿った直方体で持ち、半径指定の場合はさらに距離の2乗で判定する。
+ * ワールド参照と範囲は生成時に確定させ、移動判定ごとの計算を比較のみにする。
+ */
+public class JailCell {
+
+    /**
+     * 隔離場所 (jail.location) の区画名 (監房名としては使えない)
+     */
+    public static final String DEFAULT_NAME = "default";
+
+    private final String name;
+    private final World world;
+    private final UUID worldId;
+    private final double minX, minY, minZ;
+    private final double maxX, maxY, maxZ;
+    private final double spawnX, spawnY, spawnZ;
+    private final Location spawn;
+    // 0の場合は直方体のみで判定
+    private final double radiusSquared;
+    // 収容人数の上限 (0 = 無制限)
+    private final int capacity;
+
+    private JailCell(String name, World world, double minX, double minY, double minZ,
+                     double maxX, double maxY, double maxZ, Location spawn, double radiusSquared,
+                     int capacity) {
+        this.name = name;
+        this.world = world;
+        this.worldId = world.getUID();
+        this.minX = Math.min(minX, maxX);
+        this.minY = Math.min(minY, maxY);
+        this.minZ = Math.min(minZ, maxZ);
+        this.maxX = Math.max(minX, maxX);
+        this.maxY = Math.max(minY, maxY);
+        this.maxZ = Math.max(minZ, maxZ);
+        this.spawn = spawn.clone();
+        this.spawnX = spawn.getX();
+        this.spawnY = spawn.getY();
+        this.spawnZ = spawn.getZ();
+        this.radiusSquared = radiusSquared;
+        this.capacity = Math.max(0, capacity);
+    }
+
+    /**
+     * 中心から半径以内を範囲とする監房 (中心が戻し先)
+     */
+    public static JailCell around(String name, Location center, double radius) {
+        double r = Math.max(0, radius);
+        return new JailCell(name, center.getWorld(),
+                center.getX() - r, center.getY() - r, center.getZ() - r,
+                center.getX() + r, center.getY() + r, center.getZ() + r,
+                center, r * r, 0);
+    }
+
+    /**
+     * 2点で囲まれたブロック範囲を監房とする (両端のブロックを含む)
+     *
+     * @param spawn 脱走時の戻し先 (nullの場合は範囲の中心の床)
+     */
+    public static JailCell box(String name, World world, int x1, int y1, int z1, int x2, int y2, int z2,
+                               Location spawn) {
+        return box(name, world, x1, y1, z1, x2, y2, z2, spawn, 0);
+    }
+
+    /**
+     * 2点で囲まれたブロック範囲を収容人数付きの監房とする
+     *
+     * @param capacity 収容人数の上限 (0 = 無制限)
+     */
+    public static JailCell box(String name, World world, int x1, int y1, int z1, int x2, int y2, int z2,
+                               Location spawn, int capacity) {
+        double minX = Math.min(x1, x2), minY = Math.min(y1, y2), minZ = Math.min(z1, z2);
+        double maxX = Math.max(x1, x2) + 1, maxY = Math.max(y1, y2) + 1, maxZ = Math.max(z1, z2) + 1;
+        if (spawn == null) {
+            spawn = new Location(world, (minX + maxX) / 2, minY, (minZ + maxZ) / 2);
+        }
+        return new JailCell(name, world, minX, minY, minZ, maxX, maxY, maxZ, spawn, 0, capacity);
+    }
+
+    /**
+     * 保存済みの範囲 (座標そのまま) から監房を復元
+     */
+    public static JailCell bounds(String name, World world, double minX, double minY, double minZ,
+                                  double maxX, double maxY, double maxZ, Location spawn, int capacity) {
+        return new JailCell(name, world, minX, minY, minZ, maxX, maxY, maxZ, spawn, 0, capacity);
+    }
+
+    /**
+     * 収容人数だけを変更した監房
+     */
+    public JailCell withCapacity(int capacity) {
+        return new JailCell(name, world, minX, minY, minZ, maxX, maxY, maxZ, spawn, radiusSquared, capacity);
+    }
+
+    /**
+     * 座標が監房内かどうか
+     */
+    public boolean contains(Location location) {
+        World w = location.getWorld();
+        if (w == null || (w != world && !worldId.equals(w.getUID()))) {
+            return false;
+        }
+        double x = location.getX(), y = location.getY(), z = location.getZ();
+        if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) {
+            return false;
+        }
+        if (radiusSquared > 0) {
+            double dx = x - spawnX, dy = y - spawnY, dz = z - spawnZ;
+            return dx * dx + dy * dy + dz * dz <= radiusSquared;
+        }
+        return true;
+    }
+
+    /**
+     * 戻し先までの距離の2乗 (別ワールドの場合は {@link Double#MAX_VALUE})
+     */
+    public double distanceSquaredToSpawn(Location location) {
+        World w = location.getWorld();
+        if (w == null || (w != world && !worldId.equals(w.getUID()))) {
+            return Double.MAX_VALUE;
+        }
+        double dx = location.getX() - spawnX, dy = location.getY() - spawnY, dz = location.getZ() - spawnZ;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    public String getName() { return name; }
+    public World getWorld() { return world; }
+    public int getCapacity() { return capacity; }
+    public double getMinX() { return minX; }
+    public double getMinY() { return minY; }
+    public double getMinZ() { return minZ; }
+    public double getMaxX() { return maxX; }
+    public double getMaxY() { return maxY; }
+    public double getMaxZ() { return maxZ; }
+
+    /**
+     * 戻し先 (呼び出し元で変更できるよう複製を返す)
+     */
+    public Location getSpawn() { return spawn.clone(); }
+}
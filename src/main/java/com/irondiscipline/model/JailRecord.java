@@ -0,0 +1,66 @@
+package com.irondiscipline.model;
+
+import java.util.UUID;
+
+/**
+ * 隔離記録 (jailed_players の1行)
+ * 元座標・バックアップ・理由などを1回の取得でまとめて扱う
+ */
+public class JailRecord {
+
+    private final UUID playerId;
+    private final String playerName;
+    private final String reason;
+    private final long jailedAt;
+    private final UUID jailedBy;
+    private final String originalLocation;
+    private final byte[] inventoryBackup;
+    private final byte[] armorBackup;
+    private final JailSentence sentence;
+    private final String cellName;
+
+    public JailRecord(UUID playerId, String playerName, String reason, long jailedAt, UUID jailedBy,
+                      String originalLocation, byte[] inventoryBackup, byte[] armorBackup) {
+        this(playerId, playerName, reason, jailedAt, jailedBy, originalLocation, inventoryBackup, armorBackup,
+                null, null);
+    }
+
+    public JailRecord(UUID playerId, String playerName, String reason, long jailedAt, UUID jailedBy,
+                      String originalLocation, byte[] inventoryBackup, byte[] armorBackup,
+                      JailSentence sentence, String cellName) {
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.reason = reason;
+        this.jailedAt = jailedAt;
+        this.jailedBy = jailedBy;
+        this.originalLocation = originalLocation;
+        this.inventoryBackup = inventoryBackup;
+        this.armorBackup = armorBackup;
+        this.sentence = sentence;
+        this.cellName = cellName;
+    }
+
+    public UUID getPlayerId() { return playerId; }
+    public String getPlayerName() { return playerName; }
+    public String getReason() { return reason; }
+    public long getJailedAt() { return jailedAt; }
+    public UUID getJailedBy() { return jailedBy; }
+    public String getOriginalLocation() { return originalLocation; }
+
+    /**
+     * インベントリバックアップ ({@link com.irondiscipline.util.InventoryUtil#fromBytes} で復元)
+     * オフライン中に隔離された場合はnull
+     */
+    public byte[] getInventoryBackup() { return inventoryBackup; }
+    public byte[] getArmorBackup() { return armorBackup; }
+
+    /**
+     * 刑期 (無期限の場合null)
+     */
+    public JailSentence getSentence() { return sentence; }
+
+    /**
+     * 割り当てられた監房 (未割り当てはnull)
+     */
+    public String getCellName() { return cellName; }
+}
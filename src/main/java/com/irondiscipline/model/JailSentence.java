@@ -0,0 +1,51 @@
+package com.irondiscipline.model;
+
+/**
+ * 隔離の刑期
+ * 実時間で数える場合は隔離時刻からの経過、オンライン時間のみ数える場合は服役済み時間で判定する
+ */
+public class JailSentence {
+
+    private final long jailedAt;
+    private final long durationMillis;
+    private final long servedMillis;
+
+    public JailSentence(long jailedAt, long durationMillis, long servedMillis) {
+        this.jailedAt = jailedAt;
+        this.durationMillis = durationMillis;
+        this.servedMillis = servedMillis;
+    }
+
+    public long getJailedAt() { return jailedAt; }
+    public long getDurationMillis() { return durationMillis; }
+
+    /**
+     * オンライン中に服役した時間 (オンライン時間のみ数える場合に使用)
+     */
+    public long getServedMillis() { return servedMillis; }
+
+    /**
+     * 実時間で数えた場合の釈放時刻
+     */
+    public long getReleaseAt() {
+        return jailedAt + durationMillis;
+    }
+
+    /**
+     * オンライン時間で数えた場合の残り時間
+     */
+    public long getRemainingOnlineMillis() {
+        return Math.max(0, durationMillis - servedMillis);
+    }
+
+    /**
+     * 残りの刑期を指定時刻から数え直した刑期 (オフライン隔離の初回ログイン時)
+     */
+    public JailSentence restartAt(long now) {
+        return new JailSentence(now, getRemainingOnlineMillis(), 0);
+    }
+
+        public JailSentence withServed(long servedMillis) {
+        return new JailSentence(jailedAt, durationMillis, servedMillis);
+    }
+}
@@ -0,0 +1,64 @@
+package com.irondiscipline.model;
+
+import org.bukkit.Location;
+
+import java.util.List;
+
+/**
+ * 隔離区域 (複数の監房の集合)
+ * 設定変更時に作り直す不変オブジェクトで、移動イベントからはこれを参照するだけにする
+ */
+public class JailZone {
+
+    private final JailCell[] cells;
+
+    public JailZone(List<JailCell> cells) {
+        this.cells = cells.toArray(new JailCell[0]);
+    }
+
+    public boolean isEmpty() {
+        return cells.length == 0;
+    }
+
+    /**
+     * いずれかの監房内かどうか
+     */
+    public boolean contains(Location location) {
+        for (JailCell cell : cells) {
+            if (cell.contains(location)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 最も近い監房 (同じワールドになければ最初の監房)
+     */
+    public JailCell nearestCell(Location location) {
+        if (cells.length == 0) {
+            return null;
+        }
+        JailCell nearest = cells[0];
+        double best = Double.MAX_VALUE;
+        for (JailCell cell : cells) {
+            double d = cell.distanceSquaredToSpawn(location);
+            if (d < best) {
+                best = d;
+                nearest = cell;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * 隔離時の送り先となる監房 (最初の監房)
+     */
+    public JailCell getPrimaryCell() {
+        return cells.length > 0 ? cells[0] : null;
+    }
+
+    public List<JailCell> getCells() {
+        return List.of(cells);
+    }
+}
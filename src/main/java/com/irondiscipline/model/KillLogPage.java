@@ -0,0 +1,74 @@
+package com.irondiscipline.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 戦闘ログの1ページ分の結果
+ * 次ページは (timestamp, id) の位置を表すトークンで取得する (キーセットページング)
+ */
+public class KillLogPage {
+
+    private static final String TOKEN_VERSION = "1";
+
+    private final List<KillLog> logs;
+    private final String nextToken;
+
+    public KillLogPage(List<KillLog> logs, String nextToken) {
+        this.logs = logs;
+        this.nextToken = nextToken;
+    }
+
+    public List<KillLog> getLogs() { return logs; }
+
+    /**
+     * 次ページのトークン (最終ページの場合null)
+     */
+    public String getNextToken() { return nextToken; }
+
+    public boolean hasNext() { return nextToken != null; }
+
+    /**
+     * 指定ログの直後 (より古い側) を指すトークンを生成
+     */
+    public static String encodeToken(KillLog last) {
+        String raw = TOKEN_VERSION + ":" + last.getTimestamp() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * トークンを解析
+     *
+     * @throws IllegalArgumentException 不正なトークンの場合
+     */
+    public static Cursor decodeToken(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || !TOKEN_VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("不正なページトークン: " + token);
+            }
+            return new Cursor(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // Base64/数値の解析失敗もまとめて不正トークン扱い
+            throw new IllegalArgumentException("不正なページトークン: " + token, e);
+        }
+    }
+
+    /**
+     * ページの開始位置 (この位置より古いログを返す)
+     */
+    public static class Cursor {
+        private final long timestamp;
+        private final long id;
+
+        public Cursor(long timestamp, long id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public long getId() { return id; }
+    }
+}
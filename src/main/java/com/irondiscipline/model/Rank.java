@@ -3,29 +3,48 @@ package com.irondiscipline.model;
 import org.bukkit.ChatColor;
 
 /**
- * 軍階級enum
- * 重みが低いほど下位階級
+ * 軍階級
+ * 重みが低いほど下位階級。
+ * 階級の並びは設定 (ranks.ladder) から {@link RankLadder} として組み立て、リロード時は丸ごと差し替える。
+ * LuckPermsのメタデータにはIDを保存する。
  */
-public enum Rank {
-    
-    PRIVATE("PRIVATE", "&7[二等兵]", 10),
-    PRIVATE_FIRST_CLASS("PRIVATE_FIRST_CLASS", "&7[一等兵]", 15),
-    CORPORAL("CORPORAL", "&7[伍長]", 20),
-    SERGEANT("SERGEANT", "&e[軍曹]", 30),
-    LIEUTENANT("LIEUTENANT", "&6[少尉]", 40),
-    CAPTAIN("CAPTAIN", "&6[大尉]", 50),
-    MAJOR("MAJOR", "&c[少佐]", 60),
-    COLONEL("COLONEL", "&c[大佐]", 70),
-    COMMANDER("COMMANDER", "&4&l[司令官]", 100);
+public final class Rank {
 
+    // 現在の階級ラダー
+    private static volatile RankLadder ladder = RankLadder.defaults();
+
+    private final RankLadder owner;
+    private final int ordinal;
     private final String id;
     private final String displayRaw;
+    // 色コード変換済みの表示名
+    private final String display;
     private final int weight;
+    // Tabの並び順用 (上位ほど小さい)
+    private final String sortKey;
 
-    Rank(String id, String displayRaw, int weight) {
+    Rank(RankLadder owner, int ordinal, String id, String displayRaw, int weight, String sortKey) {
+        this.owner = owner;
+        this.ordinal = ordinal;
         this.id = id;
         this.displayRaw = displayRaw;
+        this.display = ChatColor.translateAlternateColorCodes('&', displayRaw);
         this.weight = weight;
+        this.sortKey = sortKey;
+    }
+
+    /**
+     * 現在の階級ラダー
+     */
+    public static RankLadder ladder() {
+        return ladder;
+    }
+
+    /**
+     * 階級ラダーを差し替え (起動・リロード時)
+     */
+    public static void setLadder(RankLadder newLadder) {
+        ladder = newLadder;
     }
 
     public String getId() {
@@ -37,13 +56,24 @@ public enum Rank {
     }
 
     public String getDisplay() {
-        return ChatColor.translateAlternateColorCodes('&', displayRaw);
+        return display;
     }
 
     public int getWeight() {
         return weight;
     }
 
+    /**
+     * ラダー内の順序 (最下位が0)
+     */
+    public int ordinal() {
+        return ordinal;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
     /**
      * この階級が対象より上位かどうか
      */
@@ -69,51 +99,34 @@ public enum Rank {
      * 次の階級を取得 (昇進)
      */
     public Rank getNextRank() {
-        Rank[] ranks = values();
-        for (int i = 0; i < ranks.length - 1; i++) {
-            if (ranks[i] == this) {
-                return ranks[i + 1];
-            }
-        }
-        return null; // 最高階級
+        return owner.get(ordinal + 1); // 最高階級ならnull
     }
 
     /**
      * 前の階級を取得 (降格)
      */
     public Rank getPreviousRank() {
-        Rank[] ranks = values();
-        for (int i = 1; i < ranks.length; i++) {
-            if (ranks[i] == this) {
-                return ranks[i - 1];
-            }
-        }
-        return null; // 最低階級
+        return owner.get(ordinal - 1); // 最低階級ならnull
     }
 
     /**
-     * IDから階級を取得
+     * IDから階級を取得 (見つからない場合は最下位)
      */
     public static Rank fromId(String id) {
-        if (id == null) return PRIVATE;
-        for (Rank rank : values()) {
-            if (rank.id.equalsIgnoreCase(id)) {
-                return rank;
-            }
-        }
-        return PRIVATE;
+        RankLadder current = ladder;
+        Rank rank = current.get(id);
+        return rank != null ? rank : current.lowest();
     }
 
     /**
      * 重みから階級を取得
      */
     public static Rank fromWeight(int weight) {
-        Rank result = PRIVATE;
-        for (Rank rank : values()) {
-            if (rank.weight <= weight && rank.weight > result.weight) {
-                result = rank;
-            }
-        }
-        return result;
+        return ladder.atMost(weight);
+    }
+
+    @Override
+    public String toString() {
+        return id;
     }
 }
@@ -0,0 +1,153 @@
+package com.irondiscipline.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 階級の並び (ラダー)
+ * 設定の定義を重みの昇順に並べた不変の一覧で、前後の階級は順序の配列から、
+ * IDは小文字にそろえたハッシュ索引から引く (呼び出しごとに配列を複製・走査しない)。
+ */
+public final class RankLadder {
+
+    private final Rank[] ranks;
+    private final List<Rank> view;
+    // 小文字のID → 階級
+    private final Map<String, Rank> byId;
+
+    /**
+     * 階級の定義
+     */
+    public static final class Definition {
+        private final String id;
+        private final String displayRaw;
+        private final int weight;
+
+        public Definition(String id, String displayRaw, int weight) {
+            this.id = id;
+            this.displayRaw = displayRaw;
+            this.weight = weight;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getDisplayRaw() {
+            return displayRaw;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException 定義が空、またはIDが重複している場合
+     */
+    public RankLadder(List<Definition> definitions) {
+        if (definitions.isEmpty()) {
+            throw new IllegalArgumentException("階級が1つも定義されていない");
+        }
+        List<Definition> sorted = new ArrayList<>(definitions);
+        sorted.sort(Comparator.comparingInt(Definition::getWeight));
+
+        this.ranks = new Rank[sorted.size()];
+        this.byId = new HashMap<>(sorted.size() * 2);
+        for (int i = 0; i < ranks.length; i++) {
+            Definition definition = sorted.get(i);
+            Rank rank = new Rank(this, i, definition.getId(), definition.getDisplayRaw(), definition.getWeight(),
+                    String.format("%03d", ranks.length - 1 - i));
+            if (byId.putIfAbsent(normalize(definition.getId()), rank) != null) {
+                throw new IllegalArgumentException("階級IDが重複している: " + definition.getId());
+            }
+            ranks[i] = rank;
+        }
+        this.view = Collections.unmodifiableList(Arrays.asList(ranks));
+    }
+
+    /**
+     * 組み込みの階級 (設定がない場合)
+     */
+    public static RankLadder defaults() {
+        return new RankLadder(List.of(
+                new Definition("PRIVATE", "&7[二等兵]", 10),
+                new Definition("PRIVATE_FIRST_CLASS", "&7[一等兵]", 15),
+                new Definition("CORPORAL", "&7[伍長]", 20),
+                new Definition("SERGEANT", "&e[軍曹]", 30),
+                new Definition("LIEUTENANT", "&6[少尉]", 40),
+                new Definition("CAPTAIN", "&6[大尉]", 50),
+                new Definition("MAJOR", "&c[少佐]", 60),
+                new Definition("COLONEL", "&c[大佐]", 70),
+                new Definition("COMMANDER", "&4&l[司令官]", 100)));
+    }
+
+    /**
+     * 下位から順の全階級 (変更不可)
+     */
+    public List<Rank> getRanks() {
+        return view;
+    }
+
+    public int size() {
+        return ranks.length;
+    }
+
+    /**
+     * 順序から階級を取得 (範囲外はnull)
+     */
+    public Rank get(int ordinal) {
+        return ordinal >= 0 && ordinal < ranks.length ? ranks[ordinal] : null;
+    }
+
+    /**
+     * IDから階級を取得 (大文字小文字は区別しない、見つからない場合null)
+     */
+    public Rank get(String id) {
+        return id != null ? byId.get(normalize(id)) : null;
+    }
+
+    public Rank lowest() {
+        return ranks[0];
+    }
+
+    public Rank highest() {
+        return ranks[ranks.length - 1];
+    }
+
+    /**
+     * 重み以下で最上位の階級 (該当しない場合は最下位)
+     */
+    public Rank atMost(int weight) {
+        Rank result = ranks[0];
+        for (Rank rank : ranks) {
+            if (rank.getWeight() > weight) {
+                break;
+            }
+            result = rank;
+        }
+        return result;
+    }
+
+    /**
+     * 重み以上で最下位の階級 (該当しない場合は最上位)
+     */
+    public Rank atLeast(int weight) {
+        for (Rank rank : ranks) {
+            if (rank.getWeight() >= weight) {
+                return rank;
+            }
+        }
+        return highest();
+    }
+
+    private static String normalize(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+}
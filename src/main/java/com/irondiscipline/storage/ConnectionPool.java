@@ -0,0 +1,521 @@
+package com.irondiscipline.storage;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JDBCコネクションプール
+ * 上限付きのコネクション数で H2/MySQL の両方に対応する。
+ * 貸出時の検証、アイドルタイムアウト、最大生存時間をサポート。
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /**
+     * 物理コネクションの生成処理
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final String name;
+    private final ConnectionFactory factory;
+    private final Logger logger;
+    private final int maximumPoolSize;
+    private final int minimumIdle;
+    private final long connectionTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final int validationTimeoutSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    // LIFO: 直近に返却されたコネクションを優先して再利用する
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+    private int totalConnections;
+    private int activeConnections;
+    private int waitingThreads;
+    private long totalCreated;
+    private long totalTimeouts;
+    private boolean closed;
+
+    private final ScheduledExecutorService housekeeper;
+
+    private ConnectionPool(Builder builder) {
+        this.name = builder.name;
+        this.factory = builder.factory;
+        this.logger = builder.logger != null ? builder.logger : Logger.getLogger(ConnectionPool.class.getName());
+        this.maximumPoolSize = Math.max(1, builder.maximumPoolSize);
+        this.minimumIdle = Math.max(0, Math.min(builder.minimumIdle, maximumPoolSize));
+        this.connectionTimeoutMillis = builder.connectionTimeoutMillis > 0 ? builder.connectionTimeoutMillis : 5000L;
+        this.idleTimeoutMillis = builder.idleTimeoutMillis;
+        this.maxLifetimeMillis = builder.maxLifetimeMillis;
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds > 0 ? builder.validationTimeoutSeconds : 3;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name + "-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, 30, 30, TimeUnit.SECONDS);
+    }
+
+    public static Builder builder(String name, ConnectionFactory factory) {
+        return new Builder(name, factory);
+    }
+
+    /**
+     * 最小アイドル数までコネクションを事前に生成
+     * 枠をロック内で予約し、物理コネクションの生成はロック外で行う (生成中も貸出・返却を止めない)。
+     * 途中で失敗した場合は生成済みのコネクションを閉じて予約した枠を戻す。
+     */
+    public void fill() throws SQLException {
+        int reserved;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            reserved = Math.max(0, minimumIdle - totalConnections);
+            totalConnections += reserved;
+        } finally {
+            lock.unlock();
+        }
+        if (reserved == 0) {
+            return;
+        }
+
+        List<PooledConnection> created = new ArrayList<>(reserved);
+        try {
+            for (int i = 0; i < reserved; i++) {
+                created.add(new PooledConnection(factory.create()));
+            }
+        } catch (SQLException | RuntimeException e) {
+            for (PooledConnection pooled : created) {
+                closeQuietly(pooled.physical);
+            }
+            releaseSlots(reserved);
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            totalCreated += created.size();
+            if (!closed) {
+                idle.addAll(created);
+                available.signalAll();
+                return;
+            }
+            totalConnections -= reserved;
+        } finally {
+            lock.unlock();
+        }
+        // 生成中に停止された
+        for (PooledConnection pooled : created) {
+            closeQuietly(pooled.physical);
+        }
+    }
+
+    private void releaseSlots(int count) {
+        lock.lock();
+        try {
+            totalConnections -= count;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * コネクションを借用
+     * 返されたコネクションの close() でプールへ返却される。
+     */
+    public Connection getConnection() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(connectionTimeoutMillis);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("コネクションプールは停止済みです: " + name);
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate != null) {
+                        activeConnections++;
+                        break;
+                    }
+                    if (totalConnections < maximumPoolSize) {
+                        // 枠を予約してからロック外で生成する
+                        totalConnections++;
+                        activeConnections++;
+                        create = true;
+                        break;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        totalTimeouts++;
+                        throw new SQLTransientConnectionException(String.format(
+                                "%s: コネクション取得がタイムアウトしました (%dms, active=%d, idle=%d, waiting=%d)",
+                                name, connectionTimeoutMillis, activeConnections, idle.size(), waitingThreads));
+                    }
+                    waitingThreads++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("コネクション取得中に割り込まれました", e);
+                    } finally {
+                        waitingThreads--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    PooledConnection created = new PooledConnection(factory.create());
+                    lock.lock();
+                    try {
+                        totalCreated++;
+                    } finally {
+                        lock.unlock();
+                    }
+                    return created.lease();
+                } catch (SQLException | RuntimeException e) {
+                    discardSlot(true);
+                    throw e;
+                }
+            }
+
+            // 貸出時の検証 (期限切れ・切断済みは破棄して再試行)
+            if (isUsable(candidate)) {
+                return candidate.lease();
+            }
+            discard(candidate, true);
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if (maxLifetimeMillis > 0 && now - pooled.createdAt >= maxLifetimeMillis) {
+            return false;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 返却処理 (プロキシの close() から呼ばれる)
+     */
+    private void release(PooledConnection pooled) {
+        boolean reusable = true;
+        try {
+            if (pooled.physical.isClosed()) {
+                reusable = false;
+            } else if (!pooled.physical.getAutoCommit()) {
+                // 未完了のトランザクションを残さない
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (maxLifetimeMillis > 0 && System.currentTimeMillis() - pooled.createdAt >= maxLifetimeMillis) {
+            reusable = false;
+        }
+
+        lock.lock();
+        try {
+            activeConnections--;
+            if (reusable && !closed) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(pooled);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(pooled, false);
+    }
+
+    /**
+     * コネクションを破棄して枠を解放
+     */
+    private void discard(PooledConnection pooled, boolean leased) {
+        closeQuietly(pooled.physical);
+        discardSlot(leased);
+    }
+
+    private void discardSlot(boolean leased) {
+        lock.lock();
+        try {
+            totalConnections--;
+            if (leased) {
+                activeConnections--;
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * アイドルタイムアウト・最大生存時間を超えたコネクションを整理
+     */
+    private void housekeep() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            var it = idle.descendingIterator(); // 古いものから
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                boolean expired = maxLifetimeMillis > 0 && now - pooled.createdAt >= maxLifetimeMillis;
+                boolean idleTooLong = idleTimeoutMillis > 0 && now - pooled.lastReturnedAt >= idleTimeoutMillis
+                        && totalConnections - evicted.size() > minimumIdle;
+                if (expired || idleTooLong) {
+                    it.remove();
+                    evicted.add(pooled);
+                }
+            }
+            totalConnections -= evicted.size();
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooled : evicted) {
+            closeQuietly(pooled.physical);
+        }
+
+        try {
+            fill();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, name + ": アイドルコネクションの補充に失敗", e);
+        }
+    }
+
+    /**
+     * プールを停止し、アイドルコネクションを全て閉じる
+     * 貸出中のコネクションは返却時に閉じられる。
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            totalConnections -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            closeQuietly(pooled.physical);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    // ===== Metrics =====
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * 貸出中のコネクション数
+     */
+    public int getActiveConnections() {
+        lock.lock();
+        try {
+            return activeConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * アイドル中のコネクション数
+     */
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * コネクション待ちのスレッド数
+     */
+    public int getThreadsAwaitingConnection() {
+        lock.lock();
+        try {
+            return waitingThreads;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTotalConnections() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTotalCreated() {
+        lock.lock();
+        try {
+            return totalCreated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTotalTimeouts() {
+        lock.lock();
+        try {
+            return totalTimeouts;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * プールされた物理コネクション
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        final long createdAt = System.currentTimeMillis();
+        long lastReturnedAt = createdAt;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * 貸出用のプロキシを生成 (close() で返却、二重返却は無視)
+         */
+        Connection lease() {
+            InvocationHandler handler = new InvocationHandler() {
+                private boolean returned;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (!returned) {
+                                returned = true;
+                                release(PooledConnection.this);
+                            }
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            return returned || physical.isClosed();
+                        }
+                        case "unwrap" -> {
+                            if (((Class<?>) args[0]).isInstance(physical)) {
+                                return physical;
+                            }
+                        }
+                        case "toString" -> {
+                            return name + "-proxy[" + physical + "]";
+                        }
+                        default -> {
+                        }
+                    }
+                    if (returned) {
+                        throw new SQLException("返却済みのコネクションです");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            };
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, handler);
+        }
+    }
+
+    public static class Builder {
+        private final String name;
+        private final ConnectionFactory factory;
+        private Logger logger;
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+        private long connectionTimeoutMillis = 5000L;
+        private long idleTimeoutMillis = 600_000L;
+        private long maxLifetimeMillis = 1_800_000L;
+        private int validationTimeoutSeconds = 3;
+
+        private Builder(String name, ConnectionFactory factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        public Builder logger(Logger logger) { this.logger = logger; return this; }
+        public Builder maximumPoolSize(int size) { this.maximumPoolSize = size; return this; }
+        public Builder minimumIdle(int size) { this.minimumIdle = size; return this; }
+        public Builder connectionTimeout(long millis) { this.connectionTimeoutMillis = millis; return this; }
+        public Builder idleTimeout(long millis) { this.idleTimeoutMillis = millis; return this; }
+        public Builder maxLifetime(long millis) { this.maxLifetimeMillis = millis; return this; }
+        public Builder validationTimeout(int seconds) { this.validationTimeoutSeconds = seconds; return this; }
+
+        public ConnectionPool build() {
+            return new ConnectionPool(this);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.irondiscipline.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 戦闘ログの月別テーブル (kill_logs_YYYYMM) の管理
+ * 書き込み先の振り分け、読み込み対象テーブルの列挙、保存期間切れテーブルの削除を行う。
+ * 分割前の kill_logs テーブルは読み込み専用の旧テーブルとして扱い、期限切れ分を少しずつ削除する。
+ * <p>
+ * 分割後のIDは全テーブルを通して一意にするため、DBの採番行からまとめて確保する
+ * (同じDBを共有する複数サーバーでも重複しない)。
+ */
+public class KillLogPartitions {
+
+    public static final String LEGACY_TABLE = "kill_logs";
+    private static final String REGISTRY_TABLE = "kill_log_partitions";
+    private static final String SEQUENCE_TABLE = "kill_log_sequence";
+    private static final String SEQUENCE_NAME = "kill_log_id";
+    // 1回の確保で取るIDの数 (使い切れなかった分は欠番になる)
+    private static final int ID_BLOCK_SIZE = 1000;
+
+    /**
+     * 読み込み対象のテーブルと、その中の timestamp の範囲 [min, max)
+     */
+    public static class Source {
+        private final String table;
+        private final long minTimestamp;
+        private final long maxTimestamp;
+
+        public Source(String table, long minTimestamp, long maxTimestamp) {
+            this.table = table;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+        }
+
+        public String getTable() { return table; }
+        public long getMinTimestamp() { return minTimestamp; }
+        public long getMaxTimestamp() { return maxTimestamp; }
+    }
+
+    private final boolean enabled;
+    // 開始timestamp -> パーティション
+    private final Map<Long, Source> partitions = new ConcurrentSkipListMap<>();
+    // 確保済みのIDの範囲 [blockNext, blockEnd)
+    private long blockNext;
+    private long blockEnd;
+    private volatile Source legacy;
+
+    public KillLogPartitions(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 管理テーブルを作成し、既存パーティションと旧テーブルの範囲を読み込む
+     */
+    public synchronized void initialize(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + REGISTRY_TABLE + " ("
+                    + "table_name VARCHAR(64) PRIMARY KEY, "
+                    + "start_ts BIGINT NOT NULL, "
+                    + "end_ts BIGINT NOT NULL)");
+        }
+
+        partitions.clear();
+        long maxId = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT table_name, start_ts, end_ts FROM " + REGISTRY_TABLE)) {
+            while (rs.next()) {
+                Source source = new Source(rs.getString(1), rs.getLong(2), rs.getLong(3));
+                partitions.put(source.getMinTimestamp(), source);
+            }
+        }
+        for (Source source : partitions.values()) {
+            maxId = Math.max(maxId, queryMaxId(conn, source.getTable()));
+        }
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT MIN(timestamp), MAX(timestamp), MAX(id) FROM " + LEGACY_TABLE)) {
+            if (rs.next() && rs.getObject(1) != null) {
+                legacy = new Source(LEGACY_TABLE, rs.getLong(1), rs.getLong(2) + 1);
+                maxId = Math.max(maxId, rs.getLong(3));
+            } else {
+                legacy = null;
+            }
+        }
+        initializeSequence(conn, maxId + 1);
+    }
+
+    /**
+     * 採番行を作成し、既存のIDより後ろから始まるようにする
+     */
+    private void initializeSequence(Connection conn, long floor) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + SEQUENCE_TABLE + " ("
+                    + "name VARCHAR(32) PRIMARY KEY, "
+                    + "next_id BIGINT NOT NULL)");
+        }
+        if (!sequenceExists(conn)) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO " + SEQUENCE_TABLE + " (name, next_id) VALUES (?, ?)")) {
+                ps.setString(1, SEQUENCE_NAME);
+                ps.setLong(2, floor);
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                // 同じDBを共有する別サーバーが先に作成した場合
+                if (!sequenceExists(conn)) {
+                    throw e;
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE " + SEQUENCE_TABLE + " SET next_id = ? WHERE name = ? AND next_id < ?")) {
+            ps.setLong(1, floor);
+            ps.setString(2, SEQUENCE_NAME);
+            ps.setLong(3, floor);
+            ps.executeUpdate();
+        }
+        blockNext = 0;
+        blockEnd = 0;
+    }
+
+    private boolean sequenceExists(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT 1 FROM " + SEQUENCE_TABLE + " WHERE name = ?")) {
+            ps.setString(1, SEQUENCE_NAME);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private long queryMaxId(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM " + table)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * 月別テーブルへの書き込みが有効か (無効の場合は旧テーブルに書き込む)
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 指定timestampの書き込み先テーブルを取得 (存在しなければ作成)
+     * 作成はテーブルと管理テーブルへの登録を確定させてから読み込み対象に加えるため、
+     * 戦闘ログを書き込むトランザクションとは別の自動コミットのコネクションで呼ぶこと
+     */
+    public String tableFor(Connection conn, long timestamp) throws SQLException {
+        YearMonth month = YearMonth.from(Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC));
+        long start = month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        Source existing = partitions.get(start);
+        if (existing != null) {
+            return existing.getTable();
+        }
+        return createPartition(conn, month, start);
+    }
+
+    private synchronized String createPartition(Connection conn, YearMonth month, long start) throws SQLException {
+        Source existing = partitions.get(start);
+        if (existing != null) {
+            return existing.getTable();
+        }
+
+        String table = String.format("kill_logs_%04d%02d", month.getYear(), month.getMonthValue());
+        long end = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                    + "id BIGINT PRIMARY KEY, "
+                    + "timestamp BIGINT NOT NULL, "
+                    + "killer_id VARCHAR(36), "
+                    + "killer_name VARCHAR(32), "
+                    + "victim_id VARCHAR(36) NOT NULL, "
+                    + "victim_name VARCHAR(32) NOT NULL, "
+                    + "weapon VARCHAR(64), "
+                    + "distance DOUBLE, "
+                    + "world VARCHAR(64), "
+                    + "x DOUBLE, "
+                    + "y DOUBLE, "
+                    + "z DOUBLE)");
+            // インデックス名はH2ではスキーマ内で一意である必要があるためテーブル名を含める
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_ts ON " + table + "(timestamp, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_killer_ts ON " + table
+                    + "(killer_id, timestamp, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_victim_ts ON " + table
+                    + "(victim_id, timestamp, id)");
+        }
+        if (!isRegistered(conn, table)) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO " + REGISTRY_TABLE + " (table_name, start_ts, end_ts) VALUES (?, ?, ?)")) {
+                ps.setString(1, table);
+                ps.setLong(2, start);
+                ps.setLong(3, end);
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                // 同じDBを共有する別サーバーが先に登録した場合
+                if (!isRegistered(conn, table)) {
+                    throw e;
+                }
+            }
+        }
+
+        // 登録が確定してから読み込み対象に加える
+        partitions.put(start, new Source(table, start, end));
+        return table;
+    }
+
+    private boolean isRegistered(Connection conn, String table) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT 1 FROM " + REGISTRY_TABLE + " WHERE table_name = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * 分割後の書き込み用に連続したIDを確保
+     * 手元の範囲で足りなければ採番行から新しい範囲を確保する (別トランザクションで即時確定)。
+     * 戦闘ログを書き込むトランザクションとは別のコネクションで呼ぶこと
+     *
+     * @return 確保した範囲の先頭ID (先頭から count 個が使用可能)
+     */
+    public synchronized long reserveIds(Connection conn, int count) throws SQLException {
+        if (blockEnd - blockNext < count) {
+            int size = Math.max(count, ID_BLOCK_SIZE);
+            long end = claimBlock(conn, size);
+            blockNext = end - size;
+            blockEnd = end;
+        }
+        long first = blockNext;
+        blockNext += count;
+        return first;
+    }
+
+    /**
+     * 採番行を size だけ進める
+     *
+     * @return 確保した範囲の末尾 (この値自体は含まない)
+     */
+    private long claimBlock(Connection conn, int size) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE " + SEQUENCE_TABLE + " SET next_id = next_id + ? WHERE name = ?")) {
+                ps.setInt(1, size);
+                ps.setString(2, SEQUENCE_NAME);
+                if (ps.executeUpdate() != 1) {
+                    throw new SQLException("戦闘ログの採番行がない: " + SEQUENCE_TABLE);
+                }
+            }
+            long end;
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT next_id FROM " + SEQUENCE_TABLE + " WHERE name = ?")) {
+                ps.setString(1, SEQUENCE_NAME);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("戦闘ログの採番行がない: " + SEQUENCE_TABLE);
+                    }
+                    end = rs.getLong(1);
+                }
+            }
+            conn.commit();
+            return end;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * 読み込み対象のテーブルを新しい順 (maxTimestampの降順) で取得
+     */
+    public List<Source> sourcesNewestFirst() {
+        List<Source> sources = new ArrayList<>(partitions.values());
+        if (!enabled) {
+            // 分割無効時は旧テーブルに書き込まれ続けるため範囲を限定しない
+            sources.add(new Source(LEGACY_TABLE, Long.MIN_VALUE, Long.MAX_VALUE));
+        } else if (legacy != null) {
+            sources.add(legacy);
+        }
+        sources.sort(Comparator.comparingLong(Source::getMaxTimestamp).reversed());
+        return sources;
+    }
+
+    /**
+     * 全期間が cutoff より古いパーティション
+     */
+    public List<Source> expiredPartitions(long cutoff) {
+        List<Source> expired = new ArrayList<>();
+        for (Source source : partitions.values()) {
+            if (source.getMaxTimestamp() <= cutoff) {
+                expired.add(source);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * パーティションを削除 (テーブルごとDROPするため件数に関係なく一定時間)
+     */
+    public synchronized void drop(Connection conn, Source partition) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS " + partition.getTable());
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "DELETE FROM " + REGISTRY_TABLE + " WHERE table_name = ?")) {
+            ps.setString(1, partition.getTable());
+            ps.executeUpdate();
+        }
+        // 削除が成功してから読み込み対象から外す (失敗した場合は次回の整理で再試行)
+        partitions.remove(partition.getMinTimestamp());
+    }
+
+    public int getPartitionCount() {
+        return partitions.size();
+    }
+}
@@ -0,0 +1,322 @@
+package com.irondiscipline.storage;
+
+import com.irondiscipline.model.KillLog;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 戦闘ログの書き込みバッファ (write-behind)
+ * 上限付きキューに溜めた戦闘ログを単一の書き込みスレッドが
+ * 件数または経過時間でまとめ、1トランザクションのバッチで保存する。
+ */
+public class KillLogWriter {
+
+    /**
+     * バッチの書き込み先
+     */
+    @FunctionalInterface
+    public interface BatchSink {
+        void write(List<KillLog> batch) throws SQLException;
+    }
+
+    /**
+     * キューが満杯の時の動作
+     */
+    public enum OverflowPolicy {
+        /** 新しいログを破棄 */
+        DROP_NEWEST,
+        /** 最も古いログを破棄して新しいログを入れる */
+        DROP_OLDEST,
+        /** 空きが出るまで一定時間待機し、それでも満杯なら破棄 */
+        BLOCK;
+
+        public static OverflowPolicy fromString(String value) {
+            if (value == null) {
+                return DROP_OLDEST;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return DROP_OLDEST;
+            }
+        }
+    }
+
+    private final BatchSink sink;
+    private final Logger logger;
+    private final BlockingQueue<KillLog> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final Thread thread;
+
+    // 停止要求を検知するためのポーリング間隔
+    private static final long POLL_SLICE_MILLIS = 100L;
+
+    private volatile boolean running = true;
+    // 受付判定とキュー投入を停止処理から不可分にするためのロック
+    // (enqueueは読み取りロック、shutdownは書き込みロックで running を落とす)
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    // キュー投入済みで未処理の件数 (flush待機用)
+    private final Object pendingLock = new Object();
+    private long pending;
+
+    // メトリクス
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+
+    public KillLogWriter(BatchSink sink, Logger logger, int queueCapacity, int batchSize,
+            long flushIntervalMillis, OverflowPolicy overflowPolicy, long blockTimeoutMillis) {
+        this.sink = sink;
+        this.logger = logger;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity > 0 ? queueCapacity : 10000);
+        this.batchSize = batchSize > 0 ? batchSize : 200;
+        this.flushIntervalMillis = flushIntervalMillis > 0 ? flushIntervalMillis : 1000L;
+        this.overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.DROP_OLDEST;
+        this.blockTimeoutMillis = Math.max(0, blockTimeoutMillis);
+
+        this.thread = new Thread(this::runLoop, "IronDiscipline-KillLogWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * 戦闘ログをキューに追加
+     *
+     * @return キューに入った場合true、破棄された場合false
+     */
+    public boolean enqueue(KillLog log) {
+        acceptLock.readLock().lock();
+        try {
+            return offer(log);
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    private boolean offer(KillLog log) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        incrementPending();
+        boolean accepted = queue.offer(log);
+
+        if (!accepted) {
+            switch (overflowPolicy) {
+                case DROP_OLDEST -> {
+                    while (!accepted) {
+                        if (queue.poll() != null) {
+                            dropped.incrementAndGet();
+                            decrementPending(1);
+                        }
+                        accepted = queue.offer(log);
+                    }
+                }
+                case BLOCK -> {
+                    try {
+                        accepted = queue.offer(log, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                case DROP_NEWEST -> {
+                }
+            }
+        }
+
+        if (!accepted) {
+            dropped.incrementAndGet();
+            decrementPending(1);
+            return false;
+        }
+        enqueued.incrementAndGet();
+        return true;
+    }
+
+    private void runLoop() {
+        List<KillLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                KillLog first = queue.poll(POLL_SLICE_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // 件数が揃うか、最初の1件から flushInterval 経過するまで集める
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || !running) {
+                        break;
+                    }
+                    KillLog next = queue.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_SLICE_MILLIS)),
+                            TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+
+                flushBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        // 終了時に残りを書き出す
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    private void flushBatch(List<KillLog> batch) {
+        int size = batch.size();
+        long start = System.nanoTime();
+        try {
+            sink.write(batch);
+            written.addAndGet(size);
+        } catch (SQLException | RuntimeException e) {
+            failed.addAndGet(size);
+            logger.log(Level.WARNING, "戦闘ログのバッチ保存失敗 (" + size + "件)", e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            batches.incrementAndGet();
+            totalFlushNanos.addAndGet(elapsed);
+            lastFlushNanos = elapsed;
+            if (elapsed > maxFlushNanos) {
+                maxFlushNanos = elapsed;
+            }
+            batch.clear();
+            decrementPending(size);
+        }
+    }
+
+    /**
+     * キュー内のログが全て処理されるまで待機
+     *
+     * @return 時間内に処理が完了した場合true
+     */
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (pendingLock) {
+            while (pending > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    pendingLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 新規受付を停止し、残りのログを書き出してから終了
+     * (JDBC処理中の割り込みはH2のファイルを閉じてしまうため、interruptは使わない)
+     */
+    public void shutdown(long timeoutMillis) {
+        // 投入中のenqueueが終わるのを待ってから停止するので、最終drain後にログが残ることはない
+        acceptLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logger.warning("戦闘ログ書き込みスレッドが時間内に終了しませんでした (残り" + queue.size() + "件)");
+        }
+    }
+
+    private void incrementPending() {
+        synchronized (pendingLock) {
+            pending++;
+        }
+    }
+
+    private void decrementPending(int count) {
+        synchronized (pendingLock) {
+            pending -= count;
+            if (pending <= 0) {
+                pendingLock.notifyAll();
+            }
+        }
+    }
+
+    // ===== Metrics =====
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushNanos / 1_000_000.0;
+    }
+
+    public double getMaxFlushMillis() {
+        return maxFlushNanos / 1_000_000.0;
+    }
+
+    public double getAverageFlushMillis() {
+        long count = batches.get();
+        return count == 0 ? 0 : totalFlushNanos.get() / 1_000_000.0 / count;
+    }
+}
@@ -0,0 +1,366 @@
+package com.irondiscipline.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 勤務時間の追記型ジャーナル
+ * セッション終了ごとに (プレイヤー, 加算時間) の固定長レコードを1件追記するだけにし、
+ * 累計はスナップショットに定期的にまとめる (一時ファイルに書いてから置き換える)。
+ * 起動時はスナップショットを読み込んだ後、それ以降のジャーナルを再生して累計を復元する。
+ * <p>
+ * ジャーナルは世代番号付きのファイル (playtime-&lt;世代&gt;.journal) に分け、
+ * スナップショットにはまとめ済みの世代を記録するため、まとめの途中で停止しても二重に数えない。
+ * ファイル操作は専用の1スレッドで順に行う。
+ */
+public class PlaytimeJournal {
+
+    private static final int SNAPSHOT_MAGIC = 0x49445054; // "IDPT"
+    private static final int SNAPSHOT_VERSION = 1;
+    // UUID (16) + 加算時間 (8)
+    private static final int RECORD_BYTES = 24;
+
+    private static final String SNAPSHOT_FILE = "playtime.snapshot";
+    private static final String LEGACY_FILE = "playtime.json";
+    private static final String SEGMENT_PREFIX = "playtime-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final File directory;
+    private final Logger logger;
+    private final ExecutorService thread;
+
+    // 以下は専用スレッド (またはload) からのみ触る
+    private long generation;
+    private DataOutputStream out;
+    private long appendedSinceCompact;
+
+    public PlaytimeJournal(File directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+        this.thread = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "IronDiscipline-PlaytimeJournal");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * スナップショットとジャーナルから累計を復元し、新しい世代のジャーナルを開く (起動時)
+     * スナップショットがない場合は旧形式の playtime.json を読み込む
+     * <p>
+     * 読み込みに失敗しても既存のどの世代よりも新しいジャーナルを開いてから例外を投げるため、
+     * 以降の追記は失われず、読めなかったファイルと合わせて後から再生できる
+     * (読めないファイルが残っている間はまとめも失敗するため、消されることはない)。
+     */
+    public synchronized Map<UUID, Long> load() throws IOException {
+        directory.mkdirs();
+        Map<UUID, Long> totals = new HashMap<>();
+        long latest = 0;
+        try {
+            long compacted = readSnapshot(totals);
+            if (!totals.isEmpty() && !new File(directory, SNAPSHOT_FILE).exists()) {
+                // 旧形式から移行するため次回必ずスナップショットを作る
+                appendedSinceCompact++;
+            }
+
+            latest = compacted;
+            for (long segment : listSegments()) {
+                if (segment <= compacted) {
+                    // まとめ済み (削除前に停止した場合の残り)
+                    Files.deleteIfExists(segmentFile(segment).toPath());
+                    continue;
+                }
+                appendedSinceCompact += replay(segmentFile(segment), totals);
+                latest = segment;
+            }
+        } catch (IOException e) {
+            List<Long> segments = listSegments();
+            if (!segments.isEmpty()) {
+                latest = Math.max(latest, segments.get(segments.size() - 1));
+            }
+            generation = latest + 1;
+            out = openSegment(generation);
+            throw e;
+        }
+
+        generation = latest + 1;
+        out = openSegment(generation);
+        return totals;
+    }
+
+    /**
+     * セッションの勤務時間を追記 (非同期)
+     */
+    public void append(UUID playerId, long deltaMillis) {
+        if (deltaMillis <= 0) {
+            return;
+        }
+        submit(() -> {
+            out.writeLong(playerId.getMostSignificantBits());
+            out.writeLong(playerId.getLeastSignificantBits());
+            out.writeLong(deltaMillis);
+            out.flush();
+            appendedSinceCompact++;
+        }, "勤務時間ジャーナルの追記失敗");
+    }
+
+    /**
+     * ジャーナルをスナップショットにまとめる (非同期、追記がない場合は何もしない)
+     */
+    public void compact() {
+        submit(this::compactNow, "勤務時間スナップショットの保存失敗");
+    }
+
+    /**
+     * これまでに依頼した追記・まとめが終わるまで待つ
+     */
+    public void flush() {
+        if (thread.isShutdown()) {
+            return;
+        }
+        try {
+            thread.submit(() -> { }).get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warning("勤務時間ジャーナルの書き込み待ちに失敗しました: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 未処理の追記を書き切り、スナップショットにまとめて閉じる (停止時)
+     */
+    public void close() {
+        compact();
+        thread.shutdown();
+        try {
+            if (!thread.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("勤務時間ジャーナルの停止がタイムアウトしました");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closeQuietly(out);
+            out = null;
+        }
+    }
+
+    private void submit(IoTask task, String errorMessage) {
+        if (thread.isShutdown()) {
+            return;
+        }
+        thread.execute(() -> {
+            synchronized (this) {
+                if (out == null) {
+                    logger.warning(errorMessage + ": ジャーナルが開かれていないため破棄しました");
+                    return;
+                }
+                try {
+                    task.run();
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, errorMessage, e);
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface IoTask {
+        void run() throws IOException;
+    }
+
+    private void compactNow() throws IOException {
+        if (appendedSinceCompact == 0) {
+            return;
+        }
+
+        // 現在の世代を閉じて次の世代へ切り替え、閉じた世代までをまとめる
+        long sealed = generation;
+        out.close();
+        generation++;
+        out = openSegment(generation);
+
+        Map<UUID, Long> totals = new HashMap<>();
+        long compacted = readSnapshot(totals);
+        List<Long> folded = new ArrayList<>();
+        for (long segment : listSegments()) {
+            if (segment > compacted && segment <= sealed) {
+                replay(segmentFile(segment), totals);
+                folded.add(segment);
+            }
+        }
+        writeSnapshot(totals, sealed);
+        appendedSinceCompact = 0;
+
+        for (long segment : folded) {
+            Files.deleteIfExists(segmentFile(segment).toPath());
+        }
+        File legacy = new File(directory, LEGACY_FILE);
+        if (legacy.exists()) {
+            Files.move(legacy.toPath(), new File(directory, LEGACY_FILE + ".migrated").toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * スナップショットを読み込む
+     *
+     * @return まとめ済みの世代 (スナップショットがない場合0)
+     */
+    private long readSnapshot(Map<UUID, Long> totals) throws IOException {
+        File file = new File(directory, SNAPSHOT_FILE);
+        if (!file.exists()) {
+            readLegacy(totals);
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("不明な形式のスナップショット: " + file);
+            }
+            long compacted = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID playerId = new UUID(in.readLong(), in.readLong());
+                totals.put(playerId, in.readLong());
+            }
+            return compacted;
+        }
+    }
+
+    /**
+     * 旧形式 (全件をJSONで保存していた playtime.json) の読み込み
+     */
+    private void readLegacy(Map<UUID, Long> totals) throws IOException {
+        File file = new File(directory, LEGACY_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Map<String, Long> data = new Gson().fromJson(reader, new TypeToken<Map<String, Long>>() {}.getType());
+            if (data == null) {
+                return;
+            }
+            for (Map.Entry<String, Long> entry : data.entrySet()) {
+                try {
+                    totals.put(UUID.fromString(entry.getKey()), entry.getValue());
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * スナップショットを一時ファイルに書き、ディスクへ同期してから置き換える
+     */
+    private void writeSnapshot(Map<UUID, Long> totals, long compacted) throws IOException {
+        File target = new File(directory, SNAPSHOT_FILE);
+        File temp = new File(directory, SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temp);
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(fos))) {
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeInt(SNAPSHOT_VERSION);
+            data.writeLong(compacted);
+            data.writeInt(totals.size());
+            for (Map.Entry<UUID, Long> entry : totals.entrySet()) {
+                data.writeLong(entry.getKey().getMostSignificantBits());
+                data.writeLong(entry.getKey().getLeastSignificantBits());
+                data.writeLong(entry.getValue());
+            }
+            data.flush();
+            fos.getFD().sync();
+        }
+        try {
+            Files.move(temp.toPath(), target.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * ジャーナルを再生して累計に加算
+     * 書き込み途中で停止した末尾の不完全なレコードは無視する
+     *
+     * @return 再生したレコード数
+     */
+    private long replay(File segment, Map<UUID, Long> totals) throws IOException {
+        long records = segment.length() / RECORD_BYTES;
+        if (segment.length() % RECORD_BYTES != 0) {
+            logger.warning("勤務時間ジャーナルの末尾が不完全なため無視します: " + segment.getName());
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            for (long i = 0; i < records; i++) {
+                UUID playerId = new UUID(in.readLong(), in.readLong());
+                totals.merge(playerId, in.readLong(), Long::sum);
+            }
+        } catch (EOFException e) {
+            // 読み込み中に切り詰められた場合
+        }
+        return records;
+    }
+
+    private List<Long> listSegments() {
+        List<Long> segments = new ArrayList<>();
+        String[] names = directory.list();
+        if (names == null) {
+            return segments;
+        }
+        for (String name : names) {
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    segments.add(Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private File segmentFile(long segment) {
+        return new File(directory, SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+    }
+
+    private DataOutputStream openSegment(long segment) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(segmentFile(segment), true)));
+    }
+
+    private static void closeQuietly(DataOutputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.irondiscipline.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * ストレージ処理の実行基盤
+ * 読み込みと書き込みを別々の固定スレッド数・上限付きキューで実行し、
+ * 遅い書き込みの後ろに読み込みが詰まらないようにする。
+ * キューが満杯の場合は {@link StorageRejectedException} で失敗したFutureを返す。
+ */
+public class StorageExecutor {
+
+    /**
+     * 実行レーン
+     */
+    public enum Lane {
+        READ("読み込み"),
+        WRITE("書き込み");
+
+        private final String displayName;
+
+        Lane(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * キュー満杯などで処理を受け付けられなかった場合の例外
+     */
+    public static class StorageRejectedException extends RejectedExecutionException {
+        public StorageRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    private final Logger logger;
+    private final Map<Lane, LaneExecutor> lanes = new ConcurrentHashMap<>();
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    public StorageExecutor(Logger logger, int readThreads, int readQueueSize,
+            int writeThreads, int writeQueueSize) {
+        this.logger = logger;
+        lanes.put(Lane.READ, new LaneExecutor(Lane.READ,
+                readThreads > 0 ? readThreads : 4, readQueueSize > 0 ? readQueueSize : 1000));
+        lanes.put(Lane.WRITE, new LaneExecutor(Lane.WRITE,
+                writeThreads > 0 ? writeThreads : 2, writeQueueSize > 0 ? writeQueueSize : 5000));
+    }
+
+    /**
+     * 値を返す処理を指定レーンで実行
+     *
+     * @param operation メトリクス集計用の処理名
+     */
+    public <T> CompletableFuture<T> supply(Lane lane, String operation, Supplier<T> task) {
+        OperationStats stats = operations.computeIfAbsent(operation, OperationStats::new);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long submitted = System.nanoTime();
+
+        try {
+            lanes.get(lane).executor.execute(() -> {
+                long started = System.nanoTime();
+                T result = null;
+                Throwable failure = null;
+                try {
+                    result = task.get();
+                } catch (Throwable t) {
+                    failure = t;
+                }
+                // 完了通知より先に記録する (完了直後に統計を参照する呼び出し元のため)
+                stats.record(started - submitted, System.nanoTime() - started);
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stats.rejected.incrementAndGet();
+            StorageRejectedException rejected = new StorageRejectedException(
+                    "ストレージ処理を受け付けられません (" + lane.getDisplayName() + "キュー満杯): " + operation);
+            logger.warning(rejected.getMessage());
+            future.completeExceptionally(rejected);
+        }
+        return future;
+    }
+
+    /**
+     * 値を返さない処理を指定レーンで実行
+     */
+    public CompletableFuture<Void> run(Lane lane, String operation, Runnable task) {
+        return supply(lane, operation, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public <T> CompletableFuture<T> read(String operation, Supplier<T> task) {
+        return supply(Lane.READ, operation, task);
+    }
+
+    public CompletableFuture<Void> write(String operation, Runnable task) {
+        return run(Lane.WRITE, operation, task);
+    }
+
+    /**
+     * 新規受付を停止し、キュー内の処理の完了を待つ
+     */
+    public void shutdown(long timeoutMillis) {
+        for (LaneExecutor lane : lanes.values()) {
+            lane.executor.shutdown();
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (LaneExecutor lane : lanes.values()) {
+            try {
+                long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                if (!lane.executor.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                    logger.warning("ストレージ処理が時間内に終了しませんでした (" + lane.lane.getDisplayName()
+                            + ", 残り" + lane.executor.getQueue().size() + "件)");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // ===== Metrics =====
+
+    public int getActiveCount(Lane lane) {
+        return lanes.get(lane).executor.getActiveCount();
+    }
+
+    public int getThreadCount(Lane lane) {
+        return lanes.get(lane).executor.getMaximumPoolSize();
+    }
+
+    public int getQueueDepth(Lane lane) {
+        return lanes.get(lane).executor.getQueue().size();
+    }
+
+    public int getQueueCapacity(Lane lane) {
+        return lanes.get(lane).queueCapacity;
+    }
+
+    public long getCompletedCount(Lane lane) {
+        return lanes.get(lane).executor.getCompletedTaskCount();
+    }
+
+    public long getRejectedCount(Lane lane) {
+        return lanes.get(lane).rejected.get();
+    }
+
+    /**
+     * 処理名ごとの統計 (平均実行時間の降順)
+     */
+    public List<OperationStats> getOperationStats() {
+        List<OperationStats> list = new ArrayList<>(operations.values());
+        list.sort((a, b) -> Double.compare(b.getAverageExecMillis(), a.getAverageExecMillis()));
+        return list;
+    }
+
+    public OperationStats getOperationStats(String operation) {
+        return operations.get(operation);
+    }
+
+    private final class LaneExecutor {
+        private final Lane lane;
+        private final int queueCapacity;
+        private final AtomicLong rejected = new AtomicLong();
+        private final ThreadPoolExecutor executor;
+
+        private LaneExecutor(Lane lane, int threads, int queueCapacity) {
+            this.lane = lane;
+            this.queueCapacity = queueCapacity;
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread t = new Thread(r, "IronDiscipline-DB-" + lane.name().toLowerCase() + "-"
+                                + counter.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    (r, exec) -> {
+                        rejected.incrementAndGet();
+                        throw new RejectedExecutionException(lane.name() + " lane saturated");
+                    });
+        }
+    }
+
+    /**
+     * 処理名ごとのキュー待ち時間・実行時間の統計
+     */
+    public static final class OperationStats {
+        private final String name;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong totalExecNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLong maxExecNanos = new AtomicLong();
+
+        private OperationStats(String name) {
+            this.name = name;
+        }
+
+        private void record(long waitNanos, long execNanos) {
+            count.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            totalExecNanos.addAndGet(execNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            maxExecNanos.accumulateAndGet(execNanos, Math::max);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getRejectedCount() {
+            return rejected.get();
+        }
+
+        public double getAverageWaitMillis() {
+            long c = count.get();
+            return c == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / c;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos.get() / 1_000_000.0;
+        }
+
+        public double getAverageExecMillis() {
+            long c = count.get();
+            return c == 0 ? 0 : totalExecNanos.get() / 1_000_000.0 / c;
+        }
+
+        public double getMaxExecMillis() {
+            return maxExecNanos.get() / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.irondiscipline.util;
+
+import com.irondiscipline.model.DailyPlaytime;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 日別勤務時間の書き込みバッファ
+ * オンライン中のプレイヤーの経過時間を日付の境目で分けて (プレイヤー, 日付) ごとに溜め、
+ * まとめてDBへ加算できるよう取り出す。本日分の合計もメモリで保持する。
+ * 時刻は呼び出し元から渡す (テストで固定できるよう)。スレッドセーフ (各メソッドは同期化されている)。
+ */
+public class DailyPlaytimeBuffer {
+
+    private final ZoneId zone;
+
+    // 計上済みの時刻 (オンライン中のプレイヤーのみ)
+    private final Map<UUID, Long> accountedUntil = new HashMap<>();
+    // DB未反映の加算 (プレイヤー → エポック日 → ミリ秒)
+    private final Map<UUID, Map<Long, Long>> pending = new HashMap<>();
+    // 本日の合計 (DBの値 + このサーバーで計上した分)
+    private final Map<UUID, Long> today = new HashMap<>();
+    private long todayEpochDay = Long.MIN_VALUE;
+
+    public DailyPlaytimeBuffer(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * 計上を開始 (ログイン時)
+     *
+     * @return 本日分をDBから読み込む必要がある場合true (本日このサーバーでまだ計上していない)
+     */
+    public synchronized boolean start(UUID playerId, long now) {
+        rollOver(now);
+        accountedUntil.put(playerId, now);
+        return today.putIfAbsent(playerId, 0L) == null;
+    }
+
+    /**
+     * DBから読み込んだ本日分を加える
+     */
+    public synchronized void addStoredToday(UUID playerId, long epochDay, long millis) {
+        if (epochDay == todayEpochDay && millis > 0) {
+            today.merge(playerId, millis, Long::sum);
+        }
+    }
+
+    /**
+     * 前回の計上からの経過時間を日付ごとに分けて溜める
+     */
+    public synchronized void account(UUID playerId, long now) {
+        rollOver(now);
+        Long from = accountedUntil.get(playerId);
+        if (from == null || now <= from) {
+            return;
+        }
+        accountedUntil.put(playerId, now);
+        addSpan(playerId, from, now, 1);
+    }
+
+    /**
+     * 計上して終了 (ログアウト時)
+     */
+    public synchronized void stop(UUID playerId, long now) {
+        account(playerId, now);
+        accountedUntil.remove(playerId);
+    }
+
+    /**
+     * 過去の時刻で計上を終了 (AFK時、最後に活動した時刻で区切る)
+     * 定期計上で既に end より後まで計上していた分は差し引く。
+     * DBへ反映済みの分は負の加算として溜め、次回のまとめで打ち消す。
+     */
+    public synchronized void stopAt(UUID playerId, long end, long now) {
+        account(playerId, now);
+        Long until = accountedUntil.remove(playerId);
+        if (until != null && end < until) {
+            addSpan(playerId, end, until, -1);
+        }
+    }
+
+    /**
+     * オンライン中の全員を計上
+     */
+    public synchronized void accountAll(long now) {
+        for (UUID playerId : new ArrayList<>(accountedUntil.keySet())) {
+            account(playerId, now);
+        }
+    }
+
+    /**
+     * DB未反映の加算を取り出す
+     */
+    public synchronized List<DailyPlaytime> drain() {
+        List<DailyPlaytime> entries = new ArrayList<>();
+        pending.forEach((playerId, days) -> days.forEach((day, millis) ->
+                entries.add(new DailyPlaytime(playerId, day, millis))));
+        pending.clear();
+        return entries;
+    }
+
+    /**
+     * DBへの反映に失敗した加算を戻す (次回まとめて再送する)
+     */
+    public synchronized void restore(List<DailyPlaytime> entries) {
+        for (DailyPlaytime entry : entries) {
+            pending.computeIfAbsent(entry.getPlayerId(), k -> new HashMap<>())
+                    .merge(entry.getEpochDay(), entry.getMillis(), Long::sum);
+        }
+    }
+
+    /**
+     * 本日の勤務時間 (未計上のオンライン時間を含む)
+     */
+    public synchronized long getToday(UUID playerId, long now) {
+        rollOver(now);
+        long total = today.getOrDefault(playerId, 0L);
+        Long from = accountedUntil.get(playerId);
+        if (from != null) {
+            total += Math.max(0, now - Math.max(from, startOfDay(todayEpochDay)));
+        }
+        return total;
+    }
+
+    /**
+     * DB未反映の分と未計上のオンライン時間のうち、期間内 (両端の日を含む) の合計
+     */
+    public synchronized long getUnsaved(UUID playerId, long fromDay, long toDay, long now) {
+        long total = 0;
+        Map<Long, Long> days = pending.get(playerId);
+        if (days != null) {
+            for (Map.Entry<Long, Long> entry : days.entrySet()) {
+                if (entry.getKey() >= fromDay && entry.getKey() <= toDay) {
+                    total += entry.getValue();
+                }
+            }
+        }
+        Long from = accountedUntil.get(playerId);
+        if (from != null) {
+            long start = Math.max(from, startOfDay(fromDay));
+            long end = Math.min(now, startOfDay(toDay + 1));
+            total += Math.max(0, end - start);
+        }
+        return total;
+    }
+
+    public long toEpochDay(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    public long startOfDay(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * [from, to) を日付ごとに分けて加算 (sign が負の場合は差し引く)
+     */
+    private void addSpan(UUID playerId, long from, long to, int sign) {
+        long start = from;
+        while (start < to) {
+            long day = toEpochDay(start);
+            long end = Math.min(to, startOfDay(day + 1));
+            long millis = sign * (end - start);
+            pending.computeIfAbsent(playerId, k -> new HashMap<>()).merge(day, millis, Long::sum);
+            if (day == todayEpochDay) {
+                today.computeIfPresent(playerId, (k, v) -> Math.max(0, v + millis));
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * 日付が変わっていれば本日分をリセット
+     */
+    private void rollOver(long now) {
+        long day = toEpochDay(now);
+        if (day != todayEpochDay) {
+            todayEpochDay = day;
+            today.clear();
+            // オンライン中のプレイヤーは新しい日の分を計上していく
+            for (UUID playerId : accountedUntil.keySet()) {
+                today.put(playerId, 0L);
+            }
+        }
+    }
+}
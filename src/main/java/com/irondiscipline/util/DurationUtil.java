@@ -0,0 +1,59 @@
+package com.irondiscipline.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 期間表記 ("30m", "1h30m", "2d" など) の変換
+ */
+public class DurationUtil {
+
+    private static final Pattern FULL = Pattern.compile("(?i)(\\d+[smhdw])+");
+    private static final Pattern PART = Pattern.compile("(?i)(\\d+)([smhdw])");
+
+    /**
+     * 期間表記をミリ秒に変換
+     *
+     * @return 期間表記でない場合-1
+     */
+    public static long parse(String text) {
+        if (text == null || !FULL.matcher(text).matches()) {
+            return -1;
+        }
+        long total = 0;
+        Matcher matcher = PART.matcher(text);
+        try {
+            while (matcher.find()) {
+                long value = Long.parseLong(matcher.group(1));
+                long unit = switch (Character.toLowerCase(matcher.group(2).charAt(0))) {
+                    case 's' -> 1000L;
+                    case 'm' -> 60_000L;
+                    case 'h' -> 3_600_000L;
+                    case 'd' -> 86_400_000L;
+                    default -> 604_800_000L;
+                };
+                total = Math.addExact(total, Math.multiplyExact(value, unit));
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            return -1;
+        }
+        return total;
+    }
+
+    /**
+     * ミリ秒を "1日2時間3分" 形式に変換 (1分未満は秒で表示)
+     */
+    public static String format(long millis) {
+        long seconds = Math.max(0, millis) / 1000;
+        long days = seconds / 86400;
+        long hours = seconds % 86400 / 3600;
+        long minutes = seconds % 3600 / 60;
+
+        StringBuilder sb = new StringBuilder();
+        if (days > 0) sb.append(days).append("日");
+        if (hours > 0) sb.append(hours).append("時間");
+        if (minutes > 0) sb.append(minutes).append("分");
+        if (sb.length() == 0) sb.append(seconds).append("秒");
+        return sb.toString();
+    }
+}
@@ -7,10 +7,23 @@ import org.bukkit.util.io.BukkitObjectOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 public class InventoryUtil {
 
+    /**
+     * バイナリ形式の先頭 ("ID" + バージョン)
+     * Base64文字列の3文字目が0x01になることはないため、旧形式と区別できる
+     */
+    private static final byte MAGIC_0 = 'I';
+    private static final byte MAGIC_1 = 'D';
+    private static final byte FORMAT_VERSION = 1;
+
     /**
      * ItemStack配列をBase64文字列に変換
      */
@@ -39,21 +52,81 @@ public class InventoryUtil {
         if (data == null || data.isEmpty())
             return null;
 
+        return fromBytes(data.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * ItemStack配列を圧縮バイナリ形式に変換
+     * (ヘッダー + Deflate圧縮したオブジェクトストリーム。Base64を経由しない)
+     */
+    public static byte[] toBytes(ItemStack[] items) {
         try {
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(Base64.getDecoder().decode(data));
-            BukkitObjectInputStream dataInput = new BukkitObjectInputStream(inputStream);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            outputStream.write(MAGIC_0);
+            outputStream.write(MAGIC_1);
+            outputStream.write(FORMAT_VERSION);
+
+            // 自前で渡したDeflaterはストリームを閉じても解放されないため、明示的に解放する
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                DeflaterOutputStream compressed = new DeflaterOutputStream(outputStream, deflater);
+                BukkitObjectOutputStream dataOutput = new BukkitObjectOutputStream(compressed);
+
+                dataOutput.writeInt(items.length);
+
+                for (ItemStack item : items) {
+                    dataOutput.writeObject(item);
+                }
+
+                dataOutput.close();
+            } finally {
+                deflater.end();
+            }
+            return outputStream.toByteArray();
+        } catch (Exception e) {
+            throw new IllegalStateException("インベントリの保存に失敗しました", e);
+        }
+    }
 
-            ItemStack[] items = new ItemStack[dataInput.readInt()];
+    /**
+     * バックアップをItemStack配列に復元
+     * 圧縮バイナリ形式と、旧形式のBase64文字列 (ASCIIバイト列) の両方に対応
+     */
+    public static ItemStack[] fromBytes(byte[] data) {
+        if (data == null || data.length == 0)
+            return null;
 
-            for (int i = 0; i < items.length; i++) {
-                items[i] = (ItemStack) dataInput.readObject();
+        try {
+            InputStream inputStream;
+            if (isBinaryFormat(data)) {
+                if (data[2] != FORMAT_VERSION) {
+                    throw new IOException("未対応のバックアップ形式: v" + data[2]);
+                }
+                inputStream = new InflaterInputStream(new ByteArrayInputStream(data, 3, data.length - 3));
+            } else {
+                inputStream = new ByteArrayInputStream(Base64.getDecoder().decode(data));
             }
 
-            dataInput.close();
-            return items;
-        } catch (ClassNotFoundException | IOException e) {
+            try (BukkitObjectInputStream dataInput = new BukkitObjectInputStream(inputStream)) {
+                ItemStack[] items = new ItemStack[dataInput.readInt()];
+
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = (ItemStack) dataInput.readObject();
+                }
+
+                return items;
+            }
+        } catch (ClassNotFoundException | IOException | IllegalArgumentException e) {
             e.printStackTrace();
             return null;
         }
     }
+
+    /**
+     * 圧縮バイナリ形式かどうか (falseの場合は旧形式のBase64文字列)
+     */
+    public static boolean isBinaryFormat(byte[] data) {
+        return data != null && data.length >= 3 && data[0] == MAGIC_0 && data[1] == MAGIC_1
+                && data[2] > 0 && data[2] < '+';
+    }
 }
@@ -0,0 +1,166 @@
+package com.irondiscipline.util;
+
+import com.irondiscipline.model.JailCell;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * 監房の割り当て管理
+ * 空きのある監房を収容人数の少ない順に並べた索引を持ち、
+ * 割り当て・解放は監房数の対数時間で行う (隔離のたびに全監房を調べない)。
+ * スレッドセーフ (各メソッドは同期化されている)。
+ */
+public class JailCellAllocator {
+
+    private static final class Slot {
+        JailCell cell;
+        final Set<UUID> occupants = new HashSet<>();
+
+        Slot(JailCell cell) {
+            this.cell = cell;
+        }
+
+        boolean hasRoom() {
+            return cell.getCapacity() == 0 || occupants.size() < cell.getCapacity();
+        }
+    }
+
+    // 収容人数の少ない順 → 名前順
+    private final TreeSet<Slot> free = new TreeSet<>(Comparator
+            .comparingInt((Slot s) -> s.occupants.size())
+            .thenComparing(s -> s.cell.getName()));
+    private final Map<String, Slot> slots = new HashMap<>();
+    private final Map<UUID, Slot> assignments = new HashMap<>();
+
+    /**
+     * 監房の一覧を置き換える
+     * 残った監房の割り当ては引き継ぎ、なくなった監房の割り当ては解除する
+     */
+    public synchronized void setCells(Collection<JailCell> cells) {
+        Map<String, Slot> previous = new HashMap<>(slots);
+        slots.clear();
+        free.clear();
+        for (JailCell cell : cells) {
+            Slot slot = previous.remove(cell.getName());
+            if (slot == null) {
+                slot = new Slot(cell);
+            } else {
+                slot.cell = cell;
+            }
+            slots.put(cell.getName(), slot);
+            if (slot.hasRoom()) {
+                free.add(slot);
+            }
+        }
+        for (Slot removed : previous.values()) {
+            for (UUID playerId : removed.occupants) {
+                assignments.remove(playerId);
+            }
+        }
+    }
+
+    /**
+     * 最も空いている監房を割り当てる (割り当て済みならその監房)
+     *
+     * @return 空きがない場合null
+     */
+    public synchronized JailCell assign(UUID playerId) {
+        Slot current = assignments.get(playerId);
+        if (current != null) {
+            return current.cell;
+        }
+        if (free.isEmpty()) {
+            return null;
+        }
+        Slot slot = free.first();
+        add(slot, playerId);
+        return slot.cell;
+    }
+
+    /**
+     * 指定の監房に割り当てる (保存済みの割り当ての復元など、収容人数は超えてもよい)
+     *
+     * @return 監房が存在しない場合null
+     */
+    public synchronized JailCell occupy(UUID playerId, String cellName) {
+        Slot slot = slots.get(cellName);
+        if (slot == null) {
+            return null;
+        }
+        Slot current = assignments.get(playerId);
+        if (current == slot) {
+            return slot.cell;
+        }
+        if (current != null) {
+            remove(current, playerId);
+        }
+        add(slot, playerId);
+        return slot.cell;
+    }
+
+    /**
+     * 割り当てを解除
+     */
+    public synchronized void release(UUID playerId) {
+        Slot slot = assignments.get(playerId);
+        if (slot != null) {
+            remove(slot, playerId);
+        }
+    }
+
+    public synchronized JailCell getAssignedCell(UUID playerId) {
+        Slot slot = assignments.get(playerId);
+        return slot != null ? slot.cell : null;
+    }
+
+    public synchronized JailCell getCell(String name) {
+        Slot slot = slots.get(name);
+        return slot != null ? slot.cell : null;
+    }
+
+    public synchronized int getOccupancy(String name) {
+        Slot slot = slots.get(name);
+        return slot != null ? slot.occupants.size() : 0;
+    }
+
+    public synchronized boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    public synchronized List<JailCell> getCells() {
+        List<JailCell> cells = new ArrayList<>();
+        for (Slot slot : slots.values()) {
+            cells.add(slot.cell);
+        }
+        cells.sort(Comparator.comparing(JailCell::getName));
+        return cells;
+    }
+
+    private void add(Slot slot, UUID playerId) {
+        // 並び順が変わるため索引から外してから更新する
+        free.remove(slot);
+        slot.occupants.add(playerId);
+        assignments.put(playerId, slot);
+        if (slot.hasRoom()) {
+            free.add(slot);
+        }
+    }
+
+    private void remove(Slot slot, UUID playerId) {
+        free.remove(slot);
+        slot.occupants.remove(playerId);
+        assignments.remove(playerId);
+        if (slot.hasRoom() && slots.get(slot.cell.getName()) == slot) {
+            free.add(slot);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.irondiscipline.util;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * スコアの高い順に並べたランキングの索引
+ * 部分木の要素数を持つ平衡二分木 (treap) で、スコアの更新・上位K件・指定キーの順位を
+ * いずれも要素数の対数時間で求める (取得のたびに全件を並べ替えない)。
+ * 同じスコアはキーの昇順に並べる。スレッドセーフ (各メソッドは同期化されている)。
+ */
+public class Leaderboard<K extends Comparable<K>> {
+
+    private static final class Node<K> {
+        final K key;
+        final long score;
+        final int priority;
+        Node<K> left, right;
+        int size = 1;
+
+        Node(K key, long score) {
+            this.key = key;
+            this.score = score;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private Node<K> root;
+    // キー → 現在のスコア (木から取り除く時の位置の特定用)
+    private final Map<K, Long> scores = new HashMap<>();
+
+    /**
+     * スコアを登録・更新
+     */
+    public synchronized void update(K key, long score) {
+        Long previous = scores.put(key, score);
+        if (previous != null) {
+            if (previous == score) {
+                return;
+            }
+            root = delete(root, key, previous);
+        }
+        root = insert(root, new Node<>(key, score));
+    }
+
+    /**
+     * ランキングから除外
+     */
+    public synchronized void remove(K key) {
+        Long previous = scores.remove(key);
+        if (previous != null) {
+            root = delete(root, key, previous);
+        }
+    }
+
+    /**
+     * 順位 (1位から、登録されていない場合-1)
+     */
+    public synchronized int rank(K key) {
+        Long score = scores.get(key);
+        if (score == null) {
+            return -1;
+        }
+        int before = 0;
+        Node<K> node = root;
+        while (node != null) {
+            int cmp = compare(key, score, node);
+            if (cmp == 0) {
+                return before + size(node.left) + 1;
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 登録済みのスコア (登録されていない場合null)
+     */
+    public synchronized Long getScore(K key) {
+        return scores.get(key);
+    }
+
+    /**
+     * 上位 limit 件 (スコアの高い順)
+     */
+    public synchronized List<Map.Entry<K, Long>> top(int limit) {
+        List<Map.Entry<K, Long>> result = new ArrayList<>(Math.max(0, Math.min(limit, scores.size())));
+        collect(root, limit, result);
+        return result;
+    }
+
+    public synchronized int size() {
+        return scores.size();
+    }
+
+    private void collect(Node<K> node, int limit, List<Map.Entry<K, Long>> result) {
+        if (node == null || result.size() >= limit) {
+            return;
+        }
+        collect(node.left, limit, result);
+        if (result.size() < limit) {
+            result.add(new AbstractMap.SimpleImmutableEntry<>(node.key, node.score));
+            collect(node.right, limit, result);
+        }
+    }
+
+    // スコアの降順 → キーの昇順
+    private int compare(K key, long score, Node<K> node) {
+        int cmp = Long.compare(node.score, score);
+        return cmp != 0 ? cmp : key.compareTo(node.key);
+    }
+
+    private Node<K> insert(Node<K> node, Node<K> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.key, added.score, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        resize(node);
+        return node;
+    }
+
+    private Node<K> delete(Node<K> node, K key, long score) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(key, score, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, key, score);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, key, score);
+        } else {
+            return merge(node.left, node.right);
+        }
+        resize(node);
+        return node;
+    }
+
+    private Node<K> merge(Node<K> left, Node<K> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            resize(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        resize(right);
+        return right;
+    }
+
+    private Node<K> rotateRight(Node<K> node) {
+        Node<K> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        resize(node);
+        resize(pivot);
+        return pivot;
+    }
+
+    private Node<K> rotateLeft(Node<K> node) {
+        Node<K> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        resize(node);
+        resize(pivot);
+        return pivot;
+    }
+
+    private static <K> int size(Node<K> node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static <K> void resize(Node<K> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+}
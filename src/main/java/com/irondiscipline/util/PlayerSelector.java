@@ -0,0 +1,193 @@
+package com.irondiscipline.util;
+
+import com.irondiscipline.IronDiscipline;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 一括処理用のプレイヤー指定
+ * <ul>
+ *   <li>{@code @division:<部隊>} - 部隊のオンラインのメンバー (実行者を除く)</li>
+ *   <li>{@code @radius:<ブロック>} - 実行者から半径以内のプレイヤー (実行者を除く)</li>
+ *   <li>{@code a,b,c} - カンマ区切りのプレイヤー名 (オンラインのみ)</li>
+ * </ul>
+ * 階級の一括変更などオフラインのプレイヤーも対象にする場合は名簿指定を使う
+ * <ul>
+ *   <li>{@code --division <部隊>} - 部隊の全メンバー</li>
+ *   <li>{@code --list <名前...>} - 空白またはカンマ区切りのプレイヤー名</li>
+ * </ul>
+ */
+public final class PlayerSelector {
+
+    public static final String DIVISION_PREFIX = "@division:";
+    public static final String RADIUS_PREFIX = "@radius:";
+    public static final String DIVISION_FLAG = "--division";
+    public static final String LIST_FLAG = "--list";
+    // 範囲指定の上限 (ブロック)
+    private static final double MAX_RADIUS = 256;
+
+    private PlayerSelector() {
+    }
+
+    /**
+     * 一括指定かどうか (単体のプレイヤー名でない)
+     */
+    public static boolean isSelector(String arg) {
+        return arg.startsWith("@") || arg.contains(",");
+    }
+
+    /**
+     * 指定に該当するオンラインのプレイヤーを取得
+     * 指定が不正な場合は実行者に通知してnullを返す
+     */
+    public static List<Player> select(IronDiscipline plugin, CommandSender sender, String arg) {
+        String lower = arg.toLowerCase();
+        if (lower.startsWith(DIVISION_PREFIX)) {
+            String division = arg.substring(DIVISION_PREFIX.length());
+            if (!plugin.getDivisionManager().divisionExists(division)) {
+                sender.sendMessage("§c部隊が見つからない: " + division);
+                return null;
+            }
+            List<Player> players = new ArrayList<>();
+            for (UUID memberId : plugin.getDivisionManager().getDivisionMembers(division)) {
+                Player member = Bukkit.getPlayer(memberId);
+                if (member != null && member != sender) {
+                    players.add(member);
+                }
+            }
+            return players;
+        }
+
+        if (lower.startsWith(RADIUS_PREFIX)) {
+            if (!(sender instanceof Player self)) {
+                sender.sendMessage("§c範囲指定はプレイヤーのみ使用可能。");
+                return null;
+            }
+            double radius;
+            try {
+                radius = Double.parseDouble(arg.substring(RADIUS_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                radius = -1;
+            }
+            if (radius <= 0 || radius > MAX_RADIUS) {
+                sender.sendMessage("§c半径は1～" + (int) MAX_RADIUS + "ブロックで指定せよ。");
+                return null;
+            }
+            Location center = self.getLocation();
+            double radiusSquared = radius * radius;
+            List<Player> players = new ArrayList<>();
+            for (Player player : self.getWorld().getPlayers()) {
+                if (player != self && player.getLocation().distanceSquared(center) <= radiusSquared) {
+                    players.add(player);
+                }
+            }
+            return players;
+        }
+
+        if (arg.startsWith("@")) {
+            sender.sendMessage("§c不明な指定: " + arg + " (@division:<部隊>, @radius:<ブロック>, 名前1,名前2)");
+            return null;
+        }
+
+        // カンマ区切りのプレイヤー名 (重複は除く)
+        Set<Player> players = new LinkedHashSet<>();
+        for (String name : arg.split(",")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            Player player = Bukkit.getPlayer(name.trim());
+            if (player == null) {
+                sender.sendMessage(plugin.getConfigManager().getMessage("player_not_found", "%player%", name));
+                continue;
+            }
+            players.add(player);
+        }
+        return new ArrayList<>(players);
+    }
+
+    /**
+     * 名簿指定かどうか
+     */
+    public static boolean isRoster(String arg) {
+        return arg.equalsIgnoreCase(DIVISION_FLAG) || arg.equalsIgnoreCase(LIST_FLAG);
+    }
+
+    /**
+     * 名簿指定に該当するプレイヤー (オフラインを含む) を取得
+     * オフラインのプレイヤー名はUUIDの解決にWebリクエストが発生し得るため非同期で解決し、
+     * 結果はメインスレッドで返す。指定が不正な場合は実行者に通知してnullを返す
+     */
+    public static CompletableFuture<List<UUID>> selectRoster(IronDiscipline plugin, CommandSender sender,
+            String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage("§c使用法: " + DIVISION_FLAG + " <部隊> または " + LIST_FLAG + " <名前...>");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (args[0].equalsIgnoreCase(DIVISION_FLAG)) {
+            String division = args[1];
+            if (!plugin.getDivisionManager().divisionExists(division)) {
+                sender.sendMessage("§c部隊が見つからない: " + division);
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.completedFuture(
+                    new ArrayList<>(plugin.getDivisionManager().getDivisionMembers(division)));
+        }
+
+        // 名前の一覧 (重複は除く、オンラインのプレイヤーはその場で解決)
+        Set<UUID> players = new LinkedHashSet<>();
+        List<String> offlineNames = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            for (String name : args[i].split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                Player online = Bukkit.getPlayer(name.trim());
+                if (online != null) {
+                    players.add(online.getUniqueId());
+                } else {
+                    offlineNames.add(name.trim());
+                }
+            }
+        }
+        if (offlineNames.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>(players));
+        }
+
+        CompletableFuture<List<UUID>> done = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> {
+            List<OfflinePlayer> resolved = new ArrayList<>(offlineNames.size());
+            for (String name : offlineNames) {
+                resolved.add(Bukkit.getOfflinePlayer(name));
+            }
+            return resolved;
+        }).whenComplete((resolved, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (error != null) {
+                sender.sendMessage("§cプレイヤー名の解決に失敗しました");
+                done.complete(null);
+                return;
+            }
+            for (int i = 0; i < resolved.size(); i++) {
+                OfflinePlayer offline = resolved.get(i);
+                if (!offline.hasPlayedBefore()) {
+                    sender.sendMessage(plugin.getConfigManager().getMessage("player_not_found",
+                            "%player%", offlineNames.get(i)));
+                    continue;
+                }
+                players.add(offline.getUniqueId());
+            }
+            done.complete(new ArrayList<>(players));
+        }));
+        return done;
+    }
+}
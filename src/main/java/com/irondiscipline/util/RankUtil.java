@@ -29,10 +29,11 @@ public class RankUtil {
         }
 
         Rank rank = plugin.getRankManager().getRank(player);
-        // LIEUTENANT = 少尉 (weight 40)
-        if (rank.getWeight() < Rank.LIEUTENANT.getWeight()) {
+        // 士官 (既定では少尉 = weight 40) 以上
+        int officerWeight = plugin.getConfigManager().getOfficerWeight();
+        if (rank.getWeight() < officerWeight) {
             sender.sendMessage(plugin.getConfigManager().getMessage("rank_insufficient")
-                    .replace("{required}", Rank.LIEUTENANT.getDisplay()));
+                    .replace("{required}", Rank.ladder().atLeast(officerWeight).getDisplay()));
             return false;
         }
         return true;
@@ -21,8 +21,8 @@ public class TabNametagUtil {
     public static void updatePlayer(Player player, Rank rank) {
         Scoreboard scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
         
-        // チーム名（ソート順のため重みを使用）
-        String teamName = TEAM_PREFIX + String.format("%03d", 100 - rank.getWeight());
+        // チーム名（上位の階級ほど先に並ぶ）
+        String teamName = TEAM_PREFIX + rank.getSortKey();
         
         // 既存チームから削除
         for (Team team : scoreboard.getTeams()) {
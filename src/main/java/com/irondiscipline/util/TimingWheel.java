@@ -0,0 +1,197 @@
+package com.irondiscipline.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 階層型タイミングホイール
+ * 期限付きのキーを登録し、時刻を進めると期限を迎えたキーを返す。
+ * 登録・取消はO(1)、1tickあたりの処理は登録数に関係なくその時刻のスロット分のみ。
+ *
+ * 64スロット×4段 (約1677万tick、1秒tickで約194日) を超える期限は
+ * 溢れリストに置き、最上段が一周するたびに入れ直す。
+ * スレッドセーフ (各メソッドは同期化されている)。
+ */
+public class TimingWheel<K> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private static final class Node<K> {
+        final K key;
+        final long deadline;
+        Node<K> prev;
+        Node<K> next;
+        List<Node<K>> overflow;
+        int level = -1;
+        int slot;
+
+        Node(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Node<K>[][] heads = new Node[LEVELS][SLOTS];
+    private final List<Node<K>> overflow = new ArrayList<>();
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param startTick 現在時刻 (tick)
+     */
+    public TimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    /**
+     * キーを期限付きで登録 (登録済みの場合は期限を置き換える)
+     * 現在時刻以前の期限は次の {@link #advanceTo} で期限切れになる
+     */
+    public synchronized void schedule(K key, long deadlineTick) {
+        cancel(key);
+        Node<K> node = new Node<>(key, Math.max(deadlineTick, currentTick + 1));
+        nodes.put(key, node);
+        place(node);
+    }
+
+    /**
+     * 登録を取り消す
+     *
+     * @return 登録されていた場合true
+     */
+    public synchronized boolean cancel(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    public synchronized boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+
+    /**
+     * 登録中のキーの期限 (未登録の場合-1)
+     */
+    public synchronized long getDeadline(K key) {
+        Node<K> node = nodes.get(key);
+        return node != null ? node.deadline : -1;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public synchronized long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * 指定時刻まで進め、期限を迎えたキーを期限順に返す
+     */
+    public synchronized List<K> advanceTo(long tick) {
+        List<K> expired = new ArrayList<>();
+        while (currentTick < tick) {
+            currentTick++;
+            cascade();
+
+            int slot = (int) (currentTick & SLOT_MASK);
+            Node<K> node = heads[0][slot];
+            heads[0][slot] = null;
+            while (node != null) {
+                Node<K> next = node.next;
+                node.prev = node.next = null;
+                node.level = -1;
+                nodes.remove(node.key);
+                expired.add(node.key);
+                node = next;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 上段のスロットが現在時刻に達したら中身を下段へ入れ直す
+     */
+    private void cascade() {
+        if ((currentTick & (SPAN - 1)) == 0 && !overflow.isEmpty()) {
+            List<Node<K>> pending = new ArrayList<>(overflow);
+            overflow.clear();
+            for (Node<K> node : pending) {
+                node.level = -1;
+                node.overflow = null;
+                place(node);
+            }
+        }
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            long unit = 1L << (SLOT_BITS * level);
+            if ((currentTick & (unit - 1)) != 0) {
+                continue;
+            }
+            int slot = (int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK);
+            Node<K> node = heads[level][slot];
+            heads[level][slot] = null;
+            while (node != null) {
+                Node<K> next = node.next;
+                node.prev = node.next = null;
+                node.level = -1;
+                place(node);
+                node = next;
+            }
+        }
+    }
+
+    private void place(Node<K> node) {
+        long delta = node.deadline - currentTick;
+        if (delta >= SPAN) {
+            node.overflow = overflow;
+            overflow.add(node);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long index = Math.max(node.deadline, currentTick) >> (SLOT_BITS * level);
+        int slot = (int) (index & SLOT_MASK);
+
+        node.level = level;
+        node.slot = slot;
+        node.prev = null;
+        node.next = heads[level][slot];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        heads[level][slot] = node;
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.overflow != null) {
+            node.overflow.remove(node);
+            node.overflow = null;
+            return;
+        }
+        if (node.level < 0) {
+            return;
+        }
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            heads[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = node.next = null;
+        node.level = -1;
+    }
+}
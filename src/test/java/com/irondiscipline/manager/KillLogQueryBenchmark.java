@@ -0,0 +1,136 @@
+package com.irondiscipline.manager;
+
+import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.model.KillLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * プレイヤー別戦闘ログ検索のベンチマーク
+ * 旧クエリ (killer_id = ? OR victim_id = ?) と複合インデックス+マージ方式を比較する。
+ *
+ * 実行: mvn test -Dtest=KillLogQueryBenchmark -Dirondiscipline.benchmark=true [-Dbenchmark.rows=10000000]
+ */
+@EnabledIfSystemProperty(named = "irondiscipline.benchmark", matches = "true")
+class KillLogQueryBenchmark {
+
+    private static final String LEGACY_SQL = """
+                SELECT * FROM kill_logs
+                WHERE killer_id = ? OR victim_id = ?
+                ORDER BY timestamp DESC
+                LIMIT ?
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void comparePlayerLookup() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        int players = Integer.getInteger("benchmark.players", 5_000);
+        int lookups = Integer.getInteger("benchmark.lookups", 200);
+
+        IronDiscipline plugin = mock(IronDiscipline.class);
+        ConfigManager config = mock(ConfigManager.class);
+        when(plugin.getConfigManager()).thenReturn(config);
+        when(config.getDatabaseType()).thenReturn("h2");
+        // 単一テーブルで旧クエリと比較する
+        when(config.getKillLogPartitioning()).thenReturn("none");
+        when(plugin.getDataFolder()).thenReturn(tempDir.toFile());
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("Benchmark"));
+
+        StorageManager storage = new StorageManager(plugin);
+        try {
+            UUID[] ids = new UUID[players];
+            for (int i = 0; i < players; i++) {
+                ids[i] = UUID.randomUUID();
+            }
+            populate(storage, ids, rows);
+
+            Random random = new Random(42);
+            UUID[] targets = new UUID[lookups];
+            for (int i = 0; i < lookups; i++) {
+                targets[i] = ids[random.nextInt(players)];
+            }
+
+            // ウォームアップ
+            for (int i = 0; i < Math.min(20, lookups); i++) {
+                legacyLookup(storage, targets[i], 11);
+                storage.getKillLogsAsync(targets[i], 11).join();
+            }
+
+            long legacyStart = System.nanoTime();
+            for (UUID target : targets) {
+                legacyLookup(storage, target, 11);
+            }
+            double legacyMillis = (System.nanoTime() - legacyStart) / 1_000_000.0 / lookups;
+
+            long mergedStart = System.nanoTime();
+            for (UUID target : targets) {
+                List<KillLog> logs = storage.getKillLogsAsync(target, 11).join();
+                assertFalse(logs.isEmpty());
+            }
+            double mergedMillis = (System.nanoTime() - mergedStart) / 1_000_000.0 / lookups;
+
+            System.out.printf("[KillLogQueryBenchmark] rows=%d players=%d lookups=%d%n", rows, players, lookups);
+            System.out.printf("[KillLogQueryBenchmark] legacy OR query : %.3f ms/lookup%n", legacyMillis);
+            System.out.printf("[KillLogQueryBenchmark] indexed merge   : %.3f ms/lookup%n", mergedMillis);
+        } finally {
+            storage.shutdown();
+        }
+    }
+
+    private void populate(StorageManager storage, UUID[] ids, int rows) throws Exception {
+        String sql = """
+                    INSERT INTO kill_logs (timestamp, killer_id, killer_name, victim_id, victim_name, weapon, distance)
+                    VALUES (?, ?, 'Killer', ?, 'Victim', 'Bench', 1.0)
+                """;
+        Random random = new Random(1);
+        long now = System.currentTimeMillis();
+        try (Connection conn = storage.getConnectionPool().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < rows; i++) {
+                ps.setLong(1, now - (long) (rows - i) * 1000);
+                ps.setString(2, ids[random.nextInt(ids.length)].toString());
+                ps.setString(3, ids[random.nextInt(ids.length)].toString());
+                ps.addBatch();
+                if (i % 10_000 == 9_999) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+            }
+            ps.executeBatch();
+            conn.commit();
+        }
+    }
+
+    private int legacyLookup(StorageManager storage, UUID playerId, int limit) throws Exception {
+        int count = 0;
+        try (Connection conn = storage.getConnectionPool().getConnection();
+             PreparedStatement ps = conn.prepareStatement(LEGACY_SQL)) {
+            ps.setString(1, playerId.toString());
+            ps.setString(2, playerId.toString());
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -1,6 +1,17 @@
 package com.irondiscipline.manager;
 
 import com.irondiscipline.IronDiscipline;
+import com.irondiscipline.model.DailyPlaytime;
+import com.irondiscipline.model.JailCell;
+import com.irondiscipline.model.JailRecord;
+import com.irondiscipline.model.JailSentence;
+import com.irondiscipline.model.KillLog;
+import com.irondiscipline.model.KillLogPage;
+import com.irondiscipline.util.InventoryUtil;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.inventory.ItemStack;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +21,13 @@ import org.mockito.MockitoAnnotations;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
@@ -54,6 +72,7 @@ class StorageManagerTest {
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     void testGetArmorBackupAsync() {
         UUID playerId = UUID.randomUUID();
         CompletableFuture<String> future = storageManager.getArmorBackupAsync(playerId);
@@ -62,6 +81,7 @@ class StorageManagerTest {
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     void testGetArmorBackupBlocking() {
         UUID playerId = UUID.randomUUID();
         String result = storageManager.getArmorBackup(playerId);
@@ -69,6 +89,7 @@ class StorageManagerTest {
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     void testCachingBehavior() {
         UUID playerId = UUID.randomUUID();
         String armorData = "ArmorBackupData";
@@ -93,4 +114,399 @@ class StorageManagerTest {
         // 4. Fetch again (should be null)
         assertNull(storageManager.getArmorBackup(playerId), "Should be null after removal");
     }
+
+    @Test
+    void testQueuedKillLogsAreWrittenInBatches() {
+        UUID killer = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(storageManager.queueKillLog(KillLog.builder()
+                    .timestamp(1000L + i)
+                    .killer(killer, "Killer")
+                    .victim(UUID.randomUUID(), "Victim" + i)
+                    .weapon("弓")
+                    .location("world", 0, 64, 0)
+                    .build()));
+        }
+        assertTrue(storageManager.flushKillLogs(5000), "Queued logs should be flushed");
+
+        List<KillLog> logs = storageManager.getKillLogsAsync(killer, 10).join();
+        assertEquals(5, logs.size());
+        assertEquals("Victim4", logs.get(0).getVictimName(), "Newest log should come first");
+    }
+
+    @Test
+    void testKillLogKeysetPagination() {
+        UUID player = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        for (int i = 0; i < 23; i++) {
+            // 同一timestampを含めて (timestamp, id) の順序を確認する
+            storageManager.queueKillLog(KillLog.builder()
+                    .timestamp(1000L + i / 3)
+                    .killer(i % 2 == 0 ? player : other, "Killer")
+                    .victim(i % 2 == 0 ? other : player, "Victim" + i)
+                    .build());
+        }
+        storageManager.queueKillLog(KillLog.builder()
+                .killer(UUID.randomUUID(), "Unrelated")
+                .victim(UUID.randomUUID(), "Unrelated")
+                .build());
+        assertTrue(storageManager.flushKillLogs(5000));
+
+        List<KillLog> all = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        String token = null;
+        int pages = 0;
+        do {
+            KillLogPage page = storageManager.getKillLogPageAsync(player, token, 10).join();
+            all.addAll(page.getLogs());
+            page.getLogs().forEach(log -> ids.add(log.getId()));
+            token = page.getNextToken();
+            pages++;
+        } while (token != null);
+
+        assertEquals(3, pages);
+        assertEquals(23, all.size(), "Every log for the player should be returned exactly once");
+        assertEquals(23, ids.size());
+        for (int i = 1; i < all.size(); i++) {
+            KillLog prev = all.get(i - 1);
+            KillLog cur = all.get(i);
+            assertTrue(prev.getTimestamp() > cur.getTimestamp()
+                    || (prev.getTimestamp() == cur.getTimestamp() && prev.getId() > cur.getId()),
+                    "Logs should be ordered by (timestamp, id) descending");
+        }
+    }
+
+    @Test
+    void testInvalidPageTokenFails() {
+        CompletableFuture<KillLogPage> future = storageManager.getKillLogPageAsync(null, "not-a-token", 10);
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    void testPlayerLookupMergesKillerAndVictimSides() {
+        UUID player = UUID.randomUUID();
+        // 自殺 (killerとvictimが同一) は1件として扱う
+        storageManager.queueKillLog(KillLog.builder().timestamp(3000L)
+                .killer(player, "Self").victim(player, "Self").build());
+        storageManager.queueKillLog(KillLog.builder().timestamp(2000L)
+                .killer(UUID.randomUUID(), "Enemy").victim(player, "Self").build());
+        storageManager.queueKillLog(KillLog.builder().timestamp(1000L)
+                .killer(player, "Self").victim(UUID.randomUUID(), "Enemy").build());
+        assertTrue(storageManager.flushKillLogs(5000));
+
+        List<KillLog> logs = storageManager.getKillLogsAsync(player, 10).join();
+        assertEquals(List.of(3000L, 2000L, 1000L), logs.stream().map(KillLog::getTimestamp).toList());
+    }
+
+    @Test
+    void testPlayerLookupUsesCompositeIndexes() throws Exception {
+        try (var conn = storageManager.getConnectionPool().getConnection();
+             var stmt = conn.createStatement()) {
+            String[][] cases = {
+                    { "killer_id", "IDX_KILL_LOGS_KILLER_TS" },
+                    { "victim_id", "IDX_KILL_LOGS_VICTIM_TS" } };
+            for (String[] c : cases) {
+                try (var rs = stmt.executeQuery("EXPLAIN SELECT * FROM kill_logs WHERE " + c[0]
+                        + " = 'x' ORDER BY timestamp DESC, id DESC LIMIT 11")) {
+                    assertTrue(rs.next());
+                    String plan = rs.getString(1).toUpperCase();
+                    assertTrue(plan.contains(c[1]), "Lookup by " + c[0] + " should use " + c[1] + ": " + plan);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testKillLogsSpanMonthlyPartitionsAndLegacyTable() throws Exception {
+        // 月の境目をまたがないよう、今月15日の正午 (UTC) を基準にする
+        long now = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(15)
+                .atTime(12, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+        long day = 24L * 60 * 60 * 1000;
+
+        // 分割前の旧テーブルのデータ
+        try (var conn = storageManager.getConnectionPool().getConnection();
+             var ps = conn.prepareStatement(
+                     "INSERT INTO kill_logs (timestamp, victim_id, victim_name) VALUES (?, ?, 'Legacy')")) {
+            for (long ts : new long[] { now - 400 * day, now - 300 * day, now - 2000 }) {
+                ps.setLong(1, ts);
+                ps.setString(2, UUID.randomUUID().toString());
+                ps.executeUpdate();
+            }
+        }
+        // 再起動して旧テーブルの範囲を読み込ませる
+        storageManager.shutdown();
+        storageManager = new StorageManager(plugin);
+
+        for (long ts : new long[] { now - 200 * day, now - 200 * day + 1, now - 1000, now }) {
+            storageManager.queueKillLog(KillLog.builder().timestamp(ts)
+                    .victim(UUID.randomUUID(), "Partitioned").build());
+        }
+        assertTrue(storageManager.flushKillLogs(5000));
+        assertTrue(storageManager.getKillLogPartitions().getPartitionCount() >= 2);
+
+        assertEquals(List.of(now, now - 1000, now - 2000, now - 200 * day + 1, now - 200 * day,
+                now - 300 * day, now - 400 * day), readAllTimestamps(2));
+
+        // 保存期間30日: 期限切れの月別テーブルはDROP、旧テーブルはチャンク削除
+        when(configManager.getKillLogRetentionDays()).thenReturn(30);
+        when(configManager.getKillLogCleanupChunkSize()).thenReturn(1);
+        storageManager.cleanupOldLogs();
+
+        List<Long> expected = List.of(now, now - 1000, now - 2000);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!readAllTimestamps(10).equals(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, readAllTimestamps(10));
+        assertEquals(1, storageManager.getKillLogPartitions().expiredPartitions(Long.MAX_VALUE).size(),
+                "Only the current month's partition should remain");
+    }
+
+    private List<Long> readAllTimestamps(int pageSize) {
+        List<Long> timestamps = new ArrayList<>();
+        String token = null;
+        do {
+            KillLogPage page = storageManager.getKillLogPageAsync(null, token, pageSize).join();
+            page.getLogs().forEach(log -> timestamps.add(log.getTimestamp()));
+            token = page.getNextToken();
+        } while (token != null);
+        return timestamps;
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testBinaryBackupRoundTripAndLegacyRows() throws Exception {
+        UUID playerId = UUID.randomUUID();
+        byte[] inventory = { 'I', 'D', 1, 10, 20, 30 };
+        byte[] armor = { 'I', 'D', 1, 40 };
+        assertTrue(storageManager.saveJailedPlayerAsync(playerId, "Binary", "Reason", null, "loc",
+                inventory, armor).join());
+
+        // キャッシュを使わずDBから読む
+        storageManager.shutdown();
+        storageManager = new StorageManager(plugin);
+        assertArrayEquals(inventory, storageManager.getInventoryBackupDataAsync(playerId).join());
+        assertArrayEquals(armor, storageManager.getArmorBackupDataAsync(playerId).join());
+
+        // 旧形式 (LONGTEXT列のBase64文字列) の行も読める
+        UUID legacyId = UUID.randomUUID();
+        try (var conn = storageManager.getConnectionPool().getConnection();
+             var ps = conn.prepareStatement("INSERT INTO jailed_players (player_id, player_name, jailed_at, "
+                     + "inventory_backup) VALUES (?, 'Legacy', 0, 'rO0ABXc=')")) {
+            ps.setString(1, legacyId.toString());
+            ps.executeUpdate();
+        }
+        // 隔離中IDの索引は起動時に読み込まれる
+        storageManager.shutdown();
+        storageManager = new StorageManager(plugin);
+        assertArrayEquals("rO0ABXc=".getBytes(java.nio.charset.StandardCharsets.US_ASCII),
+                storageManager.getInventoryBackupDataAsync(legacyId).join());
+        assertEquals("rO0ABXc=", storageManager.getInventoryBackup(legacyId));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testLegacyApiReturnsDecodableBase64ForBinaryBackups() {
+        UUID playerId = UUID.randomUUID();
+        assertTrue(storageManager.saveJailedPlayerAsync(playerId, "Binary", "Reason", null, "loc",
+                InventoryUtil.toBytes(new ItemStack[41]), InventoryUtil.toBytes(new ItemStack[4])).join());
+
+        // 旧APIの呼び出し元は InventoryUtil.fromBase64 で復元する
+        ItemStack[] inventory = InventoryUtil.fromBase64(storageManager.getInventoryBackupAsync(playerId).join());
+        assertNotNull(inventory);
+        assertEquals(41, inventory.length);
+        assertEquals(4, InventoryUtil.fromBase64(storageManager.getArmorBackup(playerId)).length);
+    }
+
+    @Test
+    void testJailRecordFetchedInOneLookup() {
+        UUID playerId = UUID.randomUUID();
+        UUID jailer = UUID.randomUUID();
+        assertNull(storageManager.getJailRecordAsync(playerId).join(), "Non-jailed player has no record");
+
+        byte[] inventory = { 'I', 'D', 1, 5 };
+        assertTrue(storageManager.saveJailedPlayerAsync(playerId, "Prisoner", "脱走", jailer, "world;1;2;3;0;0",
+                inventory, null).join());
+
+        // キャッシュを使わずDBから読む
+        storageManager.shutdown();
+        storageManager = new StorageManager(plugin);
+
+        JailRecord record = storageManager.getJailRecordAsync(playerId).join();
+        assertNotNull(record);
+        assertEquals("Prisoner", record.getPlayerName());
+        assertEquals("脱走", record.getReason());
+        assertEquals(jailer, record.getJailedBy());
+        assertEquals("world;1;2;3;0;0", record.getOriginalLocation());
+        assertArrayEquals(inventory, record.getInventoryBackup());
+        assertNull(record.getArmorBackup());
+
+        assertSame(record, storageManager.getJailRecordAsync(playerId).join(), "Record should be cached");
+        assertTrue(storageManager.isJailedAsync(playerId).join());
+    }
+
+    @Test
+    void testJailedIndexPreloadedAtStartup() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        assertTrue(storageManager.saveJailedPlayerAsync(first, "First", "r", null, "loc",
+                (byte[]) null, null).join());
+        assertTrue(storageManager.saveJailedPlayerAsync(second, "Second", "r", null, "loc",
+                (byte[]) null, null).join());
+
+        storageManager.shutdown();
+        storageManager = new StorageManager(plugin);
+
+        assertTrue(storageManager.isJailedIndexLoaded());
+        assertEquals(Set.of(first, second), storageManager.getJailedPlayerIds());
+
+        // 判定はメモリのみで完了済みのFutureが返る
+        CompletableFuture<Boolean> jailed = storageManager.isJailedAsync(first);
+        assertTrue(jailed.isDone());
+        assertTrue(jailed.join());
+        UUID stranger = UUID.randomUUID();
+        assertTrue(storageManager.getJailRecordAsync(stranger).isDone());
+        assertFalse(storageManager.isJailedAsync(stranger).join());
+
+        // 釈放は呼び出した時点で反映される
+        CompletableFuture<Void> removal = storageManager.removeJailedPlayerAsync(first);
+        assertFalse(storageManager.isJailedAsync(first).join());
+        removal.join();
+        assertEquals(Set.of(second), storageManager.getJailedPlayerIds());
+    }
+
+    @Test
+    void testJailSentenceSurvivesRestart() {
+        UUID timed = UUID.randomUUID();
+        UUID indefinite = UUID.randomUUID();
+        assertTrue(storageManager.saveJailedPlayerAsync(timed, "Timed", "r", null, "loc",
+                (byte[]) null, null, 30 * 60_000L).join());
+        assertTrue(storageManager.saveJailedPlayerAsync(indefinite, "Forever", "r", null, "loc",
+                (byte[]) null, null).join());
+        storageManager.updateJailServedAsync(timed, 5 * 60_000L).join();
+
+        storageManager.shutdown();
+        storageManager = new StorageManager(plugin);
+
+        // 起動時の一括読み込みで刑期も復元される
+        JailSentence sentence = storageManager.getJailSentences().get(timed);
+        assertNotNull(sentence);
+        assertEquals(30 * 60_000L, sentence.getDurationMillis());
+        assertEquals(25 * 60_000L, sentence.getRemainingOnlineMillis());
+        assertFalse(storageManager.getJailSentences().containsKey(indefinite));
+
+        JailRecord record = storageManager.getJailRecordAsync(timed).join();
+        assertEquals(5 * 60_000L, record.getSentence().getServedMillis());
+        assertEquals(record.getJailedAt() + 30 * 60_000L, record.getSentence().getReleaseAt());
+        assertNull(storageManager.getJailRecordAsync(indefinite).join().getSentence());
+
+        storageManager.removeJailedPlayerAsync(timed).join();
+        assertTrue(storageManager.getJailSentences().isEmpty());
+    }
+
+    @Test
+    void testJailCellsAndAssignmentsPersist() {
+        World world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        when(world.getName()).thenReturn("world");
+        Server server = mock(Server.class);
+        when(server.getWorld("world")).thenReturn(world);
+        when(plugin.getServer()).thenReturn(server);
+
+        JailCell cell = JailCell.box("a", world, 0, 60, 0, 4, 64, 4,
+                new Location(world, 2.5, 60, 2.5, 90f, 0f), 3);
+        assertTrue(storageManager.saveJailCellAsync(cell).join());
+        assertTrue(storageManager.saveJailCellAsync(cell.withCapacity(5)).join());
+
+        UUID prisoner = UUID.randomUUID();
+        assertTrue(storageManager.saveJailedPlayerAsync(prisoner, "Prisoner", "r", null, "loc",
+                (byte[]) null, null, 0, "a").join());
+
+        storageManager.shutdown();
+        storageManager = new StorageManager(plugin);
+
+        List<JailCell> cells = storageManager.getJailCellsAsync().join();
+        assertEquals(1, cells.size());
+        JailCell loaded = cells.get(0);
+        assertEquals("a", loaded.getName());
+        assertEquals(5, loaded.getCapacity());
+        assertEquals(5.0, loaded.getMaxX());
+        assertEquals(90f, loaded.getSpawn().getYaw());
+        assertTrue(loaded.contains(new Location(world, 4.5, 64.5, 0)));
+
+        assertEquals("a", storageManager.getJailCellAssignments().get(prisoner));
+        assertEquals("a", storageManager.getJailRecordAsync(prisoner).join().getCellName());
+
+        storageManager.updateJailCellAsync(prisoner, null).join();
+        assertNull(storageManager.getJailRecordAsync(prisoner).join().getCellName());
+        assertTrue(storageManager.deleteJailCellAsync("a").join());
+        assertTrue(storageManager.getJailCellsAsync().join().isEmpty());
+    }
+
+    @Test
+    void testBatchJailAndReleaseInOneTransaction() {
+        List<JailRecord> records = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            records.add(new JailRecord(UUID.randomUUID(), "Squad" + i, "raid", System.currentTimeMillis(), null,
+                    "loc" + i, new byte[] { (byte) i }, null,
+                    i % 2 == 0 ? new JailSentence(System.currentTimeMillis(), 60_000L, 0) : null,
+                    i < 10 ? "a" : null));
+        }
+        assertTrue(storageManager.saveJailedPlayersAsync(records).join());
+
+        storageManager.shutdown();
+        storageManager = new StorageManager(plugin);
+
+        assertEquals(20, storageManager.getJailedPlayerIds().size());
+        assertEquals(10, storageManager.getJailSentences().size());
+        assertEquals(10, storageManager.getJailCellAssignments().size());
+
+        // 隔離されていないプレイヤーを混ぜても1回で取得できる
+        List<UUID> ids = new ArrayList<>();
+        records.forEach(r -> ids.add(r.getPlayerId()));
+        UUID stranger = UUID.randomUUID();
+        ids.add(stranger);
+        var fetched = storageManager.getJailRecordsAsync(ids).join();
+        assertEquals(20, fetched.size());
+        assertFalse(fetched.containsKey(stranger));
+        assertEquals("loc3", fetched.get(records.get(3).getPlayerId()).getOriginalLocation());
+        assertArrayEquals(new byte[] { 3 }, fetched.get(records.get(3).getPlayerId()).getInventoryBackup());
+
+        // 一括釈放は呼び出した時点で索引に反映される
+        List<UUID> released = ids.subList(0, 15);
+        CompletableFuture<Boolean> removal = storageManager.removeJailedPlayersAsync(released);
+        assertEquals(5, storageManager.getJailedPlayerIds().size());
+        assertTrue(removal.join());
+        assertNull(storageManager.getJailRecordAsync(ids.get(0)).join());
+
+        storageManager.shutdown();
+        storageManager = new StorageManager(plugin);
+        assertEquals(new HashSet<>(ids.subList(15, 20)), storageManager.getJailedPlayerIds());
+    }
+
+    @Test
+    void testDailyPlaytimeAccumulatesAndAggregates() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        assertTrue(storageManager.addDailyPlaytimeAsync(List.of(
+                new DailyPlaytime(a, 100, 1000),
+                new DailyPlaytime(a, 101, 2000),
+                new DailyPlaytime(b, 101, 500))).join());
+        // 同じ日への加算は合計される
+        assertTrue(storageManager.addDailyPlaytimeAsync(List.of(
+                new DailyPlaytime(a, 101, 3000),
+                new DailyPlaytime(b, 107, 9000))).join());
+
+        assertEquals(6000L, storageManager.getPlaytimeBetweenAsync(a, 100, 107).join());
+        assertEquals(5000L, storageManager.getPlaytimeBetweenAsync(a, 101, 101).join());
+        assertEquals(0L, storageManager.getPlaytimeBetweenAsync(a, 102, 107).join());
+        assertEquals(Map.of(100L, 1000L, 101L, 5000L),
+                storageManager.getDailyPlaytimeAsync(a, 0, 200).join());
+
+        var top = storageManager.getTopPlaytimeBetweenAsync(100, 107, 10).join();
+        assertEquals(List.of(b, a), top.stream().map(Map.Entry::getKey).toList());
+        assertEquals(9500L, top.get(0).getValue());
+        assertEquals(List.of(a), storageManager.getTopPlaytimeBetweenAsync(100, 101, 1).join()
+                .stream().map(Map.Entry::getKey).toList());
+    }
 }
@@ -0,0 +1,33 @@
+package com.irondiscipline.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JailSentenceTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void testOfflineJailCountsFromFirstLogin() {
+        long jailedAt = 1_000_000L;
+        JailSentence stored = new JailSentence(jailedAt, HOUR, 0);
+
+        // 刑期より後にログインしても、その時点から刑期を全て数える
+        long login = jailedAt + 5 * HOUR;
+        JailSentence serving = stored.restartAt(login);
+        assertEquals(login, serving.getJailedAt());
+        assertEquals(login + HOUR, serving.getReleaseAt());
+        assertEquals(HOUR, serving.getRemainingOnlineMillis());
+    }
+
+    @Test
+    void testRestartKeepsOnlyTheUnservedPart() {
+        JailSentence partlyServed = new JailSentence(0, 3 * HOUR, HOUR);
+
+        JailSentence serving = partlyServed.restartAt(10 * HOUR);
+        assertEquals(2 * HOUR, serving.getDurationMillis());
+        assertEquals(0, serving.getServedMillis());
+        assertEquals(12 * HOUR, serving.getReleaseAt());
+    }
+}
@@ -0,0 +1,76 @@
+package com.irondiscipline.model;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JailZoneTest {
+
+    private World world;
+    private World otherWorld;
+
+    @BeforeEach
+    void setUp() {
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        otherWorld = mock(World.class);
+        when(otherWorld.getUID()).thenReturn(UUID.randomUUID());
+    }
+
+    @Test
+    void testRadiusCellUsesSphere() {
+        JailCell cell = JailCell.around("default", new Location(world, 0, 64, 0), 10);
+
+        assertTrue(cell.contains(new Location(world, 5, 64, 5)));
+        assertTrue(cell.contains(new Location(world, 0, 74, 0)));
+        // 直方体の角は半径外
+        assertFalse(cell.contains(new Location(world, 9, 73, 9)));
+        assertFalse(cell.contains(new Location(world, 10.5, 64, 0)));
+        assertFalse(cell.contains(new Location(otherWorld, 0, 64, 0)));
+    }
+
+    @Test
+    void testBoxCellIncludesEdgeBlocks() {
+        JailCell cell = JailCell.box("a", world, 10, 60, 10, 0, 66, 0, null);
+
+        assertTrue(cell.contains(new Location(world, 0, 60, 0)));
+        assertTrue(cell.contains(new Location(world, 10.9, 66.9, 10.9)));
+        assertFalse(cell.contains(new Location(world, 11.1, 62, 5)));
+        assertFalse(cell.contains(new Location(world, 5, 59.5, 5)));
+
+        Location spawn = cell.getSpawn();
+        assertEquals(5.5, spawn.getX());
+        assertEquals(60, spawn.getY());
+        assertEquals(5.5, spawn.getZ());
+    }
+
+    @Test
+    void testEscapeReturnsToNearestCell() {
+        JailCell a = JailCell.box("a", world, 0, 60, 0, 4, 64, 4, new Location(world, 2, 60, 2));
+        JailCell b = JailCell.box("b", world, 100, 60, 0, 104, 64, 4, new Location(world, 102, 60, 2));
+        JailZone zone = new JailZone(List.of(a, b));
+
+        assertTrue(zone.contains(new Location(world, 101, 61, 1)));
+        assertFalse(zone.contains(new Location(world, 50, 61, 1)));
+        assertSame(b, zone.nearestCell(new Location(world, 90, 61, 1)));
+        assertSame(a, zone.nearestCell(new Location(world, 10, 61, 1)));
+        // 別ワールドからは最初の監房へ
+        assertSame(a, zone.nearestCell(new Location(otherWorld, 102, 60, 2)));
+        assertSame(a, zone.getPrimaryCell());
+    }
+
+    @Test
+    void testSpawnIsDefensiveCopy() {
+        JailCell cell = JailCell.around("default", new Location(world, 0, 64, 0), 10);
+        cell.getSpawn().add(100, 0, 0);
+        assertEquals(0, cell.getSpawn().getX());
+        assertTrue(new JailZone(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+package com.irondiscipline.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankLadderTest {
+
+    @Test
+    void testOrderedByWeightWithNeighbours() {
+        RankLadder ladder = new RankLadder(List.of(
+                new RankLadder.Definition("SERGEANT", "&e[軍曹]", 30),
+                new RankLadder.Definition("PRIVATE", "&7[二等兵]", 10),
+                new RankLadder.Definition("CORPORAL", "&7[伍長]", 20)));
+
+        assertEquals(3, ladder.size());
+        Rank lowest = ladder.lowest();
+        assertEquals("PRIVATE", lowest.getId());
+        assertEquals(0, lowest.ordinal());
+        assertNull(lowest.getPreviousRank());
+        assertEquals("CORPORAL", lowest.getNextRank().getId());
+        assertSame(ladder.highest(), lowest.getNextRank().getNextRank());
+        assertNull(ladder.highest().getNextRank());
+
+        // 上位ほど並び順のキーが小さい
+        assertTrue(ladder.highest().getSortKey().compareTo(lowest.getSortKey()) < 0);
+    }
+
+    @Test
+    void testLookupByIdIgnoresCase() {
+        RankLadder ladder = RankLadder.defaults();
+
+        assertSame(ladder.get("PRIVATE_FIRST_CLASS"), ladder.get("private_first_class"));
+        assertEquals(15, ladder.get("Private_First_Class").getWeight());
+        assertNull(ladder.get("GENERAL"));
+        assertNull(ladder.get((String) null));
+
+        assertEquals("LIEUTENANT", ladder.atLeast(35).getId());
+        assertEquals("SERGEANT", ladder.atMost(35).getId());
+        assertSame(ladder.lowest(), ladder.atMost(0));
+    }
+
+    @Test
+    void testDuplicateIdsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RankLadder(List.of(
+                new RankLadder.Definition("PRIVATE", "a", 10),
+                new RankLadder.Definition("private", "b", 20))));
+        assertThrows(IllegalArgumentException.class, () -> new RankLadder(List.of()));
+    }
+}
@@ -0,0 +1,140 @@
+package com.irondiscipline.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        pool = ConnectionPool.builder("TestPool", () -> DriverManager.getConnection(url, "sa", ""))
+                .maximumPoolSize(2)
+                .minimumIdle(1)
+                .connectionTimeout(200)
+                .build();
+        pool.fill();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testBorrowAndReturn() throws Exception {
+        assertEquals(1, pool.getIdleConnections(), "fill() should create minimum idle connections");
+
+        Connection conn = pool.getConnection();
+        assertEquals(1, pool.getActiveConnections());
+        assertEquals(0, pool.getIdleConnections());
+
+        conn.close();
+        assertTrue(conn.isClosed(), "Returned proxy should report closed");
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(1, pool.getIdleConnections(), "Physical connection should be back in the pool");
+        assertThrows(SQLException.class, conn::createStatement, "Returned proxy must not be usable");
+    }
+
+    @Test
+    void testFailedFillClosesPartialConnectionsAndReleasesSlots() throws Exception {
+        String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        List<Connection> opened = new ArrayList<>();
+        ConnectionPool failing = ConnectionPool.builder("FailingPool", () -> {
+                    if (opened.size() == 2) {
+                        throw new SQLException("接続失敗");
+                    }
+                    Connection conn = DriverManager.getConnection(url, "sa", "");
+                    opened.add(conn);
+                    return conn;
+                })
+                .maximumPoolSize(5)
+                .minimumIdle(3)
+                .build();
+        try {
+            assertThrows(SQLException.class, failing::fill);
+            assertEquals(0, failing.getTotalConnections(), "Reserved slots should be released");
+            assertEquals(0, failing.getIdleConnections());
+            for (Connection conn : opened) {
+                assertTrue(conn.isClosed(), "Partially created connections should be closed");
+            }
+        } finally {
+            failing.close();
+        }
+    }
+
+    @Test
+    void testBoundedSizeTimesOut() throws Exception {
+        Connection a = pool.getConnection();
+        Connection b = pool.getConnection();
+        assertEquals(2, pool.getTotalConnections());
+
+        assertThrows(SQLTransientConnectionException.class, pool::getConnection,
+                "Pool should not grow beyond maximum size");
+        assertEquals(1, pool.getTotalTimeouts());
+
+        a.close();
+        b.close();
+    }
+
+    @Test
+    void testWaiterReceivesReturnedConnection() throws Exception {
+        Connection a = pool.getConnection();
+        Connection b = pool.getConnection();
+
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.getConnection();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (pool.getThreadsAwaitingConnection() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, pool.getThreadsAwaitingConnection(), "Borrower should be waiting");
+
+        a.close();
+        Connection c = waiter.get(1, TimeUnit.SECONDS);
+        assertNotNull(c);
+
+        b.close();
+        c.close();
+    }
+
+    @Test
+    void testUncommittedTransactionRolledBackOnReturn() throws Exception {
+        try (Connection conn = pool.getConnection()) {
+            conn.createStatement().execute("CREATE TABLE t (v INT)");
+        }
+
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            conn.createStatement().execute("INSERT INTO t VALUES (1)");
+        }
+
+        try (Connection conn = pool.getConnection()) {
+            assertTrue(conn.getAutoCommit(), "Auto-commit should be restored on return");
+            var rs = conn.createStatement().executeQuery("SELECT COUNT(*) FROM t");
+            rs.next();
+            assertEquals(0, rs.getInt(1), "Uncommitted insert should be rolled back");
+        }
+    }
+}
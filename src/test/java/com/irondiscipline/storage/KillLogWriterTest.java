@@ -0,0 +1,159 @@
+package com.irondiscipline.storage;
+
+import com.irondiscipline.model.KillLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KillLogWriterTest {
+
+    private static final Logger LOGGER = Logger.getLogger("TestLogger");
+
+    private static KillLog log(String victim) {
+        return KillLog.builder()
+                .killer(UUID.randomUUID(), "Killer")
+                .victim(UUID.randomUUID(), victim)
+                .build();
+    }
+
+    @Test
+    void testBatchesByCount() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        KillLogWriter writer = new KillLogWriter(batch -> batchSizes.add(batch.size()), LOGGER,
+                100, 10, 60_000, KillLogWriter.OverflowPolicy.DROP_OLDEST, 0);
+
+        for (int i = 0; i < 25; i++) {
+            assertTrue(writer.enqueue(log("V" + i)));
+        }
+        writer.shutdown(5000);
+
+        assertEquals(25, writer.getWrittenCount(), "All queued logs should be written");
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10), "Batches must not exceed batch size");
+        assertTrue(batchSizes.size() < 25, "Logs should be grouped instead of written one by one");
+    }
+
+    @Test
+    void testFlushesByElapsedTime() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        KillLogWriter writer = new KillLogWriter(batch -> batchSizes.add(batch.size()), LOGGER,
+                100, 1000, 50, KillLogWriter.OverflowPolicy.DROP_OLDEST, 0);
+
+        writer.enqueue(log("A"));
+        writer.enqueue(log("B"));
+        assertTrue(writer.flush(2000), "Partial batch should be flushed after the interval");
+        assertEquals(2, writer.getWrittenCount());
+
+        writer.shutdown(5000);
+    }
+
+    @Test
+    void testOverflowPolicies() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> writtenVictims = new CopyOnWriteArrayList<>();
+        KillLogWriter.BatchSink blockingSink = batch -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (KillLog l : batch) {
+                writtenVictims.add(l.getVictimName());
+            }
+        };
+
+        KillLogWriter dropNewest = new KillLogWriter(blockingSink, LOGGER,
+                2, 1, 10, KillLogWriter.OverflowPolicy.DROP_NEWEST, 0);
+
+        // 1件目は書き込みスレッドが取り出してシンクで停止する
+        dropNewest.enqueue(log("in-flight"));
+        long deadline = System.currentTimeMillis() + 1000;
+        while (dropNewest.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertTrue(dropNewest.enqueue(log("A")));
+        assertTrue(dropNewest.enqueue(log("B")));
+        assertFalse(dropNewest.enqueue(log("C")), "Full queue should reject newest entry");
+        assertEquals(1, dropNewest.getDroppedCount());
+
+        release.countDown();
+        dropNewest.shutdown(5000);
+        assertEquals(new ArrayList<>(List.of("in-flight", "A", "B")), new ArrayList<>(writtenVictims));
+    }
+
+    @Test
+    void testDropOldestKeepsNewest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> writtenVictims = new CopyOnWriteArrayList<>();
+        KillLogWriter writer = new KillLogWriter(batch -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (KillLog l : batch) {
+                writtenVictims.add(l.getVictimName());
+            }
+        }, LOGGER, 2, 1, 10, KillLogWriter.OverflowPolicy.DROP_OLDEST, 0);
+
+        writer.enqueue(log("in-flight"));
+        long deadline = System.currentTimeMillis() + 1000;
+        while (writer.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        writer.enqueue(log("A"));
+        writer.enqueue(log("B"));
+        assertTrue(writer.enqueue(log("C")), "Newest entry should replace the oldest one");
+        assertEquals(1, writer.getDroppedCount());
+
+        release.countDown();
+        writer.shutdown(5000);
+        assertEquals(List.of("in-flight", "B", "C"), new ArrayList<>(writtenVictims));
+    }
+
+    @Test
+    void testShutdownWritesEveryAcceptedLog() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            KillLogWriter writer = new KillLogWriter(batch -> { }, LOGGER,
+                    10_000, 50, 10, KillLogWriter.OverflowPolicy.DROP_NEWEST, 0);
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> producers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Thread producer = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    while (writer.enqueue(log("V"))) {
+                        Thread.onSpinWait();
+                    }
+                });
+                producer.start();
+                producers.add(producer);
+            }
+
+            start.countDown();
+            Thread.sleep(2);
+            writer.shutdown(5000);
+            for (Thread producer : producers) {
+                producer.join(5000);
+            }
+
+            // 受け付けたログは停止と競合しても全て書き出される
+            assertEquals(writer.getEnqueuedCount(), writer.getWrittenCount());
+            assertEquals(0, writer.getQueueDepth());
+            assertFalse(writer.enqueue(log("late")), "Stopped writer must reject new logs");
+        }
+    }
+}
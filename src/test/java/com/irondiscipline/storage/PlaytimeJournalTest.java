@@ -0,0 +1,120 @@
+package com.irondiscipline.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaytimeJournalTest {
+
+    private static final Logger LOGGER = Logger.getLogger("TestLogger");
+
+    @TempDir
+    Path tempDir;
+
+    private File[] journals() {
+        return tempDir.toFile().listFiles((dir, name) -> name.endsWith(".journal"));
+    }
+
+    @Test
+    void testJournalReplayedAfterCrash() throws Exception {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        PlaytimeJournal journal = new PlaytimeJournal(tempDir.toFile(), LOGGER);
+        assertTrue(journal.load().isEmpty());
+        journal.append(a, 100);
+        journal.append(a, 50);
+        journal.append(b, 30);
+        journal.append(b, 0);
+        journal.flush();
+
+        // 書き込み途中で停止した不完全なレコード
+        try (FileOutputStream out = new FileOutputStream(journals()[0], true)) {
+            out.write(new byte[] { 1, 2, 3 });
+        }
+
+        // close せずに再起動 (スナップショットなし)
+        Map<UUID, Long> totals = new PlaytimeJournal(tempDir.toFile(), LOGGER).load();
+        assertEquals(150L, totals.get(a));
+        assertEquals(30L, totals.get(b));
+    }
+
+    @Test
+    void testCompactionFoldsJournalIntoSnapshot() throws Exception {
+        UUID a = UUID.randomUUID();
+        PlaytimeJournal journal = new PlaytimeJournal(tempDir.toFile(), LOGGER);
+        journal.load();
+        journal.append(a, 1000);
+        journal.flush();
+        File folded = journals()[0];
+        File copy = new File(tempDir.toFile(), "copy.bin");
+        Files.copy(folded.toPath(), copy.toPath());
+        journal.close();
+
+        assertTrue(new File(tempDir.toFile(), "playtime.snapshot").exists());
+        assertFalse(folded.exists(), "Compacted journal is removed");
+
+        // スナップショット後、削除前に停止した場合もまとめ済みの世代は数えない
+        Files.move(copy.toPath(), folded.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        journal = new PlaytimeJournal(tempDir.toFile(), LOGGER);
+        assertEquals(1000L, journal.load().get(a));
+        assertFalse(folded.exists());
+        journal.append(a, 500);
+        journal.compact();
+        journal.append(a, 25);
+        journal.flush();
+
+        // まとめた後の追記だけが再生される
+        assertEquals(1525L, new PlaytimeJournal(tempDir.toFile(), LOGGER).load().get(a));
+    }
+
+    @Test
+    void testLegacyJsonMigrated() throws Exception {
+        UUID a = UUID.randomUUID();
+        Files.writeString(tempDir.resolve("playtime.json"), "{\"" + a + "\": 7200000, \"invalid\": 5}",
+                StandardCharsets.UTF_8);
+
+        PlaytimeJournal journal = new PlaytimeJournal(tempDir.toFile(), LOGGER);
+        assertEquals(Map.of(a, 7_200_000L), journal.load());
+        journal.close();
+
+        assertFalse(Files.exists(tempDir.resolve("playtime.json")));
+        assertTrue(Files.exists(tempDir.resolve("playtime.json.migrated")));
+        assertEquals(Map.of(a, 7_200_000L), new PlaytimeJournal(tempDir.toFile(), LOGGER).load());
+    }
+
+    @Test
+    void testAppendsKeptWhenSnapshotUnreadable() throws Exception {
+        UUID a = UUID.randomUUID();
+        PlaytimeJournal journal = new PlaytimeJournal(tempDir.toFile(), LOGGER);
+        journal.load();
+        journal.append(a, 100);
+        journal.close();
+
+        Path snapshot = tempDir.resolve("playtime.snapshot");
+        Path backup = tempDir.resolve("snapshot.bak");
+        Files.copy(snapshot, backup);
+        Files.write(snapshot, new byte[] { 0, 1, 2, 3, 4, 5, 6, 7 });
+
+        // 読み込みに失敗しても新しいジャーナルへの追記は残り、まとめで消されない
+        PlaytimeJournal restarted = new PlaytimeJournal(tempDir.toFile(), LOGGER);
+        assertThrows(IOException.class, restarted::load);
+        restarted.append(a, 40);
+        restarted.close();
+
+        Files.move(backup, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        assertEquals(140L, new PlaytimeJournal(tempDir.toFile(), LOGGER).load().get(a));
+    }
+}
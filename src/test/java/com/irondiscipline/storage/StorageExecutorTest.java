@@ -0,0 +1,90 @@
+package com.irondiscipline.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageExecutorTest {
+
+    private StorageExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        executor = new StorageExecutor(Logger.getLogger("TestLogger"), 1, 1, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown(1000);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testReadsAreNotBlockedBySlowWrites() throws Exception {
+        executor.write("slowWrite", this::awaitRelease);
+
+        String result = executor.read("read", () -> "ok").get(1, TimeUnit.SECONDS);
+        assertEquals("ok", result, "Read lane should run while the write lane is busy");
+    }
+
+    @Test
+    void testRejectsWhenLaneIsSaturated() throws Exception {
+        // 1件実行中 + 1件キュー待ちで満杯
+        executor.write("slowWrite", this::awaitRelease);
+        executor.write("queuedWrite", () -> { });
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (executor.getQueueDepth(StorageExecutor.Lane.WRITE) < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        CompletableFuture<Void> rejected = executor.write("rejectedWrite", () -> { });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(StorageExecutor.StorageRejectedException.class, e.getCause());
+        assertEquals(1, executor.getRejectedCount(StorageExecutor.Lane.WRITE));
+        assertEquals(1, executor.getOperationStats("rejectedWrite").getRejectedCount());
+    }
+
+    @Test
+    void testRecordsOperationTimings() throws Exception {
+        executor.read("sleepyRead", () -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }).get(1, TimeUnit.SECONDS);
+
+        StorageExecutor.OperationStats stats = executor.getOperationStats("sleepyRead");
+        assertEquals(1, stats.getCount());
+        assertTrue(stats.getAverageExecMillis() >= 15, "Execution time should be recorded");
+        assertTrue(stats.getMaxExecMillis() >= stats.getAverageExecMillis());
+    }
+
+    @Test
+    void testTaskExceptionCompletesFutureExceptionally() {
+        CompletableFuture<Object> future = executor.read("failing", () -> {
+            throw new IllegalStateException("boom");
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+}
@@ -0,0 +1,91 @@
+package com.irondiscipline.util;
+
+import com.irondiscipline.model.DailyPlaytime;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyPlaytimeBufferTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private final DailyPlaytimeBuffer buffer = new DailyPlaytimeBuffer(ZoneOffset.UTC);
+
+    private static Map<Long, Long> byDay(List<DailyPlaytime> entries) {
+        Map<Long, Long> days = new HashMap<>();
+        entries.forEach(e -> days.merge(e.getEpochDay(), e.getMillis(), Long::sum));
+        return days;
+    }
+
+    @Test
+    void testSessionSplitAtMidnight() {
+        UUID player = UUID.randomUUID();
+        long day = 20_000;
+        long midnight = buffer.startOfDay(day + 1);
+
+        assertTrue(buffer.start(player, midnight - 2 * HOUR));
+        buffer.account(player, midnight - HOUR);
+        buffer.stop(player, midnight + 3 * HOUR);
+
+        Map<Long, Long> days = byDay(buffer.drain());
+        assertEquals(2 * HOUR, days.get(day));
+        assertEquals(3 * HOUR, days.get(day + 1));
+        assertTrue(buffer.drain().isEmpty());
+
+        // 日付が変わった後の「本日」は新しい日の分のみ
+        assertEquals(3 * HOUR, buffer.getToday(player, midnight + 4 * HOUR));
+    }
+
+    @Test
+    void testTodaySurvivesReconnect() {
+        UUID player = UUID.randomUUID();
+        long start = buffer.startOfDay(20_000) + HOUR;
+
+        assertTrue(buffer.start(player, start));
+        buffer.addStoredToday(player, 20_000, 30 * 60_000L);
+        buffer.stop(player, start + HOUR);
+
+        // 再接続しても本日分は引き継がれ、DBから読み直さない
+        assertFalse(buffer.start(player, start + 2 * HOUR));
+        assertEquals(HOUR + 30 * 60_000L + HOUR / 2, buffer.getToday(player, start + 2 * HOUR + HOUR / 2));
+    }
+
+    @Test
+    void testFailedFlushIsRestored() {
+        UUID player = UUID.randomUUID();
+        long start = buffer.startOfDay(20_000);
+        buffer.start(player, start);
+        buffer.account(player, start + HOUR);
+
+        List<DailyPlaytime> entries = buffer.drain();
+        assertEquals(0, buffer.getUnsaved(player, 20_000, 20_000, start + HOUR));
+        buffer.restore(entries);
+        buffer.account(player, start + 2 * HOUR);
+
+        assertEquals(2 * HOUR, buffer.getUnsaved(player, 20_000, 20_000, start + 2 * HOUR));
+        assertEquals(0, buffer.getUnsaved(player, 19_990, 19_999, start + 2 * HOUR));
+        assertEquals(2 * HOUR, byDay(buffer.drain()).get(20_000L));
+    }
+
+    @Test
+    void testStopAtRemovesAlreadyAccountedIdleTime() {
+        UUID player = UUID.randomUUID();
+        long start = buffer.startOfDay(20_000);
+        buffer.start(player, start);
+        buffer.account(player, start + 2 * HOUR);
+        List<DailyPlaytime> flushed = buffer.drain();
+
+        // 1時間目から放置していたと後で分かった場合、反映済みの分も打ち消す
+        buffer.stopAt(player, start + HOUR, start + 3 * HOUR);
+
+        assertEquals(HOUR, buffer.getToday(player, start + 3 * HOUR));
+        assertEquals(-HOUR, byDay(buffer.drain()).get(20_000L));
+        assertEquals(2 * HOUR, byDay(flushed).get(20_000L));
+    }
+}
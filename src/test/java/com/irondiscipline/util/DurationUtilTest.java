@@ -0,0 +1,25 @@
+package com.irondiscipline.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurationUtilTest {
+
+    @Test
+    void testParse() {
+        assertEquals(30 * 60_000L, DurationUtil.parse("30m"));
+        assertEquals(90 * 60_000L, DurationUtil.parse("1h30m"));
+        assertEquals(2 * 86_400_000L + 5_000L, DurationUtil.parse("2D5s"));
+        assertEquals(-1, DurationUtil.parse("規律違反"));
+        assertEquals(-1, DurationUtil.parse("30"));
+        assertEquals(-1, DurationUtil.parse("99999999999999999w"));
+    }
+
+    @Test
+    void testFormat() {
+        assertEquals("1時間30分", DurationUtil.format(90 * 60_000L));
+        assertEquals("1日", DurationUtil.format(86_400_000L));
+        assertEquals("45秒", DurationUtil.format(45_000L));
+    }
+}
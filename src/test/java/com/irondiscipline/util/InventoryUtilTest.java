@@ -0,0 +1,48 @@
+package com.irondiscipline.util;
+
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryUtilTest {
+
+    @Test
+    void testBinaryRoundTrip() {
+        byte[] data = InventoryUtil.toBytes(new ItemStack[41]);
+        assertTrue(InventoryUtil.isBinaryFormat(data));
+
+        ItemStack[] restored = InventoryUtil.fromBytes(data);
+        assertNotNull(restored);
+        assertEquals(41, restored.length);
+    }
+
+    @Test
+    void testReadsLegacyBase64() {
+        String legacy = InventoryUtil.toBase64(new ItemStack[4]);
+        byte[] legacyBytes = legacy.getBytes(StandardCharsets.US_ASCII);
+        assertFalse(InventoryUtil.isBinaryFormat(legacyBytes), "Base64 text must not look like the binary format");
+
+        ItemStack[] restored = InventoryUtil.fromBytes(legacyBytes);
+        assertNotNull(restored);
+        assertEquals(4, restored.length);
+        assertEquals(4, InventoryUtil.fromBase64(legacy).length);
+    }
+
+    @Test
+    void testBinaryIsSmallerThanBase64() {
+        ItemStack[] items = new ItemStack[41];
+        int binary = InventoryUtil.toBytes(items).length;
+        int base64 = InventoryUtil.toBase64(items).length();
+        assertTrue(binary < base64, "Compressed binary (" + binary + ") should be smaller than Base64 (" + base64 + ")");
+    }
+
+    @Test
+    void testRejectsUnknownVersion() {
+        byte[] data = InventoryUtil.toBytes(new ItemStack[1]);
+        data[2] = 9;
+        assertNull(InventoryUtil.fromBytes(data));
+    }
+}
@@ -0,0 +1,87 @@
+package com.irondiscipline.util;
+
+import com.irondiscipline.model.JailCell;
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JailCellAllocatorTest {
+
+    private World world;
+
+    @BeforeEach
+    void setUp() {
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+    }
+
+    private JailCell cell(String name, int capacity) {
+        return JailCell.box(name, world, 0, 60, 0, 4, 64, 4, null, capacity);
+    }
+
+    @Test
+    void testMassJailSpreadsAcrossCells() {
+        JailCellAllocator allocator = new JailCellAllocator();
+        allocator.setCells(List.of(cell("a", 10), cell("b", 10), cell("c", 5)));
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 24; i++) {
+            JailCell assigned = allocator.assign(UUID.randomUUID());
+            assertNotNull(assigned);
+            counts.merge(assigned.getName(), 1, Integer::sum);
+        }
+        // 最も空いている監房から順に埋まり、定員は超えない
+        assertEquals(5, counts.get("c"));
+        assertEquals(19, counts.get("a") + counts.get("b"));
+        assertTrue(Math.abs(counts.get("a") - counts.get("b")) <= 1);
+
+        assertNotNull(allocator.assign(UUID.randomUUID()));
+        assertNull(allocator.assign(UUID.randomUUID()), "All cells are full");
+    }
+
+    @Test
+    void testReleaseFreesCapacity() {
+        JailCellAllocator allocator = new JailCellAllocator();
+        allocator.setCells(List.of(cell("solo", 1)));
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        assertEquals("solo", allocator.assign(first).getName());
+        assertSame(allocator.getAssignedCell(first), allocator.assign(first), "Assignment is idempotent");
+        assertNull(allocator.assign(second));
+
+        allocator.release(first);
+        assertNull(allocator.getAssignedCell(first));
+        assertEquals("solo", allocator.assign(second).getName());
+        assertEquals(1, allocator.getOccupancy("solo"));
+    }
+
+    @Test
+    void testOccupyAndCellRemoval() {
+        JailCellAllocator allocator = new JailCellAllocator();
+        allocator.setCells(List.of(cell("a", 1), cell("b", 0)));
+        UUID restored = UUID.randomUUID();
+
+        // 保存済みの割り当ては定員に関係なく復元する
+        assertNotNull(allocator.occupy(restored, "a"));
+        assertNotNull(allocator.occupy(UUID.randomUUID(), "a"));
+        assertEquals(2, allocator.getOccupancy("a"));
+        assertNull(allocator.occupy(UUID.randomUUID(), "missing"));
+
+        // 無制限の監房は常に空きあり
+        assertEquals("b", allocator.assign(UUID.randomUUID()).getName());
+
+        // 監房がなくなると割り当ても外れる
+        allocator.setCells(List.of(cell("b", 0)));
+        assertNull(allocator.getAssignedCell(restored));
+        assertEquals(1, allocator.getOccupancy("b"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.irondiscipline.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    @Test
+    void testTopAndRankMatchFullSort() {
+        Leaderboard<Integer> board = new Leaderboard<>();
+        Map<Integer, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(10) == 0) {
+                board.remove(key);
+                expected.remove(key);
+            } else {
+                long score = random.nextInt(1000);
+                board.update(key, score);
+                expected.put(key, score);
+            }
+        }
+
+        List<Map.Entry<Integer, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Map.Entry.<Integer, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        assertEquals(sorted.size(), board.size());
+        assertEquals(sorted.subList(0, 10), board.top(10));
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, board.rank(sorted.get(i).getKey()));
+        }
+    }
+
+    @Test
+    void testUpdateMovesEntry() {
+        Leaderboard<String> board = new Leaderboard<>();
+        board.update("a", 100);
+        board.update("b", 200);
+        board.update("c", 300);
+        assertEquals(3, board.rank("a"));
+
+        board.update("a", 500);
+        assertEquals(1, board.rank("a"));
+        assertEquals(500L, board.getScore("a"));
+        assertEquals(List.of("a", "c"), board.top(2).stream().map(Map.Entry::getKey).toList());
+
+        board.remove("c");
+        assertEquals(-1, board.rank("c"));
+        assertEquals(2, board.rank("b"));
+        assertEquals(2, board.top(10).size());
+    }
+}
@@ -0,0 +1,83 @@
+package com.irondiscipline.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void testExpiresAtDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000);
+        wheel.schedule("a", 1005);
+        wheel.schedule("b", 1005);
+        wheel.schedule("c", 1010);
+
+        assertTrue(wheel.advanceTo(1004).isEmpty());
+        List<String> expired = wheel.advanceTo(1005);
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of("a", "b")));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("c"), wheel.advanceTo(1020));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCancelAndReschedule() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        wheel.schedule("a", 100);
+        wheel.schedule("b", 100);
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+
+        // 再登録は期限を置き換える
+        wheel.schedule("b", 5000);
+        assertEquals(5000, wheel.getDeadline("b"));
+        assertTrue(wheel.advanceTo(4999).isEmpty());
+        assertEquals(List.of("b"), wheel.advanceTo(5000));
+    }
+
+    @Test
+    void testPastDeadlineExpiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(500);
+        wheel.schedule("late", 10);
+        assertEquals(List.of("late"), wheel.advanceTo(501));
+    }
+
+    @Test
+    void testCascadingLevelsMatchDeadlines() {
+        long start = 123_456;
+        TimingWheel<Integer> wheel = new TimingWheel<>(start);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            // 各段 (64, 4096, 262144 tick) をまたぐ期限
+            long deadline = start + 1 + random.nextInt(400_000);
+            deadlines.put(i, deadline);
+            wheel.schedule(i, deadline);
+        }
+        // 溢れリスト (約1677万tick超)
+        long far = start + (1L << 24) + 77;
+        wheel.schedule(-1, far);
+
+        List<Integer> fired = new ArrayList<>();
+        for (long tick = start + 1; tick <= start + 400_001; tick += 997) {
+            for (Integer key : wheel.advanceTo(tick)) {
+                long deadline = deadlines.get(key);
+                assertTrue(deadline <= tick && deadline > tick - 997, "key " + key + " fired at wrong tick");
+                fired.add(key);
+            }
+        }
+        assertEquals(2000, fired.size());
+        assertTrue(wheel.contains(-1));
+
+        assertTrue(wheel.advanceTo(far - 1).isEmpty());
+        assertEquals(List.of(-1), wheel.advanceTo(far));
+    }
+}